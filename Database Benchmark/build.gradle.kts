@@ -0,0 +1,48 @@
+plugins {
+    id ("java")
+    id("org.broken.arrow.library.LoadDependency")
+}
+
+group = "org.broken.arrow.library"
+description = "Database_Benchmark"
+version = "1.0-SNAPSHOT"
+
+dependencies {
+    implementation(project(":database"))
+    implementation(libs.org.openjdk.jmh.core)
+    implementation(libs.org.xerial.sqlite.jdbc)
+    implementation(libs.com.h2database.h2)
+    compileOnly(libs.google.findbugs.jsr305)
+    annotationProcessor(libs.org.openjdk.jmh.generator.annprocess)
+}
+
+/**
+ * Benchmarks for the write and read paths of the Database module against embedded SQLite
+ * and H2, run with "gradlew :database-benchmark:jmh". This project is kept out of the
+ * Database build, so the library doesn't depend on any benchmark tooling.
+ * The results are saved as JSON, so runs before and after a change can be compared,
+ * for example with "jmh.morethan.io".
+ * Use -Pjmh.includes=SaveAll to only run the matching benchmarks.
+ */
+tasks {
+    withType<AbstractPublishToMaven>().configureEach {
+        enabled = false
+    }
+
+    register<JavaExec>("jmh") {
+        group = "benchmark"
+        description = "Runs the JMH benchmarks for the Database module."
+        dependsOn(named("classes"))
+        mainClass.set("org.openjdk.jmh.Main")
+        classpath = sourceSets["main"].runtimeClasspath
+
+        val reports = layout.buildDirectory.dir("reports/jmh").get().asFile
+        doFirst { reports.mkdirs() }
+        args = listOfNotNull(
+            project.findProperty("jmh.includes")?.toString(),
+            "-rf", "json",
+            "-rff", reports.resolve("results.json").absolutePath,
+            "-o", reports.resolve("human.txt").absolutePath
+        )
+    }
+}
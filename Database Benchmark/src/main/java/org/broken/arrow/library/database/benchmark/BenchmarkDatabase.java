@@ -0,0 +1,114 @@
+package org.broken.arrow.library.database.benchmark;
+
+import org.broken.arrow.library.database.builders.DataWrapper;
+import org.broken.arrow.library.database.construct.query.builder.table.SQLConstraints;
+import org.broken.arrow.library.database.construct.query.columnbuilder.ColumnManager;
+import org.broken.arrow.library.database.construct.query.utlity.DataType;
+import org.broken.arrow.library.database.core.SQLDatabaseQuery;
+import org.broken.arrow.library.database.core.databases.H2DB;
+import org.broken.arrow.library.database.core.databases.SQLite;
+
+import javax.annotation.Nonnull;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Opens an embedded database in a temporary folder with the table used by the
+ * benchmarks, so no external database is needed.
+ * <p>
+ * HikariCP is not on the benchmark classpath, so the databases use the single writer
+ * pool. Without it every operation would open the database file again, and the
+ * benchmarks would mostly measure that.
+ * </p>
+ */
+public final class BenchmarkDatabase {
+    /**
+     * The table the benchmarks read and write.
+     */
+    public static final String TABLE = "players";
+    private final SQLDatabaseQuery database;
+    private final Runnable closePool;
+    private final Path folder;
+
+    private BenchmarkDatabase(final SQLDatabaseQuery database, final Runnable closePool, final Path folder) {
+        this.database = database;
+        this.closePool = closePool;
+        this.folder = folder;
+    }
+
+    /**
+     * Creates a new empty database in a temporary folder.
+     *
+     * @param type {@code SQLITE} or {@code H2}.
+     * @return the opened database with the table created.
+     * @throws IOException if the temporary folder could not be created.
+     */
+    @Nonnull
+    public static BenchmarkDatabase open(@Nonnull final String type) throws IOException {
+        final Path folder = Files.createTempDirectory("database-benchmark");
+        final SQLDatabaseQuery database;
+        final Runnable closePool;
+        if (type.equals("H2")) {
+            final H2DB h2 = new H2DB(folder.toString(), "benchmark");
+            h2.enableSingleWriterPool(2);
+            database = h2;
+            closePool = h2::disableSingleWriterPool;
+        } else if (type.equals("SQLITE")) {
+            final SQLite sqlite = new SQLite(folder.toString(), "benchmark.db");
+            sqlite.enableSingleWriterPool(2);
+            database = sqlite;
+            closePool = sqlite::disableSingleWriterPool;
+        } else {
+            throw new IllegalArgumentException("Unknown database type " + type + ", use SQLITE or H2.");
+        }
+        database.addTable(tableBuilder -> tableBuilder.createTableIfNotExists(TABLE)
+                .addColumns(ColumnManager.tableOf("uuid", DataType.varchar(64), SQLConstraints.primaryKey())
+                        .column("coins", DataType.dataInt())
+                        .column("name", DataType.varchar(64))
+                        .build()));
+        database.createTables();
+        return new BenchmarkDatabase(database, closePool, folder);
+    }
+
+    /**
+     * Creates the rows to save, the keys are {@code prefix + index}.
+     *
+     * @param prefix the start of every primary key.
+     * @param amount the amount of rows.
+     * @param coins  the coins set on every row, change it to make an update write new values.
+     * @return the rows wrapped for {@link SQLDatabaseQuery#saveAll(String, List, boolean, String...)}.
+     */
+    @Nonnull
+    public static List<DataWrapper> createRows(@Nonnull final String prefix, final int amount, final int coins) {
+        final List<DataWrapper> rows = new ArrayList<>(amount);
+        for (int i = 0; i < amount; i++) {
+            final String uuid = prefix + i;
+            rows.add(new DataWrapper(uuid, new BenchmarkPlayer(uuid, coins, "player" + i)));
+        }
+        return rows;
+    }
+
+    @Nonnull
+    public SQLDatabaseQuery getDatabase() {
+        return database;
+    }
+
+    /**
+     * Closes the connections of the single writer pool and removes the temporary folder,
+     * so no open connections are left for the next trial.
+     *
+     * @throws IOException if the files could not be removed.
+     */
+    public void delete() throws IOException {
+        this.closePool.run();
+        try (Stream<Path> files = Files.walk(this.folder)) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package org.broken.arrow.library.database.benchmark;
+
+import org.broken.arrow.library.serialize.utility.serialize.ConfigurationSerializable;
+
+import javax.annotation.Nonnull;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The row saved and loaded by the benchmarks, with the same columns as
+ * the table created by {@link BenchmarkDatabase}.
+ */
+public class BenchmarkPlayer implements ConfigurationSerializable {
+    private final String uuid;
+    private final int coins;
+    private final String name;
+
+    /**
+     * Creates a player row.
+     *
+     * @param uuid  the primary key.
+     * @param coins the amount of coins.
+     * @param name  the player name.
+     */
+    public BenchmarkPlayer(final String uuid, final int coins, final String name) {
+        this.uuid = uuid;
+        this.coins = coins;
+        this.name = name;
+    }
+
+    public String getUuid() {
+        return uuid;
+    }
+
+    public int getCoins() {
+        return coins;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Nonnull
+    @Override
+    public Map<String, Object> serialize() {
+        final Map<String, Object> map = new LinkedHashMap<>();
+        map.put("uuid", uuid);
+        map.put("coins", coins);
+        map.put("name", name);
+        return map;
+    }
+
+    public static BenchmarkPlayer deserialize(final Map<String, Object> map) {
+        final Object coins = map.get("coins");
+        return new BenchmarkPlayer((String) map.get("uuid"), coins instanceof Number ? ((Number) coins).intValue() : 0, (String) map.get("name"));
+    }
+}
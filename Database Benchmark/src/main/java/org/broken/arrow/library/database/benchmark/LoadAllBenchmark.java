@@ -0,0 +1,82 @@
+package org.broken.arrow.library.database.benchmark;
+
+import org.broken.arrow.library.database.core.SQLDatabaseQuery;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Measures {@link SQLDatabaseQuery#loadAll(String, Class, Consumer)}, the score is
+ * full table reads per second and the {@code rows} counter is rows read per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoadAllBenchmark {
+
+    @Param({"SQLITE", "H2"})
+    private String database;
+
+    @Param({"1000", "10000"})
+    private int rows;
+
+    private BenchmarkDatabase benchmarkDatabase;
+    private SQLDatabaseQuery databaseQuery;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        this.benchmarkDatabase = BenchmarkDatabase.open(this.database);
+        this.databaseQuery = this.benchmarkDatabase.getDatabase();
+        this.databaseQuery.setBatchSize(1000);
+        this.databaseQuery.saveAll(BenchmarkDatabase.TABLE, BenchmarkDatabase.createRows("player-", this.rows, 1), false);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        this.benchmarkDatabase.delete();
+    }
+
+    /**
+     * Reads all rows, one at a time, without keeping them in a list.
+     *
+     * @param counter   the rows read.
+     * @param blackhole consumes the rows, so they are not optimized away.
+     */
+    @Benchmark
+    public void loadAll(final RowCounter counter, final Blackhole blackhole) {
+        counter.rows += this.databaseQuery.loadAll(BenchmarkDatabase.TABLE, BenchmarkPlayer.class, blackhole::consume);
+    }
+
+    /**
+     * Counts the rows read, JMH reports it as rows per second.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class RowCounter {
+        public long rows;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            this.rows = 0;
+        }
+    }
+}
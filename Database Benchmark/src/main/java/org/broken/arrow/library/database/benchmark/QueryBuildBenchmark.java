@@ -0,0 +1,96 @@
+package org.broken.arrow.library.database.benchmark;
+
+import org.broken.arrow.library.database.construct.query.QueryBuilder;
+import org.broken.arrow.library.database.construct.query.columnbuilder.Column;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building the SQL text with {@link QueryBuilder#build()} for typical where
+ * clauses, without a database. The score is the average time for one query.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryBuildBenchmark {
+    private static final List<Column> COLUMNS = Arrays.asList(Column.of("uuid"), Column.of("coins"), Column.of("name"));
+    private static final Object[] KEYS = createKeys(100);
+
+    /**
+     * Select one row by its primary key, like {@code load}.
+     *
+     * @return the query.
+     */
+    @Benchmark
+    public String selectByPrimaryKey() {
+        final QueryBuilder queryBuilder = new QueryBuilder().setGlobalEnableQueryPlaceholders(true);
+        queryBuilder.select(COLUMNS).from(BenchmarkDatabase.TABLE)
+                .where(where -> where.where("uuid").equal("player-1"));
+        return queryBuilder.build();
+    }
+
+    /**
+     * Select with several conditions, a sort order and a limit.
+     *
+     * @return the query.
+     */
+    @Benchmark
+    public String selectWithConditions() {
+        final QueryBuilder queryBuilder = new QueryBuilder().setGlobalEnableQueryPlaceholders(true);
+        queryBuilder.select(COLUMNS).from(BenchmarkDatabase.TABLE)
+                .where(where -> where.where("coins").greaterThan(100)
+                        .and().where("name").like("player%")
+                        .and().where("uuid").between("a", "m"))
+                .orderBy(orderBy -> orderBy.add("coins", false))
+                .limit(10);
+        return queryBuilder.build();
+    }
+
+    /**
+     * Select many rows by key with an {@code IN} list, like the check for existing rows.
+     *
+     * @return the query.
+     */
+    @Benchmark
+    public String selectInList() {
+        final QueryBuilder queryBuilder = new QueryBuilder().setGlobalEnableQueryPlaceholders(true);
+        queryBuilder.select(COLUMNS).from(BenchmarkDatabase.TABLE)
+                .where(where -> where.where("uuid").in(KEYS));
+        return queryBuilder.build();
+    }
+
+    /**
+     * Update one row by its primary key, like {@code save}.
+     *
+     * @return the query.
+     */
+    @Benchmark
+    public String updateByPrimaryKey() {
+        final QueryBuilder queryBuilder = new QueryBuilder().setGlobalEnableQueryPlaceholders(true);
+        queryBuilder.update(BenchmarkDatabase.TABLE, update -> update.put("coins", 5).put("name", "player-1"))
+                .getSelector().where(where -> where.where("uuid").equal("player-1"));
+        return queryBuilder.build();
+    }
+
+    private static Object[] createKeys(final int amount) {
+        final Object[] keys = new Object[amount];
+        for (int i = 0; i < amount; i++) {
+            keys[i] = "player-" + i;
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,76 @@
+package org.broken.arrow.library.database.benchmark;
+
+import org.broken.arrow.library.database.builders.DataWrapper;
+import org.broken.arrow.library.database.builders.LoadDataWrapper;
+import org.broken.arrow.library.database.core.SQLDatabaseQuery;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures saving and loading one row by its primary key, like when a player
+ * joins or leaves. The score is operations per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RowBenchmark {
+    private static final int ROWS = 1000;
+
+    @Param({"SQLITE", "H2"})
+    private String database;
+
+    private BenchmarkDatabase benchmarkDatabase;
+    private SQLDatabaseQuery databaseQuery;
+    private List<DataWrapper> rows;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        this.benchmarkDatabase = BenchmarkDatabase.open(this.database);
+        this.databaseQuery = this.benchmarkDatabase.getDatabase();
+        this.rows = BenchmarkDatabase.createRows("player-", ROWS, 1);
+        this.databaseQuery.saveAll(BenchmarkDatabase.TABLE, this.rows, false);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        this.benchmarkDatabase.delete();
+    }
+
+    /**
+     * Updates one existing row.
+     */
+    @Benchmark
+    public void save() {
+        final DataWrapper row = this.rows.get(this.index++ % ROWS);
+        this.databaseQuery.save(BenchmarkDatabase.TABLE, row, true);
+    }
+
+    /**
+     * Loads one existing row.
+     *
+     * @return the loaded row.
+     */
+    @Benchmark
+    public LoadDataWrapper<BenchmarkPlayer> load() {
+        return this.databaseQuery.load(BenchmarkDatabase.TABLE, BenchmarkPlayer.class, "player-" + this.index++ % ROWS);
+    }
+}
@@ -0,0 +1,81 @@
+package org.broken.arrow.library.database.benchmark;
+
+import org.broken.arrow.library.database.builders.DataWrapper;
+import org.broken.arrow.library.database.core.SQLDatabaseQuery;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link SQLDatabaseQuery#saveAll(String, List, boolean, String...)} with
+ * different batch sizes, see {@link SQLDatabaseQuery#setBatchSize(int)}. The score is
+ * rows saved per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SaveAllBenchmark {
+    private static final int ROWS = 1000;
+
+    @Param({"SQLITE", "H2"})
+    private String database;
+
+    @Param({"1", "100", "1000"})
+    private int batchSize;
+
+    private BenchmarkDatabase benchmarkDatabase;
+    private SQLDatabaseQuery databaseQuery;
+    private List<DataWrapper> existingRows;
+    private int insertRound;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        this.benchmarkDatabase = BenchmarkDatabase.open(this.database);
+        this.databaseQuery = this.benchmarkDatabase.getDatabase();
+        this.databaseQuery.setBatchSize(this.batchSize);
+        this.existingRows = BenchmarkDatabase.createRows("existing-", ROWS, 1);
+        this.databaseQuery.saveAll(BenchmarkDatabase.TABLE, this.existingRows, false);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        this.benchmarkDatabase.delete();
+    }
+
+    /**
+     * Inserts rows that do not exist yet.
+     */
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void insertRows() {
+        final List<DataWrapper> rows = BenchmarkDatabase.createRows("new-" + this.insertRound++ + "-", ROWS, 1);
+        this.databaseQuery.saveAll(BenchmarkDatabase.TABLE, rows, false);
+    }
+
+    /**
+     * Updates rows that already exist.
+     */
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void updateRows() {
+        this.databaseQuery.saveAll(BenchmarkDatabase.TABLE, this.existingRows, true);
+    }
+}
@@ -9,6 +9,8 @@ import org.broken.arrow.library.database.construct.query.columnbuilder.ColumnMan
 import org.broken.arrow.library.database.core.Database;
 
 import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -50,7 +52,7 @@ public class SqlHandler {
         QueryBuilder queryBuilder = new QueryBuilder();
         queryBuilder.setGlobalEnableQueryPlaceholders(this.isQueryPlaceholdersEnabled());
         queryBuilder.replaceInto(this.tableName, callback);
-        return new SqlQueryPair(queryBuilder, queryBuilder.getValues());
+        return this.toQueryPair(queryBuilder);
     }
 
     /**
@@ -63,7 +65,7 @@ public class SqlHandler {
         QueryBuilder queryBuilder = new QueryBuilder();
         queryBuilder.setGlobalEnableQueryPlaceholders(this.isQueryPlaceholdersEnabled());
         queryBuilder.insertInto(this.tableName, callback);
-        return new SqlQueryPair(queryBuilder, queryBuilder.getValues());
+        return this.toQueryPair(queryBuilder);
     }
 
     /**
@@ -78,7 +80,47 @@ public class SqlHandler {
         QueryBuilder queryBuilder = new QueryBuilder();
         queryBuilder.setGlobalEnableQueryPlaceholders(this.isQueryPlaceholdersEnabled());
         queryBuilder.mergeInto(this.tableName, callback);
-        return new SqlQueryPair(queryBuilder, queryBuilder.getValues());
+        return this.toQueryPair(queryBuilder);
+    }
+
+    /**
+     * Inserts the row, or updates it if a row with the same primary key already exists,
+     * with one statement. The syntax is picked from {@link Database#getDatabaseType()}:
+     * <ul>
+     *   <li>MySQL: {@code INSERT ... ON DUPLICATE KEY UPDATE}</li>
+     *   <li>PostgreSQL and SQLite: {@code INSERT ... ON CONFLICT (primary keys) DO UPDATE}</li>
+     *   <li>H2: {@code MERGE INTO}, which matches on the primary key</li>
+     * </ul>
+     * Other database types fall back to {@code REPLACE INTO}. On H2 and the fallback all given
+     * columns are written also when the row exists, so {@link InsertHandler#updateOnConflict(String...)}
+     * has no effect there.
+     *
+     * @param callback a consumer to define the column-value pairs.
+     * @return a {@link SqlQueryPair} containing the generated SQL command and associated values.
+     */
+    public SqlQueryPair upsertIntoTable(@Nonnull final Consumer<InsertHandler> callback) {
+        final SqlQueryTable table = this.database.getTableFromName(this.tableName);
+        final List<String> primaryColumns = new ArrayList<>();
+        if (table != null)
+            table.getPrimaryColumns().forEach(column -> primaryColumns.add(column.getColumnName()));
+
+        QueryBuilder queryBuilder = new QueryBuilder();
+        queryBuilder.setGlobalEnableQueryPlaceholders(this.isQueryPlaceholdersEnabled());
+        switch (this.database.getDatabaseType()) {
+            case MYSQL:
+                queryBuilder.insertOnDuplicateKeyUpdate(this.tableName, callback.andThen(insertHandler -> insertHandler.onConflict(primaryColumns)));
+                break;
+            case POSTGRESQL:
+            case SQLITE:
+                queryBuilder.insertOnConflictUpdate(this.tableName, callback.andThen(insertHandler -> insertHandler.onConflict(primaryColumns)));
+                break;
+            case H2:
+                queryBuilder.mergeInto(this.tableName, callback);
+                break;
+            default:
+                queryBuilder.replaceInto(this.tableName, callback);
+        }
+        return this.toQueryPair(queryBuilder);
     }
 
     /**
@@ -195,4 +237,21 @@ public class SqlHandler {
     }
 
 
+
+    /**
+     * Creates the query pair for an insert type query, reusing the SQL text from
+     * {@link Database#getSqlTemplateCache()} if the same columns have been used before.
+     *
+     * @param queryBuilder the configured query builder.
+     * @return a {@link SqlQueryPair} containing the SQL command and associated values.
+     */
+    private SqlQueryPair toQueryPair(final QueryBuilder queryBuilder) {
+        final String templateKey = queryBuilder.getInsertHandler().getTemplateKey();
+        if (templateKey == null)
+            return new SqlQueryPair(queryBuilder, queryBuilder.getValues());
+
+        final String key = queryBuilder.getQueryType() + ":" + this.tableName + ":" + templateKey;
+        final String query = this.database.getSqlTemplateCache().get(key, queryBuilder::build);
+        return new SqlQueryPair(query, queryBuilder.getValues(), true);
+    }
 }
@@ -31,8 +31,19 @@ public class SqlQueryPair {
      * @param values a map of parameter indices to their corresponding values.
      */
     public SqlQueryPair(@Nonnull final QueryBuilder query, @Nonnull final Map<Integer, Object> values) {
-        this.safeQuery = query.isGlobalEnableQueryPlaceholders();
-        this.query = query.build();
+        this(query.build(), values, query.isGlobalEnableQueryPlaceholders());
+    }
+
+    /**
+     * Constructs a new {@code SqlQueryPair} from an already built SQL query.
+     *
+     * @param query     the built SQL query.
+     * @param values    a map of parameter indices to their corresponding values.
+     * @param safeQuery {@code true} if the query uses placeholders for the values.
+     */
+    public SqlQueryPair(@Nonnull final String query, @Nonnull final Map<Integer, Object> values, final boolean safeQuery) {
+        this.safeQuery = safeQuery;
+        this.query = query;
         this.values = values;
     }
 
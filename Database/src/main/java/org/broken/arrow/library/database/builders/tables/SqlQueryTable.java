@@ -1,17 +1,22 @@
 package org.broken.arrow.library.database.builders.tables;
 
 import org.broken.arrow.library.database.construct.query.QueryBuilder;
+import org.broken.arrow.library.database.construct.query.QueryModifier;
 import org.broken.arrow.library.database.construct.query.builder.table.CreateTableHandler;
 import org.broken.arrow.library.database.construct.query.builder.comparison.ConditionChainer;
 import org.broken.arrow.library.database.construct.query.builder.table.column.TableColumn;
 import org.broken.arrow.library.database.construct.query.builder.clause.wherebuilder.WhereBuilder;
 import org.broken.arrow.library.database.construct.query.columnbuilder.Column;
 import org.broken.arrow.library.database.construct.query.columnbuilder.refernces.SqlArg;
+import org.broken.arrow.library.database.utility.query.build.ResultSetMapper;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Represents an SQL table query builder that handles table creation and query construction.
@@ -24,6 +29,7 @@ import java.util.function.Function;
 public class SqlQueryTable {
     private final QueryBuilder queryBuilder;
     private final CreateTableHandler tableHandler;
+    private volatile Map<String, String> columnNameLookup;
 
     /**
      * Constructs a new {@code SqlQueryTable} using the provided callback to
@@ -57,6 +63,22 @@ public class SqlQueryTable {
         return tableHandler;
     }
 
+    /**
+     * Gets the column names of this table keyed by the name in lowercase, used to map
+     * result rows back to the names the table was created with. It is built on first use.
+     *
+     * @return the lookup of lowercase column names to the column names.
+     */
+    @Nonnull
+    public Map<String, String> getColumnNameLookup() {
+        Map<String, String> lookup = this.columnNameLookup;
+        if (lookup == null) {
+            lookup = ResultSetMapper.createNameLookup(this.getColumns());
+            this.columnNameLookup = lookup;
+        }
+        return lookup;
+    }
+
     /**
      * Builds a WHERE clause for primary key columns using the provided values.
      * <p>
@@ -134,6 +156,21 @@ public class SqlQueryTable {
         return selectTableBuilder.build();
     }
 
+    /**
+     * Select the table one page at a time, sorted by the primary columns. See
+     * {@link QueryModifier#seek(Consumer)}.
+     *
+     * @param pageSize the max amount of rows on each page.
+     * @return the query builder, add a where clause to it if only some rows shall be paged.
+     */
+    public QueryBuilder selectPage(final int pageSize) {
+        final List<String> keyColumns = this.getPrimaryColumns().stream().map(Column::getColumnName).collect(Collectors.toList());
+        final QueryBuilder selectPageBuilder = new QueryBuilder();
+        selectPageBuilder.select(this.getTable().getColumns()).from(this.getQueryBuilder().getTableName())
+                .seek(keysetBuilder -> keysetBuilder.keyColumns(keyColumns).pageSize(pageSize));
+        return selectPageBuilder;
+    }
+
     /**
      * This will build the table query with columns,data type and primary key you have set.
      *
@@ -0,0 +1,53 @@
+package org.broken.arrow.library.database.builders.tables;
+
+import javax.annotation.Nonnull;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Cache of built SQL text, keyed by table, query type and the columns used.
+ * <p>
+ * Statements that only differ in their values build the same SQL text, so it is
+ * built once and the same {@code String} instance is shared by every {@link SqlQueryPair}.
+ * The cache is cleared if it grows above the max size, which only happens if the
+ * columns change between almost every query.
+ * </p>
+ */
+public class SqlTemplateCache {
+    private static final int MAX_SIZE = 1024;
+    private final Map<String, String> templates = new ConcurrentHashMap<>();
+
+    /**
+     * Retrieve the cached SQL text for the key, or build it and put it in the cache.
+     *
+     * @param key     the key for the template.
+     * @param builder the builder for the SQL text if not cached.
+     * @return the SQL text.
+     */
+    @Nonnull
+    public String get(@Nonnull final String key, @Nonnull final Supplier<String> builder) {
+        final String query = this.templates.get(key);
+        if (query != null)
+            return query;
+        if (this.templates.size() >= MAX_SIZE)
+            this.templates.clear();
+        return this.templates.computeIfAbsent(key, k -> builder.get());
+    }
+
+    /**
+     * Retrieve the amount of cached templates.
+     *
+     * @return the size of the cache.
+     */
+    public int size() {
+        return this.templates.size();
+    }
+
+    /**
+     * Removes all cached templates.
+     */
+    public void clear() {
+        this.templates.clear();
+    }
+}
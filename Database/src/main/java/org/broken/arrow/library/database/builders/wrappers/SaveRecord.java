@@ -11,7 +11,7 @@ import org.broken.arrow.library.serialize.utility.serialize.ConfigurationSeriali
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
@@ -32,7 +32,7 @@ import java.util.stream.Collectors;
  * @param <V> The type of the value, which must implement {@link ConfigurationSerializable}.
  */
 public class SaveRecord<K, V extends ConfigurationSerializable> {
-    private final Map<Column, Object> keys = new HashMap<>();
+    private final Map<Column, Object> keys = new LinkedHashMap<>();
     private final String tableName;
     private final K key;
     private final V value;
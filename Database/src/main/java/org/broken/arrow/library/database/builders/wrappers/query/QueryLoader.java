@@ -11,6 +11,7 @@ import org.broken.arrow.library.database.construct.query.columnbuilder.ColumnBui
 import org.broken.arrow.library.database.construct.query.utlity.QueryDefinition;
 import org.broken.arrow.library.database.core.Database;
 import org.broken.arrow.library.database.core.SQLDatabaseQuery;
+import org.broken.arrow.library.database.utility.query.build.ResultSetMapper;
 import org.broken.arrow.library.serialize.utility.serialize.ConfigurationSerializable;
 import org.broken.arrow.library.logging.Logging;
 
@@ -116,11 +117,11 @@ public class QueryLoader<T extends ConfigurationSerializable> {
             }
 
             try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                final ColumnBuilder<Column, Void> selectBuilder = selectTableBuilder.getQueryModifier().getSelectBuilder();
+                final Database database = databaseQuery.getDatabase();
+                final ResultSetMapper mapper = new ResultSetMapper(resultSet, selectBuilder.getColumns());
                 while (resultSet.next()) {
-                    final ColumnBuilder<Column, Void> selectBuilder = selectTableBuilder.getQueryModifier().getSelectBuilder();
-                    Database database = databaseQuery.getDatabase();
-
-                    final Map<String, Object> dataFromDB = database.getDataFromDB(resultSet, selectBuilder.getColumns());
+                    final Map<String, Object> dataFromDB = mapper.getRow(resultSet);
                     final T deserialize = database.deSerialize(this.clazz, dataFromDB);
                     final Map<String, Object> columnsFiltered = getColumnsFiltered(selectBuilder, databaseQueryHandler, dataFromDB);
                     final LoadDataWrapper<T> loadDataWrapper = new LoadDataWrapper<>(columnsFiltered, deserialize);
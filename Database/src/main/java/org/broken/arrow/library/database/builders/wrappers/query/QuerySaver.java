@@ -72,25 +72,28 @@ public class QuerySaver<K, V extends ConfigurationSerializable> {
      * The configured {@link SaveSetup} is applied before batch execution.
      * If the database is configured for secure queries, a safe executor is used.
      * </p>
+     *
+     * @return true if the rows were written, false if no connection could be opened or any of the rows failed.
      */
-    public void save() {
+    public boolean save() {
         Database database = this.sqlDatabaseQuery.getDatabase();
-        final Connection connection = database.attemptToConnect();
         final BatchExecutor<SaveRecord<K, V>> batchExecutor;
 
         final DatabaseSettingsSave databaseSettings = new DatabaseSettingsSave(this.tableName);
         final DatabaseQuerySaving<SaveRecord<K, V>> databaseQueryHandler = new DatabaseQuerySaving<>(databaseSettings);
-        if (connection == null) {
-            database.printFailToOpen();
-            return;
-        }
         final SaveSetup<K, V> saveSetup = new SaveSetup<>();
         this.strategy.accept(saveSetup);
         saveSetup.applyConfigure(databaseSettings);
         final List<SaveRecord<K, V>> data = cacheToSave.entrySet().stream().map(kvEntry -> saveSetup.applyQuery(new SaveRecord<>(this.tableName, kvEntry))).collect(Collectors.toList());
         if (data.isEmpty()) {
             this.log.log(Level.WARNING, () -> "No data in the map for the table:'" + this.tableName + "' . Just must provide data and also don't forget to set your where clause.");
-            return;
+            return true;
+        }
+        final Connection connection = database.attemptToConnect();
+        if (connection == null) {
+            database.markWriteFailed();
+            database.printFailToOpen();
+            return false;
         }
 
         if (database.isSecureQuery())
@@ -99,6 +102,8 @@ public class QuerySaver<K, V extends ConfigurationSerializable> {
             batchExecutor = new BatchExecutorUnsafe<>(database, connection, data);
         }
         batchExecutor.save(tableName, databaseSettings.isShallUpdate(), databaseQueryHandler);
+        database.invalidateCache(this.tableName);
+        return !batchExecutor.hasFailedWrites();
     }
 
 }
@@ -0,0 +1,326 @@
+package org.broken.arrow.library.database.builders.wrappers.query;
+
+import org.broken.arrow.library.database.builders.wrappers.SaveSetup;
+import org.broken.arrow.library.database.core.SQLDatabaseQuery;
+import org.broken.arrow.library.logging.Logging;
+import org.broken.arrow.library.serialize.utility.serialize.ConfigurationSerializable;
+
+import javax.annotation.Nonnull;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+/**
+ * A write-behind layer in front of {@link QuerySaver}, that only writes the entries that
+ * have changed since they were last saved.
+ * <p>
+ * Changed values are marked dirty with {@link #markDirty(Object, ConfigurationSerializable)},
+ * or found by {@link #update(Map)} that compares the serialized value with the one last written.
+ * Several updates to the same key before a flush are coalesced into one write of the latest value.
+ * </p>
+ * <p>
+ * The dirty entries are written on a timer set with {@link #start(long, TimeUnit)}, when the amount
+ * of dirty entries reach {@link #setMaxPending(int)}, or when {@link #flush()} is called. Call
+ * {@link #close()} when the plugin is disabled to write the remaining entries.
+ * </p>
+ *
+ * @param <K> the type of the cache key
+ * @param <V> the type of the cache value, which must implement {@link ConfigurationSerializable}
+ */
+public class WriteBehindSaver<K, V extends ConfigurationSerializable> {
+    private final Logging log = new Logging(WriteBehindSaver.class);
+    private final Map<K, V> pending = new ConcurrentHashMap<>();
+    private final Map<K, Long> dirtySince = new ConcurrentHashMap<>();
+    private final Map<K, Map<String, Object>> lastWritten = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final AtomicLong flushCount = new AtomicLong();
+    private final AtomicLong writtenCount = new AtomicLong();
+    private final AtomicLong coalescedCount = new AtomicLong();
+    private final AtomicLong unchangedCount = new AtomicLong();
+    private final AtomicLong failedFlushCount = new AtomicLong();
+    private final Object flushLock = new Object();
+    private final SQLDatabaseQuery sqlDatabaseQuery;
+    @Nonnull
+    private final String tableName;
+    @Nonnull
+    private final Consumer<SaveSetup<K, V>> strategy;
+    private ScheduledExecutorService scheduler;
+    private ScheduledFuture<?> flushTask;
+    private volatile int maxPending = 500;
+    private volatile long lastFlushDuration;
+    private volatile int lastFlushSize;
+
+    /**
+     * Creates a new write-behind saver for the table.
+     *
+     * @param sqlDatabaseQuery the active {@link SQLDatabaseQuery} instance.
+     * @param tableName        the name of the database table where data will be stored.
+     * @param strategy         a consumer that configures the {@link SaveSetup}, the same as
+     *                         used for {@link QuerySaver}.
+     */
+    public WriteBehindSaver(@Nonnull final SQLDatabaseQuery sqlDatabaseQuery, @Nonnull final String tableName, @Nonnull final Consumer<SaveSetup<K, V>> strategy) {
+        this.sqlDatabaseQuery = sqlDatabaseQuery;
+        this.tableName = tableName;
+        this.strategy = strategy;
+    }
+
+    /**
+     * Marks the value as changed, so it is written with the next flush. If the key
+     * is already dirty, the value replaces the old one and only the latest is written.
+     *
+     * @param key   the key of the value.
+     * @param value the changed value.
+     */
+    public void markDirty(@Nonnull final K key, @Nonnull final V value) {
+        if (this.pending.put(key, value) != null)
+            this.coalescedCount.incrementAndGet();
+        this.dirtySince.putIfAbsent(key, System.currentTimeMillis());
+        if (this.pending.size() >= this.maxPending)
+            this.scheduleFlush();
+    }
+
+    /**
+     * Compares every value with the one last written and marks only the changed values
+     * as dirty. Useful for periodic autosaves, where most values have not changed.
+     *
+     * @param cache the cache with the current values.
+     */
+    public void update(@Nonnull final Map<K, V> cache) {
+        for (Map.Entry<K, V> entry : cache.entrySet()) {
+            final Map<String, Object> written = this.lastWritten.get(entry.getKey());
+            if (written != null && written.equals(entry.getValue().serialize())) {
+                this.unchangedCount.incrementAndGet();
+                continue;
+            }
+            this.markDirty(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Forgets the last written value for the key, for example when the row is removed
+     * from the database. The next {@link #update(Map)} will then write the value again.
+     *
+     * @param key the key to forget.
+     */
+    public void invalidate(@Nonnull final K key) {
+        this.lastWritten.remove(key);
+    }
+
+    /**
+     * Writes all dirty entries to the database with one batch, and blocks until done.
+     * If the save fails, the entries are marked dirty again and written with the next
+     * flush, unless a newer value was marked dirty in the meantime.
+     *
+     * @return the amount of entries written, 0 if the save failed.
+     */
+    public int flush() {
+        synchronized (this.flushLock) {
+            this.flushScheduled.set(false);
+            if (this.pending.isEmpty())
+                return 0;
+
+            final Map<K, V> toSave = new LinkedHashMap<>();
+            final Map<K, Long> toSaveSince = new HashMap<>();
+            for (K key : this.pending.keySet()) {
+                final V value = this.pending.remove(key);
+                final Long since = this.dirtySince.remove(key);
+                if (value == null) continue;
+                toSave.put(key, value);
+                toSaveSince.put(key, since != null ? since : System.currentTimeMillis());
+            }
+            final Map<K, Map<String, Object>> snapshots = new HashMap<>(toSave.size());
+            toSave.forEach((key, value) -> snapshots.put(key, value.serialize()));
+
+            final long start = System.nanoTime();
+            boolean saved = false;
+            try {
+                saved = new QuerySaver<>(this.sqlDatabaseQuery, this.tableName, toSave, this.strategy).save();
+            } finally {
+                if (!saved)
+                    this.requeue(toSave, toSaveSince);
+            }
+            if (!saved) {
+                this.failedFlushCount.incrementAndGet();
+                log.log(Level.WARNING, () -> "Could not write " + toSave.size() + " dirty entries to the table: " + this.tableName + ". They will be written with the next flush.");
+                return 0;
+            }
+            this.lastWritten.putAll(snapshots);
+
+            this.lastFlushDuration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            this.lastFlushSize = toSave.size();
+            this.flushCount.incrementAndGet();
+            this.writtenCount.addAndGet(toSave.size());
+            return toSave.size();
+        }
+    }
+
+    /**
+     * Starts writing the dirty entries on a timer, on its own thread.
+     *
+     * @param interval the time between every flush.
+     * @param unit     the unit of the interval.
+     */
+    public synchronized void start(final long interval, @Nonnull final TimeUnit unit) {
+        if (this.flushTask != null)
+            this.flushTask.cancel(false);
+        this.flushTask = this.getScheduler().scheduleWithFixedDelay(this::flushSafely, interval, interval, unit);
+    }
+
+    /**
+     * Stops the timer and writes all remaining dirty entries.
+     */
+    public synchronized void close() {
+        if (this.scheduler != null) {
+            this.scheduler.shutdown();
+            try {
+                this.scheduler.awaitTermination(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            this.scheduler = null;
+            this.flushTask = null;
+        }
+        this.flush();
+    }
+
+    /**
+     * Set the amount of dirty entries that triggers a flush before the timer.
+     *
+     * @param maxPending the amount of entries, default is 500.
+     */
+    public void setMaxPending(final int maxPending) {
+        this.maxPending = Math.max(1, maxPending);
+    }
+
+    /**
+     * Retrieve the amount of entries waiting to be written.
+     *
+     * @return the queue depth.
+     */
+    public int getQueueDepth() {
+        return this.pending.size();
+    }
+
+    /**
+     * Retrieve how long the oldest dirty entry has waited to be written.
+     *
+     * @return the lag in milliseconds, or 0 if nothing is waiting.
+     */
+    public long getLagMillis() {
+        long oldest = Long.MAX_VALUE;
+        for (Long time : this.dirtySince.values()) {
+            oldest = Math.min(oldest, time);
+        }
+        return oldest == Long.MAX_VALUE ? 0 : System.currentTimeMillis() - oldest;
+    }
+
+    /**
+     * Retrieve the amount of flushes that have written entries.
+     *
+     * @return the flush count.
+     */
+    public long getFlushCount() {
+        return this.flushCount.get();
+    }
+
+    /**
+     * Retrieve the time the last flush took.
+     *
+     * @return the time in milliseconds.
+     */
+    public long getLastFlushDuration() {
+        return this.lastFlushDuration;
+    }
+
+    /**
+     * Retrieve the amount of entries written in the last flush.
+     *
+     * @return the amount of entries.
+     */
+    public int getLastFlushSize() {
+        return this.lastFlushSize;
+    }
+
+    /**
+     * Retrieve the total amount of entries written.
+     *
+     * @return the amount of entries.
+     */
+    public long getWrittenCount() {
+        return this.writtenCount.get();
+    }
+
+    /**
+     * Retrieve the amount of flushes that failed, where the entries was queued again.
+     *
+     * @return the amount of failed flushes.
+     */
+    public long getFailedFlushCount() {
+        return this.failedFlushCount.get();
+    }
+
+    /**
+     * Retrieve the amount of updates replaced by a newer value before they were written.
+     *
+     * @return the amount of coalesced updates.
+     */
+    public long getCoalescedCount() {
+        return this.coalescedCount.get();
+    }
+
+    /**
+     * Retrieve the amount of values skipped by {@link #update(Map)}, because they
+     * had not changed since last written.
+     *
+     * @return the amount of unchanged values.
+     */
+    public long getUnchangedCount() {
+        return this.unchangedCount.get();
+    }
+
+    private void requeue(final Map<K, V> failed, final Map<K, Long> failedSince) {
+        failed.forEach((key, value) -> {
+            this.pending.putIfAbsent(key, value);
+            this.dirtySince.merge(key, failedSince.get(key), Math::min);
+        });
+    }
+
+    private void scheduleFlush() {
+        if (!this.flushScheduled.compareAndSet(false, true))
+            return;
+        try {
+            this.getScheduler().execute(this::flushSafely);
+        } catch (RuntimeException e) {
+            this.flushScheduled.set(false);
+            log.log(Level.WARNING, e, () -> "Could not schedule the flush for the table: " + this.tableName);
+        }
+    }
+
+    private void flushSafely() {
+        try {
+            this.flush();
+        } catch (RuntimeException e) {
+            log.log(Level.WARNING, e, () -> "Failed to flush the dirty entries for the table: " + this.tableName);
+        }
+    }
+
+    private synchronized ScheduledExecutorService getScheduler() {
+        if (this.scheduler == null) {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                final Thread thread = new Thread(runnable, "database-write-behind-" + this.tableName);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return this.scheduler;
+    }
+}
@@ -0,0 +1,283 @@
+package org.broken.arrow.library.database.connection;
+
+import org.broken.arrow.library.database.utility.DatabaseType;
+import org.broken.arrow.library.logging.Logging;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+
+/**
+ * A small connection pool for file databases like SQLite and H2, that only allow one
+ * writer at a time.
+ * <p>
+ * All writes share one long-lived connection, that only one thread can hold at a time.
+ * Other threads wait for it to be given back, instead of failing with a busy error from
+ * the database. Reads use their own small pool of connections, so loads can run while
+ * a save is in progress. For SQLite the connections are opened in WAL mode with
+ * {@code synchronous=NORMAL}, which lets readers work next to the writer.
+ * </p>
+ * <p>
+ * The connections handed out are wrappers, calling {@link Connection#close()} gives
+ * the connection back to the pool instead of closing it. Call {@link #close()} to
+ * close the real connections.
+ * </p>
+ */
+public class EmbeddedConnectionPool {
+    private static final long DEFAULT_TIMEOUT = 30_000;
+    private final Logging log = new Logging(EmbeddedConnectionPool.class);
+    private final ReentrantLock writeLock = new ReentrantLock(true);
+    private final AtomicInteger openReadConnections = new AtomicInteger();
+    private final BlockingQueue<Connection> idleReadConnections;
+    private final List<Connection> readConnections = new ArrayList<>();
+    private final DatabaseType databaseType;
+    private final String jdbcUrl;
+    private final int maxReadConnections;
+    private final long timeout;
+    private Connection writeConnection;
+    private volatile boolean closed;
+
+    /**
+     * Creates the pool, the connections are opened when first used.
+     *
+     * @param databaseType       the type of the database, used to set the pragmas for SQLite.
+     * @param jdbcUrl            the full JDBC url to the database file.
+     * @param maxReadConnections the max amount of read connections, if 0 the reads also use the write connection.
+     * @param timeout            the max time in milliseconds to wait for a connection, if 0 or lower the default 30 seconds is used.
+     */
+    public EmbeddedConnectionPool(@Nonnull final DatabaseType databaseType, @Nonnull final String jdbcUrl, final int maxReadConnections, final long timeout) {
+        this.databaseType = databaseType;
+        this.jdbcUrl = jdbcUrl;
+        this.maxReadConnections = Math.max(0, maxReadConnections);
+        this.timeout = timeout > 0 ? timeout : DEFAULT_TIMEOUT;
+        this.idleReadConnections = new ArrayBlockingQueue<>(Math.max(1, this.maxReadConnections));
+    }
+
+    /**
+     * Retrieve the write connection, waits if another thread is using it. The same
+     * thread can retrieve it again before it is closed.
+     *
+     * @return the write connection, close it when done to let other threads use it.
+     * @throws SQLException if the connection could not be opened, or the wait timed out.
+     */
+    @Nonnull
+    public Connection getWriteConnection() throws SQLException {
+        this.checkOpen();
+        try {
+            if (!this.writeLock.tryLock(this.timeout, TimeUnit.MILLISECONDS))
+                throw new SQLException("Timed out waiting for the write connection to " + this.jdbcUrl);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for the write connection.", e);
+        }
+        try {
+            if (this.writeConnection == null || this.writeConnection.isClosed())
+                this.writeConnection = this.openConnection(false);
+            return this.wrap(this.writeConnection, true);
+        } catch (SQLException | RuntimeException e) {
+            this.writeLock.unlock();
+            throw e;
+        }
+    }
+
+    /**
+     * Retrieve a read connection from the pool. If all read connections are in use
+     * and the max is reached, it waits for one to be given back.
+     *
+     * @return a read connection, close it when done to give it back to the pool.
+     * @throws SQLException if the connection could not be opened, or the wait timed out.
+     */
+    @Nonnull
+    public Connection getReadConnection() throws SQLException {
+        this.checkOpen();
+        if (this.maxReadConnections == 0)
+            return this.getWriteConnection();
+
+        Connection connection = this.idleReadConnections.poll();
+        if (connection == null && this.openReadConnections.incrementAndGet() <= this.maxReadConnections) {
+            try {
+                connection = this.openConnection(true);
+            } catch (SQLException e) {
+                this.openReadConnections.decrementAndGet();
+                throw e;
+            }
+            synchronized (this.readConnections) {
+                this.readConnections.add(connection);
+            }
+        } else if (connection == null) {
+            this.openReadConnections.decrementAndGet();
+            connection = this.takeIdleReadConnection();
+        }
+        return this.wrap(connection, false);
+    }
+
+    /**
+     * Retrieve the amount of read connections that are open.
+     *
+     * @return the amount of read connections.
+     */
+    public int getReadConnectionCount() {
+        synchronized (this.readConnections) {
+            return this.readConnections.size();
+        }
+    }
+
+    /**
+     * Check if a thread is waiting for the write connection.
+     *
+     * @return true if one or more threads is waiting.
+     */
+    public boolean hasQueuedWriters() {
+        return this.writeLock.hasQueuedThreads();
+    }
+
+    /**
+     * Check if {@link #close()} has been called.
+     *
+     * @return true if the pool is closed.
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Closes all connections. Connections that are in use are closed, when they are given back.
+     */
+    public void close() {
+        this.closed = true;
+        final List<Connection> idle = new ArrayList<>();
+        this.idleReadConnections.drainTo(idle);
+        for (Connection connection : idle) {
+            this.closeQuietly(connection);
+            synchronized (this.readConnections) {
+                this.readConnections.remove(connection);
+            }
+        }
+        this.writeLock.lock();
+        try {
+            this.closeQuietly(this.writeConnection);
+            this.writeConnection = null;
+        } finally {
+            this.writeLock.unlock();
+        }
+    }
+
+    private Connection takeIdleReadConnection() throws SQLException {
+        try {
+            final Connection connection = this.idleReadConnections.poll(this.timeout, TimeUnit.MILLISECONDS);
+            if (connection == null)
+                throw new SQLException("Timed out waiting for a read connection to " + this.jdbcUrl);
+            return connection;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a read connection.", e);
+        }
+    }
+
+    private Connection openConnection(final boolean readOnly) throws SQLException {
+        final Connection connection = DriverManager.getConnection(this.jdbcUrl);
+        if (this.databaseType == DatabaseType.SQLITE) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("PRAGMA journal_mode=WAL");
+                statement.execute("PRAGMA synchronous=NORMAL");
+                statement.execute("PRAGMA busy_timeout=" + this.timeout);
+                if (readOnly)
+                    statement.execute("PRAGMA query_only=ON");
+            } catch (SQLException e) {
+                this.closeQuietly(connection);
+                throw e;
+            }
+        }
+        return connection;
+    }
+
+    private void release(final Connection connection, final boolean writer) {
+        final boolean lastHolder = !writer || this.writeLock.getHoldCount() == 1;
+        try {
+            if (lastHolder && !connection.isClosed() && !connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            log.log(Level.WARNING, e, () -> "Could not reset the connection, before it was given back to the pool.");
+        }
+        if (writer) {
+            if (this.closed && lastHolder) {
+                this.closeQuietly(this.writeConnection);
+                this.writeConnection = null;
+            }
+            this.writeLock.unlock();
+            return;
+        }
+        if (this.closed || !this.idleReadConnections.offer(connection)) {
+            this.closeQuietly(connection);
+            synchronized (this.readConnections) {
+                this.readConnections.remove(connection);
+            }
+        }
+    }
+
+    private Connection wrap(final Connection connection, final boolean writer) {
+        final AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "close":
+                    if (released.compareAndSet(false, true))
+                        this.release(connection, writer);
+                    return null;
+                case "isClosed":
+                    return released.get() || connection.isClosed();
+                case "unwrap":
+                    if (args != null && ((Class<?>) args[0]).isInstance(proxy))
+                        return proxy;
+                    break;
+                case "isWrapperFor":
+                    if (args != null && ((Class<?>) args[0]).isInstance(proxy))
+                        return true;
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            if (released.get())
+                throw new SQLException("The connection is already given back to the pool.");
+            try {
+                return method.invoke(connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        });
+    }
+
+    private void checkOpen() throws SQLException {
+        if (this.closed)
+            throw new SQLException("The connection pool is closed.");
+    }
+
+    private void closeQuietly(@Nullable final Connection connection) {
+        if (connection == null)
+            return;
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            log.log(Level.WARNING, e, () -> "Failed to close the connection.");
+        }
+    }
+}
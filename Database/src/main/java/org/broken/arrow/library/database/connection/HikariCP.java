@@ -1,16 +1,22 @@
 package org.broken.arrow.library.database.connection;
 
 import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariConfigMXBean;
 import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.core.config.Configurator;
 import org.broken.arrow.library.database.core.Database;
 import org.broken.arrow.library.database.builders.ConnectionSettings;
+import org.broken.arrow.library.database.utility.DatabaseType;
 import org.broken.arrow.library.logging.Logging;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * This class manages the HikariCP connection pool if it is available.
@@ -25,7 +31,10 @@ import java.sql.SQLException;
  */
 public class HikariCP {
     private final Logging log = new Logging(HikariCP.class);
-    private volatile HikariDataSource hikari;
+    private final AtomicLong acquireCount = new AtomicLong();
+    private final AtomicLong acquireNanos = new AtomicLong();
+    private final AtomicLong maxAcquireNanos = new AtomicLong();
+    private volatile PoolHolder pool;
     private final Database database;
     private final String driver;
 
@@ -41,89 +50,142 @@ public class HikariCP {
     }
     /**
      * Retrieves a connection from the HikariCP pool configured with the provided driver connection prefix.
-     * If the pool does not exist or the configuration has changed, a new pool is created.
+     * <p>
+     * The pool is created on the first call and reused after that, without any lock. It is only
+     * recreated if the {@link ConnectionSettings} or the connection prefix change, while changed pool
+     * sizes and timeouts are applied to the running pool.
+     * </p>
      *
      * @param driverConnection the JDBC connection prefix (e.g., "jdbc:mysql://")
      * @return a {@link Connection} instance from the pool
      * @throws SQLException if a database access error occurs or the pool cannot be created
      */
     public Connection getConnection(String driverConnection) throws SQLException {
-        final ConnectionSettings connectionSettings = this.database.getConnectionSettings();
-        final String databaseName = connectionSettings.getDatabaseName();
-        final String hostAddress = connectionSettings.getHostAddress();
-
-        final HikariConfig config = getHikariConfig(driverConnection, hostAddress, databaseName);
-
-        final int poolSize = this.database.getMaximumPoolSize();
-        if (poolSize > 0)
-            // Default is usually 32
-            config.setMaximumPoolSize(poolSize);
-
-        long connectionTimeout = this.database.getConnectionTimeout();
-        if (connectionTimeout > 0)
-            config.setConnectionTimeout(connectionTimeout);
+        return this.getConnection(driverConnection, false);
+    }
 
-        long idleTimeout = this.database.getIdleTimeout();
-        if (idleTimeout > 0)
-            config.setIdleTimeout(idleTimeout);
+    /**
+     * Gets a connection for file-based databases (or similar), the pool is created on
+     * the first call and reused after that.
+     *
+     * @param driverConnection the JDBC connection prefix for the file database
+     * @return a {@link Connection} instance
+     * @throws SQLException if a database access error occurs
+     */
+    public Connection getFileConnection(String driverConnection) throws SQLException {
+        return this.getConnection(driverConnection, true);
+    }
 
-        int minIdleTimeout = this.database.getMinimumIdle();
-        if (idleTimeout > 0)
-            config.setMinimumIdle(minIdleTimeout);
+    /**
+     * Retrieve a snapshot of the connection pool, with the amount of active, idle and
+     * waiting connections and how long it takes to get a connection.
+     *
+     * @return the pool metrics, or {@code null} if the pool is not created yet.
+     */
+    @Nullable
+    public PoolMetrics getPoolMetrics() {
+        final PoolHolder current = this.pool;
+        if (current == null || current.dataSource.isClosed())
+            return null;
+        final HikariPoolMXBean poolBean = current.dataSource.getHikariPoolMXBean();
+        if (poolBean == null)
+            return null;
+        return new PoolMetrics(poolBean.getActiveConnections(), poolBean.getIdleConnections(), poolBean.getTotalConnections(),
+                poolBean.getThreadsAwaitingConnection(), this.acquireCount.get(), this.acquireNanos.get(), this.maxAcquireNanos.get());
+    }
 
-        long maxLifeTime = this.database.getMaxLifeTime();
-        if (maxLifeTime > 0)
-            config.setMaxLifetime(maxLifeTime);
+    /**
+     * Closes the connection pool, a new pool is created on the next connection.
+     */
+    public synchronized void close() {
+        final PoolHolder current = this.pool;
+        this.pool = null;
+        if (current != null)
+            current.dataSource.close();
+    }
 
+    private Connection getConnection(final String driverConnection, final boolean fileDatabase) throws SQLException {
+        PoolHolder current = this.pool;
+        final ConnectionSettings connectionSettings = this.database.getConnectionSettings();
+        if (current == null || !current.isSameConnection(connectionSettings, driverConnection) || current.dataSource.isClosed())
+            current = this.createPool(connectionSettings, driverConnection, fileDatabase);
+        else if (!current.poolSettings.matches(this.database))
+            current = this.reconfigurePool(current);
 
-        return createPoolIfSetDataNotMatch(config);
+        final long start = System.nanoTime();
+        final Connection connection = current.dataSource.getConnection();
+        final long elapsed = System.nanoTime() - start;
+        this.acquireCount.incrementAndGet();
+        this.acquireNanos.addAndGet(elapsed);
+        this.maxAcquireNanos.accumulateAndGet(elapsed, Math::max);
+        return connection;
     }
 
     /**
-     * Creates or recreates the connection pool if the current pool is closed or
-     * its configuration differs from the given config.
+     * Creates the connection pool, or recreates it if the connection settings have changed
+     * since it was created.
      *
-     * @param config the {@link HikariConfig} to configure the pool
-     * @return a {@link Connection} from the pool
-     * @throws SQLException if a database access error occurs
+     * @param connectionSettings the settings used to connect
+     * @param driverConnection   the JDBC connection prefix
+     * @param fileDatabase       true if the database is a file database
+     * @return the pool to use
      */
-    private Connection createPoolIfSetDataNotMatch(HikariConfig config) throws SQLException {
-        synchronized (this) {
-            if (this.hikari == null || this.hikari.isClosed()) {
-                this.hikari = new HikariDataSource(config);
-            }
-
-            boolean needRecreate = !this.hikari.getJdbcUrl().equals(config.getJdbcUrl()) ||
-                    !this.hikari.getUsername().equals(config.getUsername()) ||
-                    !this.hikari.getPassword().equals(config.getPassword());
-
-            if (needRecreate) {
-                try {
-                    this.hikari.close();
-                } catch (Exception e) {
-                    log.log(e, () -> "Failed to close the connection pool. Continuing with recreation.");
-                }
-                this.hikari = new HikariDataSource(config);
-            }
-            if (this.hikari.isClosed()) {
-                log.log(java.util.logging.Level.WARNING, () -> "Failed to initialize HikariDataSource: The connection pool is closed. Unable to proceed with the connection process. Try again later.");
-                return null;
+    private synchronized PoolHolder createPool(final ConnectionSettings connectionSettings, final String driverConnection, final boolean fileDatabase) {
+        final PoolHolder current = this.pool;
+        if (current != null && current.isSameConnection(connectionSettings, driverConnection) && !current.dataSource.isClosed())
+            return current;
+        if (current != null) {
+            try {
+                current.dataSource.close();
+            } catch (Exception e) {
+                log.log(e, () -> "Failed to close the connection pool. Continuing with recreation.");
             }
         }
-        return this.hikari.getConnection();
+        final PoolSettings poolSettings = new PoolSettings(this.database);
+        final HikariConfig config;
+        if (fileDatabase) {
+            config = new HikariConfig();
+            config.setJdbcUrl(driverConnection + connectionSettings.getHostAddress());
+            config.setDriverClassName(this.driver);
+        } else {
+            config = getHikariConfig(driverConnection, connectionSettings);
+        }
+        poolSettings.apply(config);
+
+        final PoolHolder created = new PoolHolder(new HikariDataSource(config), connectionSettings, driverConnection, poolSettings);
+        if (fileDatabase)
+            turnOfLogs();
+        this.pool = created;
+        return created;
+    }
+
+    /**
+     * Applies the changed pool sizes and timeouts to the running pool.
+     *
+     * @param current the running pool
+     * @return the pool with the new settings
+     */
+    private synchronized PoolHolder reconfigurePool(final PoolHolder current) {
+        if (this.pool != current)
+            return this.pool != null ? this.pool : current;
+        final PoolSettings poolSettings = new PoolSettings(this.database);
+        poolSettings.apply(current.dataSource.getHikariConfigMXBean());
+        final PoolHolder reconfigured = new PoolHolder(current.dataSource, current.connectionSettings, current.driverConnection, poolSettings);
+        this.pool = reconfigured;
+        return reconfigured;
     }
 
     /**
      * Builds a {@link HikariConfig} instance based on the connection parameters.
      *
-     * @param driverConnection the JDBC connection prefix (e.g., "jdbc:mysql://")
-     * @param hostAddress the database host address
-     * @param databaseName the database name
+     * @param driverConnection   the JDBC connection prefix (e.g., "jdbc:mysql://")
+     * @param connectionSettings the settings used to connect
      * @return the configured {@link HikariConfig} object
      */
     @Nonnull
-    private HikariConfig getHikariConfig(String driverConnection, String hostAddress, String databaseName) {
-        final ConnectionSettings connectionSettings = this.database.getConnectionSettings();
+    private HikariConfig getHikariConfig(String driverConnection, ConnectionSettings connectionSettings) {
+        String databaseName = connectionSettings.getDatabaseName();
+        String hostAddress = connectionSettings.getHostAddress();
         String port = connectionSettings.getPort();
         String user = connectionSettings.getUser();
         String password = connectionSettings.getPassword();
@@ -136,30 +198,18 @@ public class HikariCP {
         config.setUsername(user);
         config.setPassword(password);
         config.setDriverClassName(this.driver);
+        if (this.database.getDatabaseType() == DatabaseType.MYSQL) {
+            // Let the driver keep the prepared statements for every pooled connection.
+            config.addDataSourceProperty("cachePrepStmts", "true");
+            config.addDataSourceProperty("prepStmtCacheSize", "250");
+            config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
+            config.addDataSourceProperty("useServerPrepStmts", "true");
+            // Send a batch as one multi row statement, instead of one round trip for every row.
+            config.addDataSourceProperty("rewriteBatchedStatements", "true");
+        }
         return config;
     }
 
-    /**
-     * Gets a connection for file-based databases (or similar), initializing the pool accordingly.
-     * Closes any existing pool connection before creating a new one.
-     *
-     * @param driverConnection the JDBC connection prefix for the file database
-     * @return a {@link Connection} instance
-     * @throws SQLException if a database access error occurs
-     */
-    public Connection getFileConnection(String driverConnection) throws SQLException {
-        final ConnectionSettings connectionSettings = this.database.getConnectionSettings();
-        String hostAddress = connectionSettings.getHostAddress();
-        if (this.hikari != null)
-            this.hikari.getConnection().close();
-        HikariConfig config = new HikariConfig();
-        config.setJdbcUrl(driverConnection + hostAddress);
-        config.setDriverClassName(this.driver);
-        this.hikari = new HikariDataSource(config);
-        turnOfLogs();
-        return this.hikari.getConnection();
-    }
-
     /**
      * Disables verbose logging for the HikariCP connection pool internals,
      * setting the logging level to WARN to reduce noise in logs.
@@ -169,4 +219,83 @@ public class HikariCP {
         Configurator.setAllLevels("com.zaxxer.hikari.HikariDataSource", Level.WARN);
         Configurator.setAllLevels("com.zaxxer.hikari.pool.HikariPool", Level.WARN);
     }
+
+    /**
+     * The running pool and the settings it was created with.
+     */
+    private static final class PoolHolder {
+        private final HikariDataSource dataSource;
+        private final ConnectionSettings connectionSettings;
+        private final String driverConnection;
+        private final PoolSettings poolSettings;
+
+        private PoolHolder(final HikariDataSource dataSource, final ConnectionSettings connectionSettings, final String driverConnection, final PoolSettings poolSettings) {
+            this.dataSource = dataSource;
+            this.connectionSettings = connectionSettings;
+            this.driverConnection = driverConnection;
+            this.poolSettings = poolSettings;
+        }
+
+        private boolean isSameConnection(final ConnectionSettings settings, final String driverConnection) {
+            if (!this.driverConnection.equals(driverConnection))
+                return false;
+            if (this.connectionSettings == settings)
+                return true;
+            return Objects.equals(this.connectionSettings.getDatabaseName(), settings.getDatabaseName()) &&
+                    Objects.equals(this.connectionSettings.getHostAddress(), settings.getHostAddress()) &&
+                    Objects.equals(this.connectionSettings.getPort(), settings.getPort()) &&
+                    Objects.equals(this.connectionSettings.getUser(), settings.getUser()) &&
+                    Objects.equals(this.connectionSettings.getPassword(), settings.getPassword()) &&
+                    Objects.equals(this.connectionSettings.getQuery(), settings.getQuery());
+        }
+    }
+
+    /**
+     * The pool sizes and timeouts set on the {@link Database}, that can be changed on a running pool.
+     */
+    private static final class PoolSettings {
+        private final int maximumPoolSize;
+        private final long connectionTimeout;
+        private final long idleTimeout;
+        private final int minimumIdle;
+        private final long maxLifeTime;
+
+        private PoolSettings(final Database database) {
+            this.maximumPoolSize = database.getMaximumPoolSize();
+            this.connectionTimeout = database.getConnectionTimeout();
+            this.idleTimeout = database.getIdleTimeout();
+            this.minimumIdle = database.getMinimumIdle();
+            this.maxLifeTime = database.getMaxLifeTime();
+        }
+
+        /**
+         * Applies the settings to a new pool. HikariConfig is cast to the bean here, so the
+         * JVM does not have to load HikariCP when {@link HikariCP} is verified, and the
+         * databases still work without HikariCP on the class path.
+         *
+         * @param config the config the pool is created from.
+         */
+        private void apply(final HikariConfig config) {
+            this.apply((HikariConfigMXBean) config);
+        }
+
+        private void apply(final HikariConfigMXBean config) {
+            if (this.maximumPoolSize > 0)
+                // Default is usually 32
+                config.setMaximumPoolSize(this.maximumPoolSize);
+            if (this.connectionTimeout > 0)
+                config.setConnectionTimeout(this.connectionTimeout);
+            if (this.idleTimeout > 0)
+                config.setIdleTimeout(this.idleTimeout);
+            if (this.minimumIdle > 0)
+                config.setMinimumIdle(this.minimumIdle);
+            if (this.maxLifeTime > 0)
+                config.setMaxLifetime(this.maxLifeTime);
+        }
+
+        private boolean matches(final Database database) {
+            return maximumPoolSize == database.getMaximumPoolSize() && connectionTimeout == database.getConnectionTimeout() &&
+                    idleTimeout == database.getIdleTimeout() && minimumIdle == database.getMinimumIdle() && maxLifeTime == database.getMaxLifeTime();
+        }
+    }
 }
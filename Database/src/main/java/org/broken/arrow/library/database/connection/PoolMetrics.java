@@ -0,0 +1,116 @@
+package org.broken.arrow.library.database.connection;
+
+/**
+ * A snapshot of the state of the connection pool, taken when
+ * {@link HikariCP#getPoolMetrics()} is called.
+ */
+public final class PoolMetrics {
+    private final int activeConnections;
+    private final int idleConnections;
+    private final int totalConnections;
+    private final int threadsAwaitingConnection;
+    private final long acquireCount;
+    private final long totalAcquireNanos;
+    private final long maxAcquireNanos;
+
+    /**
+     * Creates a snapshot of the pool.
+     *
+     * @param activeConnections         the connections in use.
+     * @param idleConnections           the connections waiting to be used.
+     * @param totalConnections          all connections in the pool.
+     * @param threadsAwaitingConnection the threads waiting for a connection.
+     * @param acquireCount              the amount of connections handed out.
+     * @param totalAcquireNanos         the total time spent waiting for connections.
+     * @param maxAcquireNanos           the longest time spent waiting for a connection.
+     */
+    public PoolMetrics(final int activeConnections, final int idleConnections, final int totalConnections, final int threadsAwaitingConnection,
+                       final long acquireCount, final long totalAcquireNanos, final long maxAcquireNanos) {
+        this.activeConnections = activeConnections;
+        this.idleConnections = idleConnections;
+        this.totalConnections = totalConnections;
+        this.threadsAwaitingConnection = threadsAwaitingConnection;
+        this.acquireCount = acquireCount;
+        this.totalAcquireNanos = totalAcquireNanos;
+        this.maxAcquireNanos = maxAcquireNanos;
+    }
+
+    /**
+     * Retrieve the amount of connections that are in use.
+     *
+     * @return the active connections.
+     */
+    public int getActiveConnections() {
+        return activeConnections;
+    }
+
+    /**
+     * Retrieve the amount of connections that are open, but not in use.
+     *
+     * @return the idle connections.
+     */
+    public int getIdleConnections() {
+        return idleConnections;
+    }
+
+    /**
+     * Retrieve the amount of open connections, both active and idle.
+     *
+     * @return the total connections.
+     */
+    public int getTotalConnections() {
+        return totalConnections;
+    }
+
+    /**
+     * Retrieve the amount of threads waiting for a connection. If this is often
+     * above 0, the pool is too small for the load.
+     *
+     * @return the waiting threads.
+     */
+    public int getThreadsAwaitingConnection() {
+        return threadsAwaitingConnection;
+    }
+
+    /**
+     * Retrieve the amount of connections handed out from the pool.
+     *
+     * @return the acquire count.
+     */
+    public long getAcquireCount() {
+        return acquireCount;
+    }
+
+    /**
+     * Retrieve the average time it took to get a connection from the pool.
+     *
+     * @return the average time in milliseconds.
+     */
+    public double getAverageAcquireMillis() {
+        if (acquireCount == 0)
+            return 0;
+        return totalAcquireNanos / (double) acquireCount / 1_000_000D;
+    }
+
+    /**
+     * Retrieve the longest time it took to get a connection from the pool.
+     *
+     * @return the max time in milliseconds.
+     */
+    public double getMaxAcquireMillis() {
+        return maxAcquireNanos / 1_000_000D;
+    }
+
+    @Override
+    public String toString() {
+        return "PoolMetrics{" +
+                "active=" + activeConnections +
+                ", idle=" + idleConnections +
+                ", total=" + totalConnections +
+                ", waiting=" + threadsAwaitingConnection +
+                ", acquireCount=" + acquireCount +
+                ", averageAcquireMillis=" + getAverageAcquireMillis() +
+                ", maxAcquireMillis=" + getMaxAcquireMillis() +
+                '}';
+    }
+}
@@ -6,6 +6,7 @@ import org.broken.arrow.library.database.construct.query.builder.statement.Query
 import org.broken.arrow.library.database.construct.query.builder.statement.UpdateBuilder;
 import org.broken.arrow.library.database.construct.query.builder.table.cte.WithManager;
 import org.broken.arrow.library.database.construct.query.builder.table.AlterTable;
+import org.broken.arrow.library.database.construct.query.builder.clause.KeysetBuilder;
 import org.broken.arrow.library.database.construct.query.builder.clause.wherebuilder.WhereBuilder;
 import org.broken.arrow.library.database.construct.query.columnbuilder.Column;
 import org.broken.arrow.library.database.construct.query.columnbuilder.ColumnManager;
@@ -212,6 +213,34 @@ public class QueryBuilder {
         this.table = table;
     }
 
+    /**
+     * Starts building an INSERT INTO query that updates the row if the key already exists,
+     * using {@code ON DUPLICATE KEY UPDATE} (MySQL syntax).
+     *
+     * @param table    the name of the table to insert into
+     * @param callback callback to configure the insert handler, see {@link InsertHandler#updateOnConflict(String...)}
+     *                 to limit the columns that are updated.
+     */
+    public void insertOnDuplicateKeyUpdate(String table, Consumer<InsertHandler> callback) {
+        callback.accept(insertHandler);
+        this.queryType = QueryType.INSERT_ON_DUPLICATE_KEY;
+        this.table = table;
+    }
+
+    /**
+     * Starts building an INSERT INTO query that updates the row if the key already exists,
+     * using {@code ON CONFLICT (...) DO UPDATE} (PostgreSQL and SQLite syntax).
+     *
+     * @param table    the name of the table to insert into
+     * @param callback callback to configure the insert handler, the conflict columns must be set
+     *                 with {@link InsertHandler#onConflict(java.util.Collection)}.
+     */
+    public void insertOnConflictUpdate(String table, Consumer<InsertHandler> callback) {
+        callback.accept(insertHandler);
+        this.queryType = QueryType.INSERT_ON_CONFLICT;
+        this.table = table;
+    }
+
     /**
      * Starts building a MERGE INTO query for the specified table with a configuration callback.
      *
@@ -307,6 +336,15 @@ public class QueryBuilder {
         return queryType;
     }
 
+    /**
+     * Gets the InsertHandler instance used for building INSERT, MERGE and REPLACE queries.
+     *
+     * @return the InsertHandler instance
+     */
+    public InsertHandler getInsertHandler() {
+        return insertHandler;
+    }
+
     /**
      * Gets the QueryModifier instance used for building SELECT queries.
      *
@@ -330,6 +368,23 @@ public class QueryBuilder {
         return sql + ";";
     }
 
+    /**
+     * Builds the SELECT query for the pages after the first one, when the query is paginated
+     * with {@link QueryModifier#seek(Consumer)}. The values of the key columns from the last
+     * row are set after the values from {@link #getValues()}.
+     *
+     * @return the SQL query string
+     * @throws IllegalStateException if the query is not a SELECT with keyset pagination set.
+     */
+    public String buildNextPage() {
+        if (this.queryType != QueryType.SELECT || !this.queryModifier.getKeysetBuilder().isSet()) {
+            throw new IllegalStateException("Keyset pagination must be set on a select query, before building the next page.");
+        }
+        final StringBuilder sql = new StringBuilder();
+        createSelectQuery(this.queryModifier, sql, true);
+        return sql + ";";
+    }
+
     /**
      * Returns a map of parameter values indexed by their position in the query.
      * <p>
@@ -350,7 +405,8 @@ public class QueryBuilder {
         }
         if (queryType == QueryType.UPDATE) {
             return updateBuilder.getIndexedValues();
-        } else if (queryType == QueryType.INSERT || queryType == QueryType.MERGE_INTO || queryType == QueryType.REPLACE_INTO || queryType == QueryType.INSERT_REPLACE) {
+        } else if (queryType == QueryType.INSERT || queryType == QueryType.MERGE_INTO || queryType == QueryType.REPLACE_INTO || queryType == QueryType.INSERT_REPLACE
+                || queryType == QueryType.INSERT_ON_DUPLICATE_KEY || queryType == QueryType.INSERT_ON_CONFLICT) {
             return insertHandler.getIndexedValues();
         } else if (queryType == QueryType.SELECT) {
             return queryModifier.getParameterValues();
@@ -380,7 +436,8 @@ public class QueryBuilder {
 
         if (queryType == QueryType.UPDATE) {
             return updateBuilder.getSelector().getSelectBuilder().getColumns().size();
-        } else if (queryType == QueryType.INSERT || queryType == QueryType.INSERT_REPLACE) {
+        } else if (queryType == QueryType.INSERT || queryType == QueryType.INSERT_REPLACE
+                || queryType == QueryType.INSERT_ON_DUPLICATE_KEY || queryType == QueryType.INSERT_ON_CONFLICT) {
             return insertHandler.getInsertValues().size();
         } else if (queryType == QueryType.SELECT) {
             return queryModifier.getSelectBuilder().getColumns().size();
@@ -415,7 +472,7 @@ public class QueryBuilder {
         StringBuilder sql = new StringBuilder();
         switch (this.queryType) {
             case SELECT:
-                createSelectQuery(queryModifier, sql);
+                createSelectQuery(queryModifier, sql, false);
                 break;
             case DELETE:
                 sql.append("DELETE FROM ").append(table);
@@ -439,6 +496,8 @@ public class QueryBuilder {
                 break;
             case INSERT_REPLACE:
             case INSERT:
+            case INSERT_ON_DUPLICATE_KEY:
+            case INSERT_ON_CONFLICT:
             case MERGE_INTO:
             case REPLACE_INTO:
                 createInsertQuery(sql);
@@ -467,13 +526,19 @@ public class QueryBuilder {
      *
      * @param queryModifier the modifier containing the table, columns, and optional query clauses
      * @param sql           the {@link StringBuilder} destination to append the constructed query to
+     * @param nextPage      true to seek past the last row, when keyset pagination is set.
      */
-    private void createSelectQuery(final QueryModifier queryModifier, final StringBuilder sql) {
+    private void createSelectQuery(final QueryModifier queryModifier, final StringBuilder sql, final boolean nextPage) {
         sql.append("SELECT ");
         sql.append(queryModifier.getSelectBuilder().getColumns().isEmpty() ? "*" : queryModifier.getSelectBuilder().build());
 
         appendClause(sql, "FROM " + queryModifier.getTableWithAlias());
         appendClause(sql, queryModifier.getJoinBuilder().build());
+        final KeysetBuilder keysetBuilder = queryModifier.getKeysetBuilder();
+        if (keysetBuilder.isSet()) {
+            appendKeysetClauses(queryModifier, keysetBuilder, sql, nextPage);
+            return;
+        }
         appendClause(sql, queryModifier.getWhereBuilder().build());
         appendClause(sql, queryModifier.getGroupByBuilder().build());
         appendClause(sql, queryModifier.getHavingBuilder().build());
@@ -481,6 +546,22 @@ public class QueryBuilder {
         appendClause(sql, queryModifier.getLimit());
     }
 
+    private void appendKeysetClauses(final QueryModifier queryModifier, final KeysetBuilder keysetBuilder, final StringBuilder sql, final boolean nextPage) {
+        if (!queryModifier.getGroupByBuilder().build().isEmpty() || !queryModifier.getHavingBuilder().build().isEmpty() || !queryModifier.getOrderByBuilder().build().isEmpty()) {
+            throw new IllegalStateException("Keyset pagination can not be combined with GROUP BY, HAVING or ORDER BY.");
+        }
+        final String where = queryModifier.getWhereBuilder().build();
+        if (nextPage && where.isEmpty()) {
+            appendClause(sql, "WHERE " + keysetBuilder.buildCondition());
+        } else if (nextPage) {
+            appendClause(sql, "WHERE (" + where.substring(" WHERE ".length()) + ") AND " + keysetBuilder.buildCondition());
+        } else {
+            appendClause(sql, where);
+        }
+        appendClause(sql, keysetBuilder.buildOrderBy());
+        appendClause(sql, queryModifier.getLimit());
+    }
+
     private void createUpdateQuery(final StringBuilder sql) {
         Map<String, Object> updateValues = updateBuilder.build();
         if (updateValues.isEmpty()) {
@@ -510,6 +591,8 @@ public class QueryBuilder {
         String sqlKeyword;
         switch (queryType) {
             case INSERT:
+            case INSERT_ON_DUPLICATE_KEY:
+            case INSERT_ON_CONFLICT:
                 sqlKeyword = "INSERT INTO ";
                 break;
             case MERGE_INTO:
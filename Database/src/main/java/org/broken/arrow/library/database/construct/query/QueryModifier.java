@@ -2,6 +2,7 @@ package org.broken.arrow.library.database.construct.query;
 
 
 import org.broken.arrow.library.database.construct.query.builder.clause.GroupByBuilder;
+import org.broken.arrow.library.database.construct.query.builder.clause.KeysetBuilder;
 import org.broken.arrow.library.database.construct.query.builder.clause.joinbuilder.JoinBuilder;
 import org.broken.arrow.library.database.construct.query.builder.clause.OrderByBuilder;
 import org.broken.arrow.library.database.construct.query.builder.comparison.ConditionChainer;
@@ -27,6 +28,7 @@ public class QueryModifier extends Selector<ColumnBuilder<Column, Void>, Column>
     private final GroupByBuilder groupByBuilder = new GroupByBuilder();
 
     private final OrderByBuilder orderByBuilder = new OrderByBuilder();
+    private final KeysetBuilder keysetBuilder = new KeysetBuilder();
     private final QueryBuilder queryBuilder;
     private int limit;
 
@@ -120,6 +122,23 @@ public class QueryModifier extends Selector<ColumnBuilder<Column, Void>, Column>
         return this;
     }
 
+    /**
+     * Paginates the query with keyset pagination, see {@link KeysetBuilder}. This sets the
+     * ORDER BY and LIMIT from the key columns and page size, so {@link #orderBy(Consumer)}
+     * and {@link #limit(int)} can not be used together with it.
+     * <p>
+     * {@link QueryBuilder#build()} builds the query for the first page and
+     * {@link QueryBuilder#buildNextPage()} the query for the pages after it.
+     * </p>
+     *
+     * @param callback a consumer that configures the keyset builder
+     * @return this QueryModifier instance for chaining
+     */
+    public QueryModifier seek(Consumer<KeysetBuilder> callback) {
+        callback.accept(keysetBuilder);
+        return this;
+    }
+
     /**
      * Returns the SQL fragment representing the LIMIT clause,
      * or an empty string if no limit is set.
@@ -127,9 +146,11 @@ public class QueryModifier extends Selector<ColumnBuilder<Column, Void>, Column>
      * @return the LIMIT clause string or empty string if limit below one
      */
     public String getLimit() {
+        if (keysetBuilder.isSet())
+            return "LIMIT " + keysetBuilder.getPageSize();
         if(limit < 1)
             return "";
-        return "LIMIT" + limit;
+        return "LIMIT " + limit;
     }
 
     /**
@@ -150,4 +171,13 @@ public class QueryModifier extends Selector<ColumnBuilder<Column, Void>, Column>
         return orderByBuilder;
     }
 
+    /**
+     * Gets the KeysetBuilder used for keyset pagination.
+     *
+     * @return the KeysetBuilder instance
+     */
+    public KeysetBuilder getKeysetBuilder() {
+        return keysetBuilder;
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,131 @@
+package org.broken.arrow.library.database.construct.query.builder.clause;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Builder for keyset (seek) pagination.
+ * <p>
+ * Instead of skipping rows with {@code OFFSET}, every page starts after the key of the
+ * last row of the previous page, like {@code WHERE (id) > (?) ORDER BY id LIMIT 50}.
+ * The database can then jump straight to the page with the index, so page 1000 is as
+ * fast as page 1.
+ * </p>
+ * <p>
+ * The key columns must together be unique, like the primary key of the table, and
+ * all of them are sorted in the same direction.
+ * </p>
+ */
+public class KeysetBuilder {
+    private final List<String> keyColumns = new ArrayList<>();
+    private boolean ascending = true;
+    private int pageSize;
+
+    /**
+     * Sets the columns the pages are sorted by, in the order they are compared.
+     *
+     * @param columns the unique key columns.
+     * @return this builder instance for chaining
+     */
+    public KeysetBuilder keyColumns(String... columns) {
+        return this.keyColumns(Arrays.asList(columns));
+    }
+
+    /**
+     * Sets the columns the pages are sorted by, in the order they are compared.
+     *
+     * @param columns the unique key columns.
+     * @return this builder instance for chaining
+     */
+    public KeysetBuilder keyColumns(List<String> columns) {
+        this.keyColumns.clear();
+        this.keyColumns.addAll(columns);
+        return this;
+    }
+
+    /**
+     * Sorts the pages from the highest key to the lowest, like for a leaderboard.
+     *
+     * @return this builder instance for chaining
+     */
+    public KeysetBuilder descending() {
+        this.ascending = false;
+        return this;
+    }
+
+    /**
+     * Sets the max amount of rows on each page.
+     *
+     * @param pageSize the rows on each page.
+     * @return this builder instance for chaining
+     */
+    public KeysetBuilder pageSize(int pageSize) {
+        this.pageSize = pageSize;
+        return this;
+    }
+
+    /**
+     * Returns the key columns, the values of these columns from the last row
+     * are set as parameters for the next page.
+     *
+     * @return the key columns in the order they are compared.
+     */
+    public List<String> getKeyColumns() {
+        return Collections.unmodifiableList(keyColumns);
+    }
+
+    /**
+     * Returns true if the pages are sorted from the lowest key to the highest.
+     *
+     * @return true if ascending, false if descending.
+     */
+    public boolean isAscending() {
+        return ascending;
+    }
+
+    /**
+     * Returns the max amount of rows on each page.
+     *
+     * @return the page size.
+     */
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * Checks if key columns and a page size are set.
+     *
+     * @return true if the query shall be paginated.
+     */
+    public boolean isSet() {
+        return !keyColumns.isEmpty() && pageSize > 0;
+    }
+
+    /**
+     * Builds the condition that seeks past the last row, with one placeholder for
+     * every key column. Several columns are compared as a row value, so
+     * {@code (a, b) > (?, ?)}.
+     *
+     * @return the condition without the WHERE keyword.
+     */
+    public String buildCondition() {
+        final String operator = ascending ? " > " : " < ";
+        if (keyColumns.size() == 1)
+            return keyColumns.get(0) + operator + "?";
+        final String placeholders = keyColumns.stream().map(column -> "?").collect(Collectors.joining(", "));
+        return "(" + String.join(", ", keyColumns) + ")" + operator + "(" + placeholders + ")";
+    }
+
+    /**
+     * Builds the ORDER BY clause for the key columns.
+     *
+     * @return SQL ORDER BY clause.
+     */
+    public String buildOrderBy() {
+        final String direction = ascending ? " ASC" : " DESC";
+        return " ORDER BY " + keyColumns.stream().map(column -> column + direction).collect(Collectors.joining(", "));
+    }
+}
@@ -4,10 +4,13 @@ import org.broken.arrow.library.database.construct.query.QueryBuilder;
 import org.broken.arrow.library.database.construct.query.QueryModifier;
 import org.broken.arrow.library.database.construct.query.builder.clause.ParameterSupplier;
 import org.broken.arrow.library.database.construct.query.columnbuilder.Column;
+import org.broken.arrow.library.database.construct.query.utlity.QueryType;
 import org.broken.arrow.library.database.construct.query.utlity.StringUtil;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -30,6 +33,8 @@ public class InsertHandler implements ParameterSupplier {
 
     private final Map<Integer, InsertBuilder> insertValues = new LinkedHashMap<>();
     private final Map<Integer, Object> values = new LinkedHashMap<>();
+    private final List<String> conflictColumns = new ArrayList<>();
+    private final List<String> updateColumns = new ArrayList<>();
     private final QueryModifier queryModifier;
     private final QueryBuilder queryBuilder;
     private int columnIndex = 1;
@@ -101,6 +106,58 @@ public class InsertHandler implements ParameterSupplier {
         return this;
     }
 
+    /**
+     * Sets the columns that identify an existing row, usually the primary key columns.
+     * <p>
+     * Used for {@code INSERT ... ON CONFLICT (...) DO UPDATE}, where the columns
+     * must match a primary key or unique constraint. For {@code ON DUPLICATE KEY UPDATE}
+     * the columns are only left out from the update.
+     * </p>
+     *
+     * @param columns the column names to check for conflicts.
+     * @return this instance for chaining
+     */
+    public InsertHandler onConflict(Collection<String> columns) {
+        this.conflictColumns.clear();
+        this.conflictColumns.addAll(columns);
+        return this;
+    }
+
+    /**
+     * Limits the columns updated when the row already exists. If not set,
+     * all inserted columns except the conflict columns will be updated.
+     *
+     * @param columns the column names to update.
+     * @return this instance for chaining
+     */
+    public InsertHandler updateOnConflict(String... columns) {
+        this.updateColumns.clear();
+        if (columns != null)
+            Collections.addAll(this.updateColumns, columns);
+        return this;
+    }
+
+    /**
+     * Creates a key for the SQL text this handler builds, from the column names and the
+     * conflict and update columns. Two handlers with the same key build the same SQL for
+     * the same table and query type, only the values differ.
+     *
+     * @return the key, or {@code null} if the SQL also depends on the values, as when
+     * placeholders are turned off or the values come from a select.
+     */
+    @Nullable
+    public String getTemplateKey() {
+        if (!this.queryBuilder.isGlobalEnableQueryPlaceholders() || isInsertFromSelect()) {
+            return null;
+        }
+        final StringBuilder key = new StringBuilder();
+        for (InsertBuilder insertBuilder : insertValues.values()) {
+            key.append(insertBuilder.getColumnName()).append(',');
+        }
+        return key.append('|').append(String.join(",", conflictColumns))
+                .append('|').append(String.join(",", updateColumns)).toString();
+    }
+
     /**
      * Get the modifier like select and similar for modify a table.
      *
@@ -237,6 +294,36 @@ public class InsertHandler implements ParameterSupplier {
         }
 
         sql.append(")");
+        sql.append(buildUpsertClause(columnNames));
         return sql.toString();
     }
+
+    private String buildUpsertClause(List<String> columnNames) {
+        final QueryType queryType = this.queryBuilder.getQueryType();
+        if (queryType != QueryType.INSERT_ON_DUPLICATE_KEY && queryType != QueryType.INSERT_ON_CONFLICT) {
+            return "";
+        }
+        final List<String> toUpdate = columnNames.stream()
+                .filter(column -> conflictColumns.stream().noneMatch(column::equalsIgnoreCase))
+                .filter(column -> updateColumns.isEmpty() || updateColumns.stream().anyMatch(column::equalsIgnoreCase))
+                .collect(Collectors.toList());
+
+        if (queryType == QueryType.INSERT_ON_DUPLICATE_KEY) {
+            if (toUpdate.isEmpty()) {
+                final String column = columnNames.get(0);
+                return " ON DUPLICATE KEY UPDATE " + column + " = " + column;
+            }
+            return " ON DUPLICATE KEY UPDATE " + toUpdate.stream()
+                    .map(column -> column + " = VALUES(" + column + ")")
+                    .collect(Collectors.joining(", "));
+        }
+
+        final StringBuilder sql = new StringBuilder(" ON CONFLICT (").append(String.join(", ", conflictColumns)).append(")");
+        if (toUpdate.isEmpty()) {
+            return sql.append(" DO NOTHING").toString();
+        }
+        return sql.append(" DO UPDATE SET ").append(toUpdate.stream()
+                .map(column -> column + " = excluded." + column)
+                .collect(Collectors.joining(", "))).toString();
+    }
 }
@@ -43,6 +43,12 @@ public enum QueryType {
     /** {@code INSERT OR REPLACE INTO} Will replace current value if exist or insert if it not exist. */
     INSERT_REPLACE,
 
+    /** {@code INSERT ... ON DUPLICATE KEY UPDATE} Will update the row if the key exist or insert if it not exist (MySQL). */
+    INSERT_ON_DUPLICATE_KEY,
+
+    /** {@code INSERT ... ON CONFLICT DO UPDATE} Will update the row if the key exist or insert if it not exist (PostgreSQL and SQLite). */
+    INSERT_ON_CONFLICT,
+
     /** An {@code ALTER TABLE} query, used to modify the structure of an existing table. */
     ALTER_TABLE,
 
@@ -0,0 +1,307 @@
+package org.broken.arrow.library.database.core;
+
+import org.broken.arrow.library.database.builders.DataWrapper;
+import org.broken.arrow.library.database.builders.LoadDataWrapper;
+import org.broken.arrow.library.database.utility.DatabaseType;
+import org.broken.arrow.library.logging.Logging;
+import org.broken.arrow.library.serialize.utility.serialize.ConfigurationSerializable;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+
+/**
+ * Runs the save, load and remove operations of a {@link Database} on its own threads
+ * and returns a {@link CompletableFuture} for the result.
+ * <p>
+ * The amount of threads is the same as {@link Database#getMaximumPoolSize()}, so every
+ * thread can borrow a connection without waiting on the pool. The queue is bounded, if
+ * it is full the returned future is completed with a {@link RejectedExecutionException}
+ * instead of blocking the caller.
+ * </p>
+ * <p>
+ * Writes to the same table are run in the order they were submitted, so a later save
+ * never overtakes an earlier one for the same row. SQLite only allows one writer, so all
+ * writes are run in one sequence there. Loads are not ordered with the writes; chain the
+ * load on the future from the save if it needs to see the saved data.
+ * </p>
+ * <p>
+ * MongoDB closes its client after every operation, so there all tasks, also the loads,
+ * are run one at a time in the order they were submitted.
+ * </p>
+ * <p>
+ * A write that fails completes its future with an {@link IllegalStateException}, the
+ * failed rows are logged by the database.
+ * </p>
+ */
+public class AsyncDatabase {
+    private static final int DEFAULT_POOL_SIZE = 10;
+    private static final int QUEUE_SIZE_PER_THREAD = 256;
+    private static final AtomicInteger POOL_ID = new AtomicInteger();
+    private final Logging log = new Logging(AsyncDatabase.class);
+    private final Map<String, CompletableFuture<?>> writeOrder = new ConcurrentHashMap<>();
+    private final Database database;
+    private final ThreadPoolExecutor executor;
+    private volatile boolean closing;
+
+    /**
+     * Creates the async executor for the database.
+     *
+     * @param database the database to run the operations on.
+     */
+    public AsyncDatabase(@Nonnull final Database database) {
+        this.database = database;
+        final int poolSize = database.getMaximumPoolSize() > 0 ? database.getMaximumPoolSize() : DEFAULT_POOL_SIZE;
+        final int poolId = POOL_ID.incrementAndGet();
+        final AtomicInteger threadId = new AtomicInteger();
+
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(poolSize * QUEUE_SIZE_PER_THREAD), runnable -> {
+            final Thread thread = new Thread(runnable, "database-async-" + poolId + "-" + threadId.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Saves all rows to the table, see {@link Database#saveAll(String, List, boolean, String...)}.
+     *
+     * @param tableName       the name of the table.
+     * @param dataWrapperList the rows to save.
+     * @param shallUpdate     true if existing rows shall be updated.
+     * @param columns         optional columns to update, if empty all columns are saved.
+     * @return a future that completes when the rows are saved.
+     */
+    public CompletableFuture<Void> saveAll(@Nonnull final String tableName, @Nonnull final List<DataWrapper> dataWrapperList, final boolean shallUpdate, final String... columns) {
+        return this.runInOrder(tableName, () -> this.database.saveAll(tableName, dataWrapperList, shallUpdate, columns));
+    }
+
+    /**
+     * Saves one row to the table, see {@link Database#save(String, DataWrapper, boolean, String...)}.
+     *
+     * @param tableName   the name of the table.
+     * @param dataWrapper the row to save.
+     * @param shallUpdate true if the row shall be updated if it exist.
+     * @param columns     optional columns to update, if empty all columns are saved.
+     * @return a future that completes when the row is saved.
+     */
+    public CompletableFuture<Void> save(@Nonnull final String tableName, @Nonnull final DataWrapper dataWrapper, final boolean shallUpdate, final String... columns) {
+        return this.runInOrder(tableName, () -> this.database.save(tableName, dataWrapper, shallUpdate, columns));
+    }
+
+    /**
+     * Removes the rows with the primary values, see {@link Database#removeAll(String, List)}.
+     *
+     * @param tableName the name of the table.
+     * @param values    the primary values for the rows to remove.
+     * @return a future that completes when the rows are removed.
+     */
+    public CompletableFuture<Void> removeAll(@Nonnull final String tableName, @Nonnull final List<String> values) {
+        return this.runInOrder(tableName, () -> this.database.removeAll(tableName, values));
+    }
+
+    /**
+     * Removes the row with the primary value, see {@link Database#remove(String, String)}.
+     *
+     * @param tableName the name of the table.
+     * @param value     the primary value for the row to remove.
+     * @return a future that completes when the row is removed.
+     */
+    public CompletableFuture<Void> remove(@Nonnull final String tableName, @Nonnull final String value) {
+        return this.runInOrder(tableName, () -> this.database.remove(tableName, value));
+    }
+
+    /**
+     * Loads all rows from the table, see {@link Database#loadAll(String, Class)}.
+     *
+     * @param tableName the name of the table.
+     * @param clazz     the class to deserialize the rows to.
+     * @param <T>       the type of the deserialized class.
+     * @return a future with the loaded rows.
+     */
+    public <T extends ConfigurationSerializable> CompletableFuture<List<LoadDataWrapper<T>>> loadAll(@Nonnull final String tableName, @Nonnull final Class<T> clazz) {
+        return this.supply(() -> this.database.loadAll(tableName, clazz));
+    }
+
+    /**
+     * Loads one row from the table, see {@link Database#load(String, Class, String)}.
+     *
+     * @param tableName   the name of the table.
+     * @param clazz       the class to deserialize the row to.
+     * @param columnValue the primary value of the row.
+     * @param <T>         the type of the deserialized class.
+     * @return a future with the loaded row, the value is null if the row is not found.
+     */
+    public <T extends ConfigurationSerializable> CompletableFuture<LoadDataWrapper<T>> load(@Nonnull final String tableName, @Nonnull final Class<T> clazz, @Nonnull final String columnValue) {
+        return this.supply(() -> this.database.load(tableName, clazz, columnValue));
+    }
+
+    /**
+     * Runs the task on the database threads, without any order to other tasks.
+     *
+     * @param task the task to run.
+     * @param <R>  the type of the result.
+     * @return a future with the result of the task.
+     */
+    public <R> CompletableFuture<R> supply(@Nonnull final Supplier<R> task) {
+        if (this.isSingleConnection())
+            return this.supplyInOrder("", task);
+        final CompletableFuture<R> result = new CompletableFuture<>();
+        if (this.rejectIfClosing(result)) return result;
+        this.execute(task, result);
+        return result;
+    }
+
+    /**
+     * Runs the task after all tasks submitted earlier with the same key have finished,
+     * also if any of them failed. Tasks with other keys can run at the same time, except
+     * on MongoDB where all tasks share one order.
+     *
+     * @param orderKey the key the tasks are ordered by, for example the table name or a row key.
+     * @param task     the task to run.
+     * @param <R>      the type of the result.
+     * @return a future with the result of the task.
+     */
+    public <R> CompletableFuture<R> supplyInOrder(@Nonnull final String orderKey, @Nonnull final Supplier<R> task) {
+        final String key = this.isSingleConnection() ? "" : orderKey;
+        final CompletableFuture<R> result = new CompletableFuture<>();
+        if (this.rejectIfClosing(result)) return result;
+        this.writeOrder.compute(key, (chainKey, previous) -> {
+            if (previous == null)
+                this.execute(task, result);
+            else
+                previous.whenComplete((value, throwable) -> this.execute(task, result));
+            return result;
+        });
+        result.whenComplete((value, throwable) -> this.writeOrder.remove(key, result));
+        return result;
+    }
+
+    /**
+     * Retrieve the amount of tasks waiting for a free thread.
+     *
+     * @return the amount of queued tasks.
+     */
+    public int getQueueSize() {
+        return this.executor.getQueue().size();
+    }
+
+    /**
+     * Check if {@link #shutdown(long, TimeUnit)} has been called.
+     *
+     * @return true if no new tasks are accepted.
+     */
+    public boolean isShutdown() {
+        return this.closing || this.executor.isShutdown();
+    }
+
+    /**
+     * Stops accepting new tasks and waits for the queued tasks to finish. Call this
+     * when the plugin is disabled, so no saves are lost.
+     * <p>
+     * Ordered tasks are only given to the threads when the task before them is done,
+     * so this first waits for every chain of ordered tasks to finish, and then shuts
+     * down the threads.
+     * </p>
+     *
+     * @param timeout the max time to wait.
+     * @param unit    the unit of the timeout.
+     * @return true if all tasks finished before the timeout.
+     */
+    public boolean shutdown(final long timeout, @Nonnull final TimeUnit unit) {
+        this.closing = true;
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        try {
+            if (this.awaitOrderedTasks(deadline)) {
+                this.executor.shutdown();
+                if (this.executor.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS))
+                    return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        this.executor.shutdown();
+        log.log(Level.WARNING, () -> "Timed out waiting for the database tasks to finish, " + (this.getQueueSize() + this.writeOrder.size()) + " tasks was not run.");
+        return false;
+    }
+
+    /**
+     * Waits until the last task for every ordered key is done.
+     *
+     * @param deadline the {@link System#nanoTime()} to stop waiting at.
+     * @return true if all ordered tasks finished before the deadline.
+     * @throws InterruptedException if the thread is interrupted while waiting.
+     */
+    private boolean awaitOrderedTasks(final long deadline) throws InterruptedException {
+        while (true) {
+            final List<CompletableFuture<?>> running = new ArrayList<>();
+            for (final CompletableFuture<?> future : this.writeOrder.values()) {
+                if (!future.isDone()) running.add(future);
+            }
+            if (running.isEmpty()) return true;
+
+            final long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) return false;
+            try {
+                CompletableFuture.allOf(running.toArray(new CompletableFuture<?>[0])).get(remaining, TimeUnit.NANOSECONDS);
+            } catch (ExecutionException ignore) {
+                // A failed task still ends its chain, the failure is reported on its own future.
+            } catch (TimeoutException e) {
+                return false;
+            }
+        }
+    }
+
+    private boolean rejectIfClosing(final CompletableFuture<?> result) {
+        if (!this.closing) return false;
+        result.completeExceptionally(new RejectedExecutionException("The async database is shut down."));
+        return true;
+    }
+
+    private CompletableFuture<Void> runInOrder(final String tableName, final Runnable task) {
+        return this.supplyInOrder(this.getWriteKey(tableName), () -> {
+            if (!this.database.runWrite(task))
+                throw new CompletionException(new IllegalStateException("Could not write all rows to the table: " + tableName + ", the failed rows are logged."));
+            return null;
+        });
+    }
+
+    private String getWriteKey(final String tableName) {
+        if (this.database.getDatabaseType() == DatabaseType.SQLITE)
+            return "";
+        return tableName;
+    }
+
+    private boolean isSingleConnection() {
+        return this.database.getDatabaseType() == DatabaseType.MONGO_DB;
+    }
+
+    private <R> void execute(final Supplier<R> task, final CompletableFuture<R> result) {
+        try {
+            this.executor.execute(() -> {
+                try {
+                    result.complete(task.get());
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                    if (e instanceof Error) throw (Error) e;
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(e);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package org.broken.arrow.library.database.core;
+
+/**
+ * A snapshot of the statistics for an {@link EntityCache}, taken when
+ * {@link EntityCache#getStats()} is called.
+ */
+public final class CacheStats {
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final int size;
+
+    /**
+     * Creates a snapshot of the cache.
+     *
+     * @param hitCount      the loads that was found in the cache.
+     * @param missCount     the loads that had to read from the database.
+     * @param evictionCount the rows removed because the cache was full.
+     * @param size          the rows in the cache.
+     */
+    public CacheStats(final long hitCount, final long missCount, final long evictionCount, final int size) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.size = size;
+    }
+
+    /**
+     * Retrieve the amount of loads that was found in the cache.
+     *
+     * @return the hit count.
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Retrieve the amount of loads that had to read from the database.
+     *
+     * @return the miss count.
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Retrieve the share of the loads that was found in the cache.
+     *
+     * @return the hit rate from 0 to 1, or 0 if nothing is loaded yet.
+     */
+    public double getHitRate() {
+        final long requests = hitCount + missCount;
+        if (requests == 0)
+            return 0;
+        return hitCount / (double) requests;
+    }
+
+    /**
+     * Retrieve the amount of rows removed, because the cache was full.
+     *
+     * @return the eviction count.
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Retrieve the amount of rows in the cache.
+     *
+     * @return the cache size.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats{" +
+                "hits=" + hitCount +
+                ", misses=" + missCount +
+                ", hitRate=" + getHitRate() +
+                ", evictions=" + evictionCount +
+                ", size=" + size +
+                '}';
+    }
+}
@@ -4,13 +4,20 @@ import org.broken.arrow.library.database.builders.ConnectionSettings;
 import org.broken.arrow.library.database.builders.DataWrapper;
 import org.broken.arrow.library.database.builders.LoadDataWrapper;
 import org.broken.arrow.library.database.builders.tables.SqlQueryTable;
+import org.broken.arrow.library.database.builders.tables.SqlTemplateCache;
 import org.broken.arrow.library.database.builders.wrappers.LoadSetup;
 import org.broken.arrow.library.database.builders.wrappers.query.QueryLoader;
 import org.broken.arrow.library.database.builders.wrappers.query.QuerySaver;
+import org.broken.arrow.library.database.builders.wrappers.query.WriteBehindSaver;
 import org.broken.arrow.library.database.builders.wrappers.SaveSetup;
 import org.broken.arrow.library.database.connection.HikariCP;
+import org.broken.arrow.library.database.connection.PoolMetrics;
+import org.broken.arrow.library.database.metrics.QueryMetrics;
+import org.broken.arrow.library.database.metrics.QueryMetricsListener;
+import org.broken.arrow.library.database.metrics.QueryMonitor;
 import org.broken.arrow.library.database.construct.query.QueryBuilder;
 import org.broken.arrow.library.database.construct.query.builder.table.CreateTableHandler;
+import org.broken.arrow.library.database.construct.query.builder.table.column.TableColumn;
 import org.broken.arrow.library.database.construct.query.builder.comparison.ConditionChainer;
 import org.broken.arrow.library.database.construct.query.builder.clause.wherebuilder.WhereBuilder;
 import org.broken.arrow.library.database.construct.query.columnbuilder.Column;
@@ -26,16 +33,16 @@ import org.broken.arrow.library.database.utility.BatchExecutor;
 import org.broken.arrow.library.database.utility.BatchExecutorUnsafe;
 import org.broken.arrow.library.database.utility.DatabaseCommandConfig;
 import org.broken.arrow.library.database.utility.DatabaseType;
+import org.broken.arrow.library.database.utility.query.build.ResultSetMapper;
 import org.broken.arrow.library.database.utility.PrimaryConstraintWrapper;
 import org.broken.arrow.library.database.utility.constrains.SchemaMigrationHandler;
 import org.broken.arrow.library.serialize.utility.serialize.ConfigurationSerializable;
-import org.broken.arrow.library.serialize.utility.serialize.MethodReflectionUtils;
+import org.broken.arrow.library.serialize.utility.serialize.DeserializerRegistry;
 import org.broken.arrow.library.logging.Logging;
 import org.broken.arrow.library.logging.Validate;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.lang.reflect.Method;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -48,9 +55,17 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 
 /**
@@ -60,6 +75,7 @@ import java.util.logging.Level;
 public abstract class Database {
     private final Logging log = new Logging(Database.class);
     private final Map<String, SqlQueryTable> tablesCache = new HashMap<>();
+    private final SqlTemplateCache sqlTemplateCache = new SqlTemplateCache();
     private final ConnectionSettings connectionSettings;
     private Set<String> removeColumns = new HashSet<>();
     private DatabaseType databaseType = null;
@@ -67,12 +83,22 @@ public abstract class Database {
     private String characterSet = "";
     private boolean transactional;
     private boolean secureQuery = true;
+    private int batchSize = 100;
+    private boolean nativeUpsert;
+    private int fetchSize = 1000;
+    private int migrationThreads = 1;
     private int maximumPoolSize;
     private long connectionTimeout;
     private long idleTimeout;
     private long maxLifeTime;
     private int minimumIdle;
     private BiConsumer<String, PrimaryConstraintWrapper> handleConstraints;
+    private volatile AsyncDatabase asyncDatabase;
+    private volatile WriteQueue writeQueue;
+    private final ThreadLocal<UnitOfWork> unitOfWork = new ThreadLocal<>();
+    private final ThreadLocal<AtomicBoolean> writeFailed = new ThreadLocal<>();
+    private final Map<String, EntityCache> entityCaches = new ConcurrentHashMap<>();
+    private final QueryMonitor queryMonitor = new QueryMonitor();
 
     /**
      * The  database instance.
@@ -194,6 +220,12 @@ public abstract class Database {
         }
         try {
             createAllTablesIfNotExist(connection);
+            if (this.getMigrationThreads() > 1 && tablesCache.size() > 1) {
+                closeConnection(connection);
+                connection = null;
+                this.migrateTablesInParallel();
+                return;
+            }
             try {
                 for (final Entry<String, SqlQueryTable> entityTables : tablesCache.entrySet()) {
                     final List<String> columns = updateTableColumnsInDb(connection, entityTables.getKey());
@@ -207,6 +239,55 @@ public abstract class Database {
         }
     }
 
+    /**
+     * Updates the columns of every table on its own thread and connection, so a slow
+     * migration of one table does not hold back the others.
+     */
+    private void migrateTablesInParallel() {
+        final int threads = Math.min(this.getMigrationThreads(), tablesCache.size());
+        final ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            final Thread thread = new Thread(runnable, "database-migration-" + this.getDatabaseType());
+            thread.setDaemon(true);
+            return thread;
+        });
+        final List<Future<?>> migrations = new ArrayList<>();
+        for (final SqlQueryTable queryTable : tablesCache.values()) {
+            migrations.add(executor.submit(() -> this.migrateTable(queryTable)));
+        }
+        executor.shutdown();
+        RuntimeException failure = null;
+        for (final Future<?> migration : migrations) {
+            try {
+                migration.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                executor.shutdownNow();
+                return;
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException && failure == null)
+                    failure = (RuntimeException) e.getCause();
+                else
+                    log.log(Level.WARNING, e.getCause(), () -> "Fail to update columns in your table.");
+            }
+        }
+        if (failure != null)
+            throw failure;
+    }
+
+    private void migrateTable(final SqlQueryTable queryTable) {
+        final Connection connection = this.attemptToConnect();
+        if (connection == null)
+            return;
+        try {
+            final List<String> columns = updateTableColumnsInDb(connection, queryTable.getTableName());
+            this.createMissingColumns(connection, queryTable, columns);
+        } catch (final SQLException throwable) {
+            log.log(throwable, () -> "Fail to update columns in the table " + queryTable.getTableName());
+        } finally {
+            closeConnection(connection);
+        }
+    }
+
     /**
      * Saves all rows to the specified database table, based on the provided primary key and associated data.
      * <p>&nbsp;</p>
@@ -329,6 +410,26 @@ public abstract class Database {
         throw new UnsupportedOperationException("This function is not implemented for this database type yet." + this);
     }
 
+    /**
+     * Creates a write-behind saver for the table, that only writes the values that
+     * changed since they were last saved. See {@link WriteBehindSaver} for how to mark
+     * values dirty and when they are written.
+     * <p>
+     * <strong>Note:</strong> This method currently supports only SQL databases.
+     * </p>
+     *
+     * @param tableName The name of the target table.
+     * @param saveSetup A consumer that configures the save, the same as for {@link #save(String, Map, Consumer)}.
+     * @param <K>       The type of keys used in your cache map.
+     * @param <V>       The type of values, which must implement {@link ConfigurationSerializable}.
+     * @return a {@link WriteBehindSaver} instance for the table.
+     * @throws UnsupportedOperationException if this method is not overridden or does not implement support for this option.
+     */
+    @Nonnull
+    public <K, V extends ConfigurationSerializable> WriteBehindSaver<K, V> writeBehind(@Nonnull final String tableName, @Nonnull final Consumer<SaveSetup<K, V>> saveSetup) {
+        throw new UnsupportedOperationException("This function is not implemented for this database type yet." + this);
+    }
+
     /**
      * Load all rows from specified database table.
      *
@@ -340,6 +441,84 @@ public abstract class Database {
     @Nullable
     public abstract <T extends ConfigurationSerializable> List<LoadDataWrapper<T>> loadAll(@Nonnull final String tableName, @Nonnull final Class<T> clazz);
 
+    /**
+     * Load all rows from specified database table, one row at a time. Every row is
+     * deserialized and given to the consumer while the table is read, so the whole
+     * table is never kept in memory. Use this for large tables.
+     * <p>
+     * The rows are fetched from the database in chunks of {@link #getFetchSize()}.
+     * The connection is kept until all rows are read, so do not run other
+     * queries from the consumer.
+     * </p>
+     *
+     * @param tableName name of the table you want to get data from.
+     * @param clazz     the class you have your static deserialize method.
+     * @param consumer  the consumer that gets every loaded row.
+     * @param <T>       the type of ConfigurationSerialize instance.
+     * @return the amount of rows loaded, or -1 if the table could not be found.
+     * @throws UnsupportedOperationException if this method is not overridden or does not implement support for this option.
+     */
+    public <T extends ConfigurationSerializable> int loadAll(@Nonnull final String tableName, @Nonnull final Class<T> clazz, @Nonnull final Consumer<LoadDataWrapper<T>> consumer) {
+        throw new UnsupportedOperationException("This function is not implemented for this database type yet." + this);
+    }
+
+    /**
+     * Load the rows from specified database table one page at a time, sorted by the
+     * primary columns. Every page after the first starts after the last primary key
+     * of the page before, so deep pages are as fast to load as the first one.
+     *
+     * @param tableName name of the table you want to get data from.
+     * @param clazz     the class you have your static deserialize method.
+     * @param pageSize  the max amount of rows on each page.
+     * @param <T>       the type of ConfigurationSerialize instance.
+     * @return the pages, or null if the table could not be found. Close it if you stop before the last page.
+     * @throws UnsupportedOperationException if this method is not overridden or does not implement support for this option.
+     */
+    @Nullable
+    public <T extends ConfigurationSerializable> PageIterator<LoadDataWrapper<T>> loadPages(@Nonnull final String tableName, @Nonnull final Class<T> clazz, final int pageSize) {
+        return this.loadPages(tableName, clazz, pageSize, null);
+    }
+
+    /**
+     * Load the rows from specified database table one page at a time, starting after the
+     * row with the primary key. See {@link #loadPages(String, Class, int)}.
+     *
+     * @param tableName name of the table you want to get data from.
+     * @param clazz     the class you have your static deserialize method.
+     * @param pageSize  the max amount of rows on each page.
+     * @param afterKey  the primary key of the row to start after, like {@link PageIterator#getLastKey()}
+     *                  or {@link LoadDataWrapper#getPrimaryValues()}. If null it starts from the first row.
+     * @param <T>       the type of ConfigurationSerialize instance.
+     * @return the pages, or null if the table could not be found. Close it if you stop before the last page.
+     * @throws UnsupportedOperationException if this method is not overridden or does not implement support for this option.
+     */
+    @Nullable
+    public <T extends ConfigurationSerializable> PageIterator<LoadDataWrapper<T>> loadPages(@Nonnull final String tableName, @Nonnull final Class<T> clazz, final int pageSize, @Nullable final Map<String, Object> afterKey) {
+        throw new UnsupportedOperationException("This function is not implemented for this database type yet." + this);
+    }
+
+    /**
+     * Load one page of rows from specified database table, starting after the row with the
+     * primary key. Use this from menus, where the next page is loaded when the player clicks,
+     * and keep the primary key of the last row on the page for the next call.
+     *
+     * @param tableName name of the table you want to get data from.
+     * @param clazz     the class you have your static deserialize method.
+     * @param pageSize  the max amount of rows on the page.
+     * @param afterKey  the primary key of the row to start after, or null for the first page.
+     * @param <T>       the type of ConfigurationSerialize instance.
+     * @return the rows on the page, or an empty list if there are no more rows or the table could not be found.
+     * @throws UnsupportedOperationException if this method is not overridden or does not implement support for this option.
+     */
+    @Nonnull
+    public <T extends ConfigurationSerializable> List<LoadDataWrapper<T>> loadPage(@Nonnull final String tableName, @Nonnull final Class<T> clazz, final int pageSize, @Nullable final Map<String, Object> afterKey) {
+        try (PageIterator<LoadDataWrapper<T>> pages = this.loadPages(tableName, clazz, pageSize, afterKey)) {
+            if (pages == null || !pages.hasNext())
+                return new ArrayList<>();
+            return pages.next();
+        }
+    }
+
     /**
      * Loads a single row from the specified database table.
      *
@@ -377,6 +556,10 @@ public abstract class Database {
 
     /**
      * Remove all rows from specified database table.
+     * <p>
+     * With {@link #isSecureQuery()} enabled, the values are removed with chunked
+     * {@code WHERE pk IN (...)} statements in one transaction.
+     * </p>
      *
      * @param tableName name of the table you want to get data from.
      * @param values    the list of primary key values you want to remove from database.
@@ -385,6 +568,7 @@ public abstract class Database {
         final BatchExecutor<DataWrapper> batchExecutor;
         Connection connection = this.attemptToConnect();
         if (connection == null) {
+            this.markWriteFailed();
             return;
         }
 
@@ -396,10 +580,15 @@ public abstract class Database {
 
         final SqlQueryTable table = this.getTableFromName(tableName);
         if (table == null) {
+            this.markWriteFailed();
             this.log.log(Level.WARNING, () -> "Could not find this table:'" + tableName + "' when attempting to remove your list of primary values. Did you register your table?");
             return;
         }
-        batchExecutor.removeAll(tableName, values, table::createWhereClauseFromPrimaryColumns);
+        if (this.secureQuery)
+            batchExecutor.removeAllByPrimaryKey(tableName, values);
+        else
+            batchExecutor.removeAll(tableName, values, table::createWhereClauseFromPrimaryColumns);
+        values.forEach(value -> this.invalidateCache(tableName, value));
     }
 
     /**
@@ -412,6 +601,7 @@ public abstract class Database {
         BatchExecutor<DataWrapper> batchExecutor;
         Connection connection = this.attemptToConnect();
         if (connection == null) {
+            this.markWriteFailed();
             return;
         }
 
@@ -423,10 +613,12 @@ public abstract class Database {
         final SqlQueryTable table = this.getTableFromName(tableName);
 
         if (table == null) {
+            this.markWriteFailed();
             this.log.log(Level.WARNING, () -> "Could not find this table:'" + tableName + "' when attempting to remove your list of primary values. Did you register your table?");
             return;
         }
         batchExecutor.remove(tableName, value, table::createWhereClauseFromPrimaryColumns);
+        this.invalidateCache(tableName, value);
     }
 
     /**
@@ -439,6 +631,7 @@ public abstract class Database {
         BatchExecutor<DataWrapper> batchExecutor;
         Connection connection = this.attemptToConnect();
         if (connection == null) {
+            this.markWriteFailed();
             return;
         }
         if (this.secureQuery)
@@ -449,10 +642,12 @@ public abstract class Database {
         final SqlQueryTable table = this.getTableFromName(tableName);
 
         if (table == null) {
+            this.markWriteFailed();
             this.log.log(Level.WARNING, () -> "Could not find this table:'" + tableName + "' when attempting to remove your list of primary values. Did you register your table?");
             return;
         }
         batchExecutor.remove(tableName, whereClause);
+        this.invalidateCache(tableName);
     }
 
     /**
@@ -474,6 +669,7 @@ public abstract class Database {
         }
 
         batchExecutor.dropTable(tableName);
+        this.invalidateCache(tableName);
     }
 
     /**
@@ -634,6 +830,7 @@ public abstract class Database {
             queryBuilder.select(ColumnManager.of().add(Column.of("*"))).from(tableName);
             final String queryAllColumns = queryBuilder.build();
             statement = connection.prepareStatement(queryAllColumns);
+            statement.setMaxRows(1);
             rs = statement.executeQuery();
             final ResultSetMetaData rsmd = rs.getMetaData();
             final int columnCount = rsmd.getColumnCount();
@@ -784,7 +981,12 @@ public abstract class Database {
      */
     @Nullable
     public Connection attemptToConnect() {
+        final UnitOfWork unit = this.unitOfWork.get();
+        if (unit != null)
+            return unit.getConnection();
+        final long start = this.queryMonitor.start();
         Connection connection = this.connect();
+        this.queryMonitor.recordConnection(start);
         if (hasConnectionFailed()) {
             this.printFailConnect();
             if (connection == null) {
@@ -796,6 +998,127 @@ public abstract class Database {
         return connection;
     }
 
+    /**
+     * Runs the operations on one connection and in one transaction, that is committed
+     * when the consumer returns. If any of the operations fails, or the consumer throws,
+     * all changes are rolled back.
+     * <p>
+     * All saves, loads and removes called on this database from the same thread use the
+     * pinned connection, also when not called through the {@link UnitOfWork}. If a unit
+     * is already running on this thread, the operations join it instead of starting a new one.
+     * </p>
+     *
+     * @param work the operations to run.
+     * @return true if the changes were committed, false if they were rolled back or no connection could be opened.
+     */
+    public boolean inTransaction(@Nonnull final Consumer<UnitOfWork> work) {
+        final UnitOfWork current = this.unitOfWork.get();
+        if (current != null) {
+            work.accept(current);
+            return !current.isRollbackOnly();
+        }
+        final Connection connection = this.attemptToConnect();
+        if (connection == null)
+            return false;
+
+        UnitOfWork unit = null;
+        try {
+            try {
+                unit = new UnitOfWork(this, connection);
+            } catch (SQLException e) {
+                log.log(Level.WARNING, e, () -> "Could not start the transaction.");
+                return false;
+            }
+            this.unitOfWork.set(unit);
+            try {
+                work.accept(unit);
+            } catch (RuntimeException e) {
+                unit.setRollbackOnly();
+                unit.complete();
+                throw e;
+            }
+            return unit.complete();
+        } finally {
+            this.unitOfWork.remove();
+            this.closeConnection(connection);
+            if (unit != null)
+                unit.getWrittenTables().forEach(this::invalidateCache);
+        }
+    }
+
+    /**
+     * Marks the transaction started with {@link #inTransaction(Consumer)} on this thread as
+     * rollback only, and the write run by the {@link WriteQueue} as failed. The writes call
+     * this when a row fails and the error is only logged, so the transaction is not committed
+     * with rows missing. Does nothing outside a transaction or write queue.
+     */
+    public void markWriteFailed() {
+        final UnitOfWork unit = this.unitOfWork.get();
+        if (unit != null)
+            unit.setRollbackOnly();
+        final AtomicBoolean failed = this.writeFailed.get();
+        if (failed != null)
+            failed.set(true);
+    }
+
+    /**
+     * Runs the write on this thread and checks if any of the rows failed, see {@link #markWriteFailed()}.
+     *
+     * @param write the write to run.
+     * @return true if no row failed.
+     */
+    boolean runWrite(@Nonnull final Runnable write) {
+        final AtomicBoolean previous = this.writeFailed.get();
+        final AtomicBoolean failed = new AtomicBoolean();
+        this.writeFailed.set(failed);
+        try {
+            write.run();
+        } finally {
+            if (previous != null) {
+                this.writeFailed.set(previous);
+                if (failed.get())
+                    previous.set(true);
+            } else {
+                this.writeFailed.remove();
+            }
+        }
+        return !failed.get();
+    }
+
+    /**
+     * Trying to connect to the database, with a connection that is only used to read data.
+     *
+     * @return the connection {@code null} if it fails.
+     */
+    @Nullable
+    public Connection attemptToConnectReadOnly() {
+        final UnitOfWork unit = this.unitOfWork.get();
+        if (unit != null)
+            return unit.getConnection();
+        final long start = this.queryMonitor.start();
+        Connection connection = this.connectReadOnly();
+        this.queryMonitor.recordConnection(start);
+        if (hasConnectionFailed()) {
+            this.printFailConnect();
+            if (connection == null) {
+                this.printFailToOpen();
+                return null;
+            }
+        }
+        return connection;
+    }
+
+    /**
+     * Opens a connection that is only used to read data. By default this is the same
+     * as {@link #connect()}, databases with a separate pool for reads override this.
+     *
+     * @return the connection or {@code null} if it fails.
+     */
+    @Nullable
+    public Connection connectReadOnly() {
+        return this.connect();
+    }
+
     /**
      * Checks whether a given table exists and contains a specific column.
      * <p>
@@ -948,46 +1271,179 @@ public abstract class Database {
         this.secureQuery = secureQuery;
     }
 
+    /**
+     * Retrieve the cache of built SQL text for insert, merge and replace queries.
+     *
+     * @return the SQL template cache.
+     */
+    public SqlTemplateCache getSqlTemplateCache() {
+        return sqlTemplateCache;
+    }
 
     /**
-     * Converts the data retrieved from the database and puts it into a map. Some databases
-     * may return column names in uppercase, and this method uses {@link #getColumnName(List, String)} )}
-     * to correct the keys in the map based on the column names set when you created the table.
+     * Retrieve the amount of statements added to a JDBC batch before it is
+     * sent to the database and committed.
      *
-     * @param resultSet The ResultSet object representing the cursor to retrieve the data set.
-     * @param columns   The list of columns you want to check against column names.
-     * @return A map containing the column values from the database, with corrected keys based on the
-     * column names in the TableWrapper.
-     * @throws SQLException If there is an issue reading data from the database.
+     * @return the batch size, default is 100.
      */
-    public Map<String, Object> getDataFromDB(final ResultSet resultSet, List<Column> columns) throws SQLException {
-        final ResultSetMetaData rsmd = resultSet.getMetaData();
-        final int columnCount = rsmd.getColumnCount();
-        final Map<String, Object> objectMap = new HashMap<>();
-        for (int i = 1; i <= columnCount; i++) {
-            objectMap.put(this.getColumnName(columns, rsmd.getColumnName(i)), resultSet.getObject(i));
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Set the amount of statements that are added to a JDBC batch before it is
+     * sent to the database and committed. A larger batch gives fewer round trips,
+     * but holds the transaction open for longer.
+     *
+     * @param batchSize the batch size, values below 1 will be set to 1.
+     */
+    public void setBatchSize(final int batchSize) {
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Retrieve the async executor for this database, where save, load and remove
+     * return a {@link java.util.concurrent.CompletableFuture} instead of blocking.
+     * <p>
+     * It is created on first use. Remember to call {@link AsyncDatabase#shutdown(long, java.util.concurrent.TimeUnit)}
+     * when the plugin is disabled, so all queued saves finish. A new executor is created if
+     * this is called again after it has been shut down.
+     * </p>
+     *
+     * @return the async executor.
+     */
+    public AsyncDatabase async() {
+        AsyncDatabase async = this.asyncDatabase;
+        if (async == null || async.isShutdown()) {
+            synchronized (this) {
+                async = this.asyncDatabase;
+                if (async == null || async.isShutdown()) {
+                    async = new AsyncDatabase(this);
+                    this.asyncDatabase = async;
+                }
+            }
         }
-        return objectMap;
+        return async;
     }
 
     /**
-     * Retrieves the correct column name for the given table from the TableWrapper.
-     * Some databases may return column names in uppercase, so this method allows you
-     * to fetch the column name with the appropriate casing as set in the TableWrapper.
+     * Retrieve the write queue, that runs all saves and removes on one thread and
+     * merges the saves queued for the same table. Made for SQLite and H2, where only
+     * one connection can write at a time.
+     * <p>
+     * It is created on first use. Remember to call {@link WriteQueue#shutdown(long, java.util.concurrent.TimeUnit)}
+     * when the plugin is disabled. A new queue is created if this is called again after it has been shut down.
+     * </p>
      *
-     * @param columns    The list of columns to check for a match.
-     * @param columnName The name of the column to retrieve.
-     * @return The column name with the correct case as set in the TableWrapper. If there
-     * is no matching column name in the TableWrapper, it returns the columnName
-     * you set in the second argument.
+     * @return the write queue.
      */
-    private String getColumnName(List<Column> columns, String columnName) {
-        if (!columns.isEmpty())
-            for (Column column : columns) {
-                if (column.getColumnName().equalsIgnoreCase(columnName)) return column.getColumnName();
+    public WriteQueue writeQueue() {
+        WriteQueue queue = this.writeQueue;
+        if (queue == null || queue.isShutdown()) {
+            synchronized (this) {
+                queue = this.writeQueue;
+                if (queue == null || queue.isShutdown()) {
+                    queue = new WriteQueue(this);
+                    this.writeQueue = queue;
+                }
             }
+        }
+        return queue;
+    }
+
+    /**
+     * Retrieve the amount of rows fetched from the database at a time, when
+     * the rows are streamed with {@link #loadAll(String, Class, Consumer)}.
+     *
+     * @return the fetch size, default is 1000.
+     */
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    /**
+     * Set the amount of rows fetched from the database at a time, when
+     * the rows are streamed. A lower value uses less memory, but more
+     * round trips to the database.
+     *
+     * @param fetchSize the fetch size, values below 1 will be set to 1.
+     */
+    public void setFetchSize(final int fetchSize) {
+        this.fetchSize = Math.max(1, fetchSize);
+    }
+
+    /**
+     * Retrieve the max amount of tables migrated at the same time by
+     * {@link #createTables(BiConsumer)}.
+     *
+     * @return the amount of threads, default is 1.
+     */
+    public int getMigrationThreads() {
+        if (this.databaseType == DatabaseType.SQLITE)
+            return 1;
+        return migrationThreads;
+    }
+
+    /**
+     * Set the max amount of tables migrated at the same time, each table uses its own
+     * connection. This only helps if you have many tables, or tables with a lot of rows
+     * that needs new columns or primary keys. The constraint handler set in
+     * {@link #createTables(BiConsumer)} may then be called from several threads at once.
+     * <p>
+     * SQLite only allows one writer, so it always migrate one table at a time.
+     * </p>
+     *
+     * @param migrationThreads the amount of threads, values below 1 will be set to 1.
+     */
+    public void setMigrationThreads(final int migrationThreads) {
+        this.migrationThreads = Math.max(1, migrationThreads);
+    }
+
+    /**
+     * Check if rows are saved with the native upsert of the database.
+     *
+     * @return true if native upsert is used, default is false.
+     */
+    public boolean isNativeUpsert() {
+        return nativeUpsert;
+    }
+
+    /**
+     * Set if rows shall be saved with the native upsert of the database, like
+     * {@code ON DUPLICATE KEY UPDATE} for MySQL or {@code ON CONFLICT DO UPDATE}
+     * for PostgreSQL and SQLite. The row is then written with one statement,
+     * without first checking if it exists.
+     * <p>
+     * Only rows identified by the primary key use the upsert, rows saved with
+     * a custom where clause still check if the row exist first. SQLite need
+     * version 3.24 or newer. On H2 the upsert is only used when all columns are
+     * saved, as {@code MERGE INTO} can not limit the columns that are updated.
+     * </p>
+     *
+     * @param nativeUpsert true to use native upsert.
+     */
+    public void setNativeUpsert(final boolean nativeUpsert) {
+        this.nativeUpsert = nativeUpsert;
+    }
+
 
-        return columnName;
+    /**
+     * Converts the data retrieved from the database and puts it into a map. Some databases
+     * may return column names in uppercase, so the keys in the map are corrected based on
+     * the column names set when you created the table.
+     * <p>
+     * This reads the metadata of the result set every time it is called. When reading several
+     * rows, create one {@link ResultSetMapper} before the loop and use {@link ResultSetMapper#getRow(ResultSet)}.
+     * </p>
+     *
+     * @param resultSet The ResultSet object representing the cursor to retrieve the data set.
+     * @param columns   The list of columns you want to check against column names.
+     * @return A map containing the column values from the database, with corrected keys based on the
+     * column names in the TableWrapper.
+     * @throws SQLException If there is an issue reading data from the database.
+     */
+    public Map<String, Object> getDataFromDB(final ResultSet resultSet, List<Column> columns) throws SQLException {
+        return new ResultSetMapper(resultSet, columns).getRow(resultSet);
     }
 
     /**
@@ -1017,6 +1473,237 @@ public abstract class Database {
             log.log(() -> "Could not load this driver: " + path);
     }
 
+    /**
+     * Caches the rows loaded with {@link #load(String, Class, String)} from the table, so
+     * loading the same row again is a lookup in memory instead of a query. Rows saved or
+     * removed through this database are removed from the cache. See {@link EntityCache}
+     * for the rules, like changes made with your own queries.
+     *
+     * @param tableName   the table to cache.
+     * @param maximumSize the max amount of rows kept, the row used longest ago is removed first.
+     * @param expireAfter the time a row is kept after it is loaded, 0 to keep it until it is evicted or changed.
+     * @param unit        the unit of the expire time.
+     */
+    public void enableCache(@Nonnull final String tableName, final int maximumSize, final long expireAfter, @Nonnull final TimeUnit unit) {
+        this.entityCaches.put(tableName, new EntityCache(maximumSize, expireAfter, unit));
+    }
+
+    /**
+     * Stops caching the table and removes the cached rows.
+     *
+     * @param tableName the table to stop caching.
+     */
+    public void disableCache(@Nonnull final String tableName) {
+        this.entityCaches.remove(tableName);
+    }
+
+    /**
+     * Retrieve the cache for the table.
+     *
+     * @param tableName the cached table.
+     * @return the cache, or null if caching is not enabled for the table.
+     */
+    @Nullable
+    public EntityCache getCache(@Nonnull final String tableName) {
+        return this.entityCaches.get(tableName);
+    }
+
+    /**
+     * Retrieve the hit and miss statistics for the cache of the table.
+     *
+     * @param tableName the cached table.
+     * @return the statistics, or null if caching is not enabled for the table.
+     */
+    @Nullable
+    public CacheStats getCacheStats(@Nonnull final String tableName) {
+        final EntityCache cache = this.entityCaches.get(tableName);
+        return cache != null ? cache.getStats() : null;
+    }
+
+    /**
+     * Removes all cached rows for the table. Call this after you changed the
+     * table with your own queries.
+     *
+     * @param tableName the table that was changed.
+     */
+    public void invalidateCache(@Nonnull final String tableName) {
+        final UnitOfWork unit = this.unitOfWork.get();
+        if (unit != null)
+            unit.addWrittenTable(tableName);
+        final EntityCache cache = this.entityCaches.get(tableName);
+        if (cache != null)
+            cache.invalidateAll();
+    }
+
+    /**
+     * Removes the cached row with the primary value.
+     *
+     * @param tableName    the table that was changed.
+     * @param primaryValue the primary value of the changed row.
+     */
+    public void invalidateCache(@Nonnull final String tableName, @Nonnull final Object primaryValue) {
+        final UnitOfWork unit = this.unitOfWork.get();
+        if (unit != null)
+            unit.addWrittenTable(tableName);
+        final EntityCache cache = this.entityCaches.get(tableName);
+        if (cache != null)
+            cache.invalidate(String.valueOf(primaryValue));
+    }
+
+    /**
+     * Removes the saved rows from the cache of the table. If the primary value of a row
+     * can not be found, all rows of the table are removed from the cache.
+     *
+     * @param tableName    the table the rows was saved to.
+     * @param dataWrappers the saved rows.
+     */
+    protected void invalidateCachedRows(@Nonnull final String tableName, @Nonnull final List<DataWrapper> dataWrappers) {
+        if (this.entityCaches.get(tableName) == null) {
+            this.invalidateCache(tableName);
+            return;
+        }
+        final SqlQueryTable table = this.getTableFromName(tableName);
+        for (DataWrapper dataWrapper : dataWrappers) {
+            final Object primaryValue = table != null ? this.getCacheKey(table, dataWrapper) : null;
+            if (primaryValue == null) {
+                this.invalidateCache(tableName);
+                return;
+            }
+            this.invalidateCache(tableName, primaryValue);
+        }
+    }
+
+    /**
+     * Loads the row from the cache of the table, or with the loader if it is not cached.
+     * The cache is not used inside {@link #inTransaction(Consumer)}, as the rows there
+     * may not be committed yet.
+     *
+     * @param tableName   the table to load the row from.
+     * @param clazz       the class the row is deserialized to.
+     * @param columnValue the primary value of the row.
+     * @param loader      loads the row from the database.
+     * @param <T>         the type of the deserialized class.
+     * @return the loaded row, or null if it is not found.
+     */
+    @Nullable
+    protected <T extends ConfigurationSerializable> LoadDataWrapper<T> loadThroughCache(@Nonnull final String tableName, @Nonnull final Class<T> clazz, @Nonnull final String columnValue,
+                                                                                       @Nonnull final Supplier<LoadDataWrapper<T>> loader) {
+        final EntityCache cache = this.entityCaches.get(tableName);
+        if (cache == null || this.unitOfWork.get() != null)
+            return loader.get();
+        final LoadDataWrapper<T> cached = cache.get(columnValue, clazz);
+        if (cached != null)
+            return cached;
+        final long version = cache.getVersion();
+        final LoadDataWrapper<T> loaded = loader.get();
+        if (loaded != null)
+            cache.put(columnValue, clazz, loaded, version);
+        return loaded;
+    }
+
+    /**
+     * Retrieve the values of all primary columns for the row, read from the primary
+     * wrapper, the write context or the serialized data, in that order.
+     *
+     * @param table       the table the row is saved to.
+     * @param dataWrapper the data for the row.
+     * @return the primary values in the same order as the primary columns, or null if the
+     * table has no primary column or any of the values is not set.
+     */
+    @Nullable
+    List<Object> getPrimaryKey(@Nonnull final SqlQueryTable table, @Nonnull final DataWrapper dataWrapper) {
+        final List<TableColumn> primaryColumns = table.getPrimaryColumns();
+        if (primaryColumns.isEmpty())
+            return null;
+        Map<String, Object> serialized = null;
+        final List<Object> primaryKey = new ArrayList<>(primaryColumns.size());
+        for (TableColumn primaryColumn : primaryColumns) {
+            final String columnName = primaryColumn.getColumnName();
+            Object primaryValue = dataWrapper.getPrimaryWrapper().getPrimaryKeys().get(columnName);
+            if (primaryValue == null)
+                primaryValue = dataWrapper.getWriteContext().getValue(columnName);
+            if (primaryValue == null && dataWrapper.getConfigurationSerialize() != null) {
+                if (serialized == null)
+                    serialized = dataWrapper.getConfigurationSerialize().serialize();
+                primaryValue = serialized.get(columnName);
+            }
+            if (primaryValue == null)
+                return null;
+            primaryKey.add(primaryValue);
+        }
+        return primaryKey;
+    }
+
+    @Nullable
+    private Object getCacheKey(@Nonnull final SqlQueryTable table, @Nonnull final DataWrapper dataWrapper) {
+        final List<TableColumn> primaryColumns = table.getPrimaryColumns();
+        if (primaryColumns.isEmpty())
+            return null;
+        final String columnName = primaryColumns.get(0).getColumnName();
+        Object primaryValue = dataWrapper.getPrimaryWrapper().getPrimaryKeys().get(columnName);
+        if (primaryValue == null)
+            primaryValue = dataWrapper.getWriteContext().getValue(columnName);
+        if (primaryValue == null && dataWrapper.getConfigurationSerialize() != null)
+            primaryValue = dataWrapper.getConfigurationSerialize().serialize().get(columnName);
+        return primaryValue;
+    }
+
+    /**
+     * Retrieve a snapshot of the connection pool, with the amount of active, idle and
+     * waiting connections and how long it takes to get a connection.
+     * <p>
+     * Note: Does currently only works with this connection pool {@link HikariCP}.
+     *
+     * @return the pool metrics, or {@code null} if no connection pool is used or it is not created yet.
+     */
+    @Nullable
+    public PoolMetrics getPoolMetrics() {
+        return null;
+    }
+
+    /**
+     * Set the listener that gets the time spent on every statement, batch, commit
+     * and connection. Use {@link QueryMetrics} to collect histograms, or your own
+     * listener to send the times to your metrics system.
+     *
+     * @param listener the listener, or null to stop timing the statements.
+     */
+    public void setMetricsListener(@Nullable final QueryMetricsListener listener) {
+        this.queryMonitor.setListener(listener);
+    }
+
+    /**
+     * Retrieve the listener that gets the times of the statements.
+     *
+     * @return the listener, or null if none is set.
+     */
+    @Nullable
+    public QueryMetricsListener getMetricsListener() {
+        return this.queryMonitor.getListener();
+    }
+
+    /**
+     * Set the time a statement, batch, commit or wait for a connection may take
+     * before it is logged as a warning, with the query and the amount of bound parameters.
+     *
+     * @param threshold the threshold, 0 or lower to turn it off.
+     * @param unit      the unit of the threshold.
+     */
+    public void setSlowQueryThreshold(final long threshold, @Nonnull final TimeUnit unit) {
+        this.queryMonitor.setSlowQueryThreshold(threshold, unit);
+    }
+
+    /**
+     * Retrieve the monitor that times the statements, used by the classes that
+     * run the queries.
+     *
+     * @return the query monitor for this database.
+     */
+    @Nonnull
+    public QueryMonitor getQueryMonitor() {
+        return queryMonitor;
+    }
+
     /**
      * Retrieve the current maximum size of the connection pool.
      *
@@ -1139,7 +1826,8 @@ public abstract class Database {
      * <p>
      * The target class must implement {@link ConfigurationSerializable} and provide
      * either a static {@code deserialize(Map<String, Object>)} method or a static
-     * {@code valueOf(Map<String, Object>)} method for reconstruction.
+     * {@code valueOf(Map<String, Object>)} method for reconstruction. The method is looked up
+     * once per class, or you can register your own with {@link DeserializerRegistry#register(Class, java.util.function.Function)}.
      *
      * @param <T>            the type of object to deserialize, which must extend {@link ConfigurationSerializable}.
      * @param clazz          the class type to instantiate (must extend {@link ConfigurationSerializable}).
@@ -1147,10 +1835,7 @@ public abstract class Database {
      * @return an instance of {@code T} populated from the serialized data.
      */
     public <T extends ConfigurationSerializable> T deSerialize(@Nonnull final Class<T> clazz, @Nonnull final Map<String, Object> serializedData) {
-        Method deserializeMethod = MethodReflectionUtils.getMethod(clazz, "deserialize", Map.class);
-        if (deserializeMethod == null)
-            deserializeMethod = MethodReflectionUtils.getMethod(clazz, "valueOf", Map.class);
-        return MethodReflectionUtils.invokeStaticMethod(clazz, deserializeMethod, serializedData);
+        return DeserializerRegistry.deserialize(clazz, serializedData);
     }
 
     /**
@@ -0,0 +1,156 @@
+package org.broken.arrow.library.database.core;
+
+import org.broken.arrow.library.database.builders.LoadDataWrapper;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A read-through cache for the rows of one table, keyed by the primary value used in
+ * {@link Database#load(String, Class, String)}.
+ * <p>
+ * When the cache is full, the row that was used longest ago is removed. Rows older than
+ * the expire time are loaded again from the database. Saves and removes through the
+ * {@link Database} remove the changed rows from the cache, but changes made with your
+ * own queries or from other servers are only seen when the row expires, or after
+ * {@link Database#invalidateCache(String)}.
+ * </p>
+ * <p>
+ * The cached objects are shared between all callers, so do not change them. Load the
+ * row, change a copy and save it instead.
+ * </p>
+ */
+public class EntityCache {
+    private final Map<String, CachedRow> rows = new LinkedHashMap<>(16, 0.75F, true);
+    private final int maximumSize;
+    private final long expireAfterNanos;
+    private long version;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    /**
+     * Creates the cache.
+     *
+     * @param maximumSize the max amount of rows kept in the cache.
+     * @param expireAfter the time a row is kept after it is loaded, 0 or lower to keep it until it is evicted or changed.
+     * @param unit        the unit of the expire time.
+     */
+    public EntityCache(final int maximumSize, final long expireAfter, @Nonnull final TimeUnit unit) {
+        this.maximumSize = Math.max(1, maximumSize);
+        this.expireAfterNanos = expireAfter > 0 ? unit.toNanos(expireAfter) : 0;
+    }
+
+    /**
+     * Retrieve the cached row.
+     *
+     * @param key   the primary value of the row.
+     * @param clazz the class the row was deserialized to.
+     * @param <T>   the type of the deserialized class.
+     * @return the cached row, or null if it is not cached, has expired or was loaded as another class.
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public synchronized <T> LoadDataWrapper<T> get(@Nonnull final String key, @Nonnull final Class<T> clazz) {
+        final CachedRow row = this.rows.get(key);
+        if (row == null || row.clazz != clazz) {
+            this.missCount++;
+            return null;
+        }
+        if (this.expireAfterNanos > 0 && System.nanoTime() - row.loadedAt > this.expireAfterNanos) {
+            this.rows.remove(key);
+            this.missCount++;
+            return null;
+        }
+        this.hitCount++;
+        return (LoadDataWrapper<T>) row.value;
+    }
+
+    /**
+     * Retrieve the version of the cache, it changes every time a row is invalidated.
+     * Take it before the row is read from the database, and give it to
+     * {@link #put(String, Class, LoadDataWrapper, long)}.
+     *
+     * @return the current version.
+     */
+    public synchronized long getVersion() {
+        return this.version;
+    }
+
+    /**
+     * Caches the row, if no row has been invalidated since the version was taken. Otherwise
+     * the row may have been read before a save was committed, and is not cached.
+     *
+     * @param key     the primary value of the row.
+     * @param clazz   the class the row was deserialized to.
+     * @param value   the loaded row.
+     * @param version the version from {@link #getVersion()} taken before the row was read.
+     */
+    public synchronized void put(@Nonnull final String key, @Nonnull final Class<?> clazz, @Nonnull final LoadDataWrapper<?> value, final long version) {
+        if (version != this.version)
+            return;
+        this.rows.put(key, new CachedRow(clazz, value, System.nanoTime()));
+        if (this.rows.size() <= this.maximumSize)
+            return;
+        final Iterator<CachedRow> eldest = this.rows.values().iterator();
+        while (this.rows.size() > this.maximumSize && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+            this.evictionCount++;
+        }
+    }
+
+    /**
+     * Removes the row from the cache.
+     *
+     * @param key the primary value of the row.
+     */
+    public synchronized void invalidate(@Nonnull final String key) {
+        this.version++;
+        this.rows.remove(key);
+    }
+
+    /**
+     * Removes all rows from the cache.
+     */
+    public synchronized void invalidateAll() {
+        this.version++;
+        this.rows.clear();
+    }
+
+    /**
+     * Retrieve the amount of rows in the cache, this may include expired rows
+     * that are not used yet.
+     *
+     * @return the amount of cached rows.
+     */
+    public synchronized int size() {
+        return this.rows.size();
+    }
+
+    /**
+     * Take a snapshot of the hit and miss statistics.
+     *
+     * @return the statistics for this cache.
+     */
+    @Nonnull
+    public synchronized CacheStats getStats() {
+        return new CacheStats(this.hitCount, this.missCount, this.evictionCount, this.rows.size());
+    }
+
+    private static class CachedRow {
+        private final Class<?> clazz;
+        private final LoadDataWrapper<?> value;
+        private final long loadedAt;
+
+        private CachedRow(final Class<?> clazz, final LoadDataWrapper<?> value, final long loadedAt) {
+            this.clazz = clazz;
+            this.value = value;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
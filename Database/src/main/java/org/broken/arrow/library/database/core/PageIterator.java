@@ -0,0 +1,204 @@
+package org.broken.arrow.library.database.core;
+
+import org.broken.arrow.library.database.construct.query.QueryBuilder;
+import org.broken.arrow.library.database.construct.query.builder.clause.KeysetBuilder;
+import org.broken.arrow.library.database.construct.query.QueryModifier;
+import org.broken.arrow.library.database.utility.query.build.ResultSetMapper;
+import org.broken.arrow.library.logging.Logging;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.logging.Level;
+
+/**
+ * Reads a query one page at a time with keyset pagination, see {@link QueryModifier#seek(Consumer)}.
+ * <p>
+ * The connection and the prepared statement for the next page are kept until the last
+ * page is read, so every page after the first only sets the key of the last row and runs
+ * the same statement again. Close the iterator if you stop before the last page, or use
+ * it in a try-with-resources block.
+ * </p>
+ * <p>
+ * Do not keep the iterator open between player actions, like clicks in a menu. Store
+ * {@link #getLastKey()} instead, and start a new iterator after that key when the next
+ * page is needed.
+ * </p>
+ *
+ * @param <T> the type every row is mapped to.
+ */
+public class PageIterator<T> implements Iterator<List<T>>, AutoCloseable {
+    private final Logging log = new Logging(PageIterator.class);
+    private final Database database;
+    private final QueryBuilder queryBuilder;
+    private final Map<String, String> columnNameLookup;
+    private final Function<Map<String, Object>, T> rowMapper;
+    private final Map<Integer, Object> values;
+    private final List<String> keyColumns;
+    private final int pageSize;
+    private Connection connection;
+    private PreparedStatement nextPageStatement;
+    private String nextPageQuery;
+    private Object[] lastKey;
+    private List<T> page;
+    private boolean lastPage;
+
+    /**
+     * Creates the iterator, the connection is opened when the first page is read.
+     *
+     * @param database         the database to read from.
+     * @param queryBuilder     the select query, with keyset pagination set.
+     * @param columnNameLookup the column names keyed by the name in lowercase, see {@link ResultSetMapper#createNameLookup(List)}.
+     * @param rowMapper        the function that maps every row to the returned type.
+     * @param afterKey         the key of the row to start after, or null to start from the first page.
+     */
+    PageIterator(@Nonnull final Database database, @Nonnull final QueryBuilder queryBuilder, @Nonnull final Map<String, String> columnNameLookup,
+                 @Nonnull final Function<Map<String, Object>, T> rowMapper, @Nullable final Map<String, Object> afterKey) {
+        final KeysetBuilder keysetBuilder = queryBuilder.getQueryModifier().getKeysetBuilder();
+        if (!keysetBuilder.isSet())
+            throw new IllegalStateException("Keyset pagination must be set with key columns and a page size, before the query can be paged.");
+        this.database = database;
+        this.queryBuilder = queryBuilder;
+        this.columnNameLookup = columnNameLookup;
+        this.rowMapper = rowMapper;
+        this.values = queryBuilder.getValues();
+        this.keyColumns = keysetBuilder.getKeyColumns();
+        this.pageSize = keysetBuilder.getPageSize();
+        if (afterKey != null && !afterKey.isEmpty())
+            this.lastKey = this.keyColumns.stream().map(afterKey::get).toArray();
+    }
+
+    /**
+     * Check if there is one more page with at least one row. This reads the page
+     * from the database, if it is not read yet.
+     *
+     * @return true if {@link #next()} returns a page.
+     */
+    @Override
+    public boolean hasNext() {
+        if (this.page == null && !this.lastPage)
+            this.page = this.readPage();
+        return this.page != null && !this.page.isEmpty();
+    }
+
+    /**
+     * Retrieve the next page.
+     *
+     * @return the rows on the page, never empty.
+     * @throws NoSuchElementException if there are no more rows.
+     */
+    @Override
+    public List<T> next() {
+        if (!this.hasNext())
+            throw new NoSuchElementException("There are no more pages.");
+        final List<T> rows = this.page;
+        this.page = null;
+        return rows;
+    }
+
+    /**
+     * Retrieve the key of the last row read, use it to continue after this row later.
+     *
+     * @return the key column names and values, or an empty map if no row is read yet.
+     */
+    @Nonnull
+    public Map<String, Object> getLastKey() {
+        if (this.lastKey == null)
+            return Collections.emptyMap();
+        final Map<String, Object> key = new LinkedHashMap<>();
+        for (int i = 0; i < this.keyColumns.size(); i++) {
+            key.put(this.keyColumns.get(i), this.lastKey[i]);
+        }
+        return key;
+    }
+
+    /**
+     * Closes the statement and gives back the connection. This is done by itself
+     * when the last page is read.
+     */
+    @Override
+    public void close() {
+        this.lastPage = true;
+        if (this.nextPageStatement != null) {
+            try {
+                this.nextPageStatement.close();
+            } catch (SQLException e) {
+                log.log(Level.WARNING, e, () -> "Could not close the statement for the next page.");
+            }
+            this.nextPageStatement = null;
+        }
+        if (this.connection != null) {
+            this.database.closeConnection(this.connection);
+            this.connection = null;
+        }
+    }
+
+    private List<T> readPage() {
+        final List<T> rows = new ArrayList<>();
+        try {
+            if (this.connection == null) {
+                this.connection = this.database.attemptToConnectReadOnly();
+                if (this.connection == null) {
+                    this.close();
+                    return rows;
+                }
+            }
+            if (this.lastKey == null) {
+                final String query = this.queryBuilder.build();
+                try (PreparedStatement statement = this.connection.prepareStatement(query)) {
+                    this.readRows(statement, query, rows);
+                }
+            } else {
+                if (this.nextPageStatement == null) {
+                    this.nextPageQuery = this.queryBuilder.buildNextPage();
+                    this.nextPageStatement = this.connection.prepareStatement(this.nextPageQuery);
+                }
+                this.readRows(this.nextPageStatement, this.nextPageQuery, rows);
+            }
+        } catch (SQLException e) {
+            log.log(Level.WARNING, e, () -> "Could not read the next page from the table '" + this.queryBuilder.getQueryModifier().getTable() + "'.");
+            rows.clear();
+        }
+        if (rows.size() < this.pageSize)
+            this.close();
+        return rows;
+    }
+
+    private void readRows(final PreparedStatement statement, final String query, final List<T> rows) throws SQLException {
+        int index = 1;
+        for (Object value : this.values.values()) {
+            statement.setObject(index++, value);
+        }
+        if (this.lastKey != null) {
+            for (Object value : this.lastKey) {
+                statement.setObject(index++, value);
+            }
+        }
+        final long start = this.database.getQueryMonitor().start();
+        try (ResultSet resultSet = statement.executeQuery()) {
+            this.database.getQueryMonitor().recordQuery(query, start);
+            final ResultSetMapper mapper = new ResultSetMapper(resultSet, this.columnNameLookup);
+            final Object[] key = new Object[this.keyColumns.size()];
+            while (resultSet.next()) {
+                for (int i = 0; i < key.length; i++) {
+                    key[i] = resultSet.getObject(this.keyColumns.get(i));
+                }
+                rows.add(this.rowMapper.apply(mapper.getRow(resultSet)));
+            }
+            if (!rows.isEmpty())
+                this.lastKey = key;
+        }
+    }
+}
@@ -9,6 +9,7 @@ import org.broken.arrow.library.database.builders.tables.SqlQueryTable;
 import org.broken.arrow.library.database.builders.wrappers.LoadSetup;
 import org.broken.arrow.library.database.builders.wrappers.query.QueryLoader;
 import org.broken.arrow.library.database.builders.wrappers.query.QuerySaver;
+import org.broken.arrow.library.database.builders.wrappers.query.WriteBehindSaver;
 import org.broken.arrow.library.database.builders.wrappers.SaveSetup;
 import org.broken.arrow.library.database.construct.query.QueryBuilder;
 import org.broken.arrow.library.database.construct.query.builder.comparison.ComparisonHandler;
@@ -17,6 +18,7 @@ import org.broken.arrow.library.database.construct.query.builder.clause.wherebui
 import org.broken.arrow.library.database.construct.query.columnbuilder.Column;
 import org.broken.arrow.library.database.construct.query.utlity.QueryDefinition;
 import org.broken.arrow.library.database.utility.*;
+import org.broken.arrow.library.database.utility.query.build.ResultSetMapper;
 import org.broken.arrow.library.serialize.utility.serialize.ConfigurationSerializable;
 import org.broken.arrow.library.logging.Logging;
 import org.broken.arrow.library.logging.Validate;
@@ -28,6 +30,7 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -75,10 +78,18 @@ public abstract class SQLDatabaseQuery extends Database {
      */
     @Override
     public void saveAll(@Nonnull final String tableName, @Nonnull final List<DataWrapper> dataWrapperList, final boolean shallUpdate, String... columns) {
+        SqlQueryTable table = getDatabase().getTableFromName(tableName);
+
+        if (table == null) {
+            this.markWriteFailed();
+            this.log.log(Level.WARNING, () -> "Could not find this table:'" + tableName + "' . Did you register your table?");
+            return;
+        }
         final Connection connection = getDatabase().attemptToConnect();
         final BatchExecutor<DataWrapper> batchExecutor;
 
         if (connection == null) {
+            this.markWriteFailed();
             getDatabase().printFailToOpen();
             return;
         }
@@ -87,14 +98,9 @@ public abstract class SQLDatabaseQuery extends Database {
         else {
             batchExecutor = new BatchExecutorUnsafe<>(getDatabase(), connection, dataWrapperList);
         }
-        SqlQueryTable table = getDatabase().getTableFromName(tableName);
-
-        if (table == null) {
-            this.log.log(Level.WARNING, () -> "Could not find this table:'" + tableName + "' . Did you register your table?");
-            return;
-        }
 
         batchExecutor.saveAll(tableName, shallUpdate, columns);
+        this.invalidateCachedRows(tableName, dataWrapperList);
     }
 
     /**
@@ -112,10 +118,23 @@ public abstract class SQLDatabaseQuery extends Database {
      */
     @Override
     public void save(@Nonnull final String tableName, @Nonnull final DataWrapper dataWrapper, final boolean shallUpdate, String... columns) {
+        SqlQueryTable table = this.getTableFromName(tableName);
+        if (table == null) {
+            this.markWriteFailed();
+            this.log.log(Level.WARNING, () -> "Could not find this table:'" + tableName + "' . Did you register your table?");
+            return;
+        }
+        final Object primaryValue = dataWrapper.getPrimaryValue();
+        if (table.getPrimaryColumns().isEmpty() || primaryValue.toString().isEmpty()) {
+            this.markWriteFailed();
+            this.log.log(Level.WARNING, () -> "Could not find any set where clause for this table:'" + tableName + "' . Did you set a primary key for at least 1 column?");
+            return;
+        }
         final Connection connection = this.attemptToConnect();
         final BatchExecutor<DataWrapper> batchExecutor;
 
         if (connection == null) {
+            this.markWriteFailed();
             printFailToOpen();
             return;
         }
@@ -125,16 +144,6 @@ public abstract class SQLDatabaseQuery extends Database {
         else {
             batchExecutor = new BatchExecutorUnsafe<>(this, connection, new ArrayList<>());
         }
-        SqlQueryTable table = this.getTableFromName(tableName);
-        if (table == null) {
-            this.log.log(Level.WARNING, () -> "Could not find this table:'" + tableName + "' . Did you register your table?");
-            return;
-        }
-        final Object primaryValue = dataWrapper.getPrimaryValue();
-        if (table.getPrimaryColumns().isEmpty() || primaryValue.toString().isEmpty()) {
-            this.log.log(Level.WARNING, () -> "Could not find any set where clause for this table:'" + tableName + "' . Did you set a primary key for at least 1 column?");
-            return;
-        }
 
         batchExecutor.save(tableName, dataWrapper, shallUpdate, where -> {
             final WhereClauseFunction whereClause = dataWrapper.getPrimaryWrapper().getWhereClause();
@@ -142,6 +151,7 @@ public abstract class SQLDatabaseQuery extends Database {
                 return whereClause.apply(where);
             return table.createWhereClauseFromPrimaryColumns(where, primaryValue);
         }, columns);
+        this.invalidateCachedRows(tableName, Collections.singletonList(dataWrapper));
     }
 
     /**
@@ -164,6 +174,21 @@ public abstract class SQLDatabaseQuery extends Database {
         return new QuerySaver<>(this, tableName, cacheToSave, saveSetup);
     }
 
+    /**
+     * Returns a {@link WriteBehindSaver} that only writes the changed values of a map.
+     *
+     * @param tableName the table name.
+     * @param saveSetup the consumer to configure the save setup.
+     * @param <K>       the key type of the cache.
+     * @param <V>       the type of objects to save, which must be {@link ConfigurationSerializable}.
+     * @return a new {@link WriteBehindSaver} instance for the table.
+     */
+    @Nonnull
+    @Override
+    public <K, V extends ConfigurationSerializable> WriteBehindSaver<K, V> writeBehind(@Nonnull final String tableName, @Nonnull final Consumer<SaveSetup<K, V>> saveSetup) {
+        return new WriteBehindSaver<>(this, tableName, saveSetup);
+    }
+
     /**
      * Loads all rows from the specified table and deserializes them into objects of type {@code T}.
      * <p>
@@ -179,36 +204,119 @@ public abstract class SQLDatabaseQuery extends Database {
     @Override
     @Nullable
     public <T extends ConfigurationSerializable> List<LoadDataWrapper<T>> loadAll(@Nonnull final String tableName, @Nonnull final Class<T> clazz) {
+        final List<LoadDataWrapper<T>> loadDataWrappers = new ArrayList<>();
+        if (this.loadAll(tableName, clazz, loadDataWrappers::add) < 0)
+            return null;
+        return loadDataWrappers;
+    }
+
+    /**
+     * Loads all rows from the specified table, and gives every deserialized row to the consumer
+     * while the result is read.
+     * <p>
+     * The rows are fetched in chunks of {@link #getFetchSize()}. On PostgreSQL the fetch size is
+     * only used with auto-commit turned off, so it is turned off while the rows are read. On MySQL
+     * the rows are streamed one by one from the server.
+     * </p>
+     *
+     * @param tableName the name of the table to load data from.
+     * @param clazz     the class of the objects to deserialize into.
+     * @param consumer  the consumer that gets every loaded row.
+     * @param <T>       the type of the deserialized objects.
+     * @return the amount of rows loaded, or -1 if the table is not found.
+     */
+    @Override
+    public <T extends ConfigurationSerializable> int loadAll(@Nonnull final String tableName, @Nonnull final Class<T> clazz, @Nonnull final Consumer<LoadDataWrapper<T>> consumer) {
         final SqlQueryTable table = getDatabase().getTableFromName(tableName);
 
         if (table == null) {
             getDatabase().printFailFindTable(tableName);
-            return null;
+            return -1;
+        }
+        final Connection connection = getDatabase().attemptToConnectReadOnly();
+        if (connection == null) {
+            getDatabase().printFailToOpen();
+            return 0;
         }
 
-        final List<LoadDataWrapper<T>> loadDataWrappers = new ArrayList<>();
         final String selectRow = table.selectTable();
-        this.executeQuery(QueryDefinition.of(selectRow), statementWrapper -> {
-            try (ResultSet resultSet = statementWrapper.getContextResult().executeQuery()) {
-                while (resultSet.next()) {
-                    final Map<String, Object> dataFromDB = getDatabase().getDataFromDB(resultSet, table.getTable().getColumns());
-                    final T deserialize = getDatabase().deSerialize(clazz, dataFromDB);
-                    final List<TableColumn> primaryColumns = table.getTable().getPrimaryColumns();
-                    final Map<String, Object> objectList = new HashMap<>();
-                    if (!primaryColumns.isEmpty()) {
-                        for (Column column : primaryColumns) {
-                            Object primaryValue = dataFromDB.get(column.getColumnName());
-                            objectList.put(column.getColumnName(), primaryValue);
-                        }
+        final List<TableColumn> primaryColumns = table.getTable().getPrimaryColumns();
+        final DatabaseType databaseType = getDatabase().getDatabaseType();
+        int rows = 0;
+        boolean autoCommit = true;
+        final long start = getDatabase().getQueryMonitor().start();
+        try {
+            autoCommit = connection.getAutoCommit();
+            if (databaseType == DatabaseType.POSTGRESQL && autoCommit)
+                connection.setAutoCommit(false);
+
+            try (PreparedStatement preparedStatement = connection.prepareStatement(selectRow, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                preparedStatement.setFetchSize(databaseType == DatabaseType.MYSQL ? Integer.MIN_VALUE : getDatabase().getFetchSize());
+                try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                    final ResultSetMapper mapper = new ResultSetMapper(resultSet, table.getColumnNameLookup());
+                    while (resultSet.next()) {
+                        final Map<String, Object> dataFromDB = mapper.getRow(resultSet);
+                        consumer.accept(this.toLoadDataWrapper(clazz, primaryColumns, dataFromDB));
+                        rows++;
                     }
-                    loadDataWrappers.add(new LoadDataWrapper<>(objectList, deserialize));
                 }
-            } catch (SQLException e) {
-                log.log(Level.WARNING, e, () -> "Could not load all data for this table '" + tableName + "'. Check the stacktrace.");
             }
-        });
+        } catch (SQLException e) {
+            log.log(Level.WARNING, e, () -> "Could not load all data for this table '" + tableName + "'. Check the stacktrace.");
+        } finally {
+            getDatabase().getQueryMonitor().recordQuery(selectRow, start);
+            this.restoreAutoCommit(connection, autoCommit);
+            getDatabase().closeConnection(connection);
+        }
+        return rows;
+    }
 
-        return loadDataWrappers;
+    /**
+     * Loads the rows from the specified table one page at a time with keyset pagination,
+     * sorted by the primary columns of the table.
+     *
+     * @param tableName the name of the table to load data from.
+     * @param clazz     the class of the objects to deserialize into.
+     * @param pageSize  the max amount of rows on each page.
+     * @param afterKey  the primary key of the row to start after, or null to start from the first row.
+     * @param <T>       the type of the deserialized objects.
+     * @return the pages, or null if the table is not found.
+     */
+    @Override
+    @Nullable
+    public <T extends ConfigurationSerializable> PageIterator<LoadDataWrapper<T>> loadPages(@Nonnull final String tableName, @Nonnull final Class<T> clazz, final int pageSize, @Nullable final Map<String, Object> afterKey) {
+        final SqlQueryTable table = getDatabase().getTableFromName(tableName);
+        if (table == null) {
+            getDatabase().printFailFindTable(tableName);
+            return null;
+        }
+        final List<TableColumn> primaryColumns = table.getPrimaryColumns();
+        Validate.checkBoolean(primaryColumns.isEmpty(), "Could not find any primary key for this table:'" + tableName + "' . The pages are sorted by the primary key, so set it for at least 1 column.");
+        Validate.checkBoolean(pageSize < 1, "The page size must be at least 1, but was " + pageSize);
+
+        return new PageIterator<>(this, table.selectPage(pageSize), table.getColumnNameLookup(), row -> this.toLoadDataWrapper(clazz, primaryColumns, row), afterKey);
+    }
+
+    /**
+     * Runs your select query one page at a time. The query must have keyset pagination set
+     * with {@link org.broken.arrow.library.database.construct.query.QueryModifier#seek(Consumer)},
+     * or use {@link SqlQueryTable#selectPage(int)} to page a table by its primary key.
+     *
+     * @param queryBuilder the select query to page.
+     * @param rowMapper    the function that maps every row to the returned type.
+     * @param afterKey     the key of the row to start after, or null to start from the first row.
+     *                     The column names in the rows given to the mapper has the same casing as in the
+     *                     table you added, if the query selects from it.
+     * @param <T>          the type every row is mapped to.
+     * @return the pages, close it if you stop before the last page.
+     * @throws IllegalStateException if the keyset pagination is not set on the query.
+     */
+    @Nonnull
+    public <T> PageIterator<T> pages(@Nonnull final QueryBuilder queryBuilder, @Nonnull final Function<Map<String, Object>, T> rowMapper, @Nullable final Map<String, Object> afterKey) {
+        final SqlQueryTable table = getDatabase().getTableFromName(queryBuilder.getQueryModifier().getTable());
+        final Map<String, String> columnNameLookup = table != null ? table.getColumnNameLookup() :
+                ResultSetMapper.createNameLookup(queryBuilder.getQueryModifier().getSelectBuilder().getColumns());
+        return new PageIterator<>(this, queryBuilder, columnNameLookup, rowMapper, afterKey);
     }
 
     /**
@@ -217,6 +325,10 @@ public abstract class SQLDatabaseQuery extends Database {
      * Returns a {@link LoadDataWrapper} containing the deserialized object and its key values,
      * or null if no matching record is found or the table is missing.
      * </p>
+     * <p>
+     * If the table is cached with {@link #enableCache(String, int, long, java.util.concurrent.TimeUnit)},
+     * a cached row is returned without a query.
+     * </p>
      *
      * @param tableName   the table name.
      * @param clazz       the class of the object to deserialize into.
@@ -227,6 +339,11 @@ public abstract class SQLDatabaseQuery extends Database {
     @Override
     @Nullable
     public <T extends ConfigurationSerializable> LoadDataWrapper<T> load(@Nonnull final String tableName, @Nonnull final Class<T> clazz, @Nonnull final String columnValue) {
+        return this.loadThroughCache(tableName, clazz, columnValue, () -> this.loadRow(tableName, clazz, columnValue));
+    }
+
+    @Nullable
+    private <T extends ConfigurationSerializable> LoadDataWrapper<T> loadRow(@Nonnull final String tableName, @Nonnull final Class<T> clazz, @Nonnull final String columnValue) {
         SqlQueryTable table = getDatabase().getTableFromName(tableName);
         if (table == null) {
             getDatabase().printFailFindTable(tableName);
@@ -242,7 +359,7 @@ public abstract class SQLDatabaseQuery extends Database {
 
         final SqlQueryPair selectRow = sqlHandler.selectRow(columnManger -> columnManger.addAll(table.getTable().getColumns()), whereBuilder);
 
-        this.executeQuery(QueryDefinition.of(selectRow.getQuery()), statementWrapper -> {
+        this.executeQuery(QueryDefinition.of(selectRow.getQuery()), true, statementWrapper -> {
             PreparedStatement preparedStatement = statementWrapper.getContextResult();
 
             whereBuilder.getValues().forEach((index, value) -> {
@@ -254,7 +371,7 @@ public abstract class SQLDatabaseQuery extends Database {
             });
             try (ResultSet resultSet = preparedStatement.executeQuery()) {
                 if (resultSet.next())
-                    dataFromDB.putAll(getDatabase().getDataFromDB(resultSet, table.getTable().getColumns()));
+                    dataFromDB.putAll(new ResultSetMapper(resultSet, table.getColumnNameLookup()).getRow(resultSet));
             } catch (SQLException e) {
                 log.log(Level.WARNING, e, () -> "Could not load the data from " + columnValue + ". Check the stacktrace.");
             }
@@ -324,11 +441,13 @@ public abstract class SQLDatabaseQuery extends Database {
             return null;
         }
 
+        final long start = getDatabase().getQueryMonitor().start();
         try (PreparedStatement preparedStatement = connection.prepareStatement(query)) {
             return function.apply(new StatementContext<>(preparedStatement));
         } catch (SQLException e) {
             log.log(e, () -> "could not execute this command: " + query);
         } finally {
+            getDatabase().getQueryMonitor().recordQuery(query, start);
             getDatabase().closeConnection(connection);
         }
         return null;
@@ -352,25 +471,51 @@ public abstract class SQLDatabaseQuery extends Database {
      * @param consumer     a consumer to handle the result returned by the database.
      */
     public void executeQuery(@Nonnull final QueryDefinition queryBuilder, final Consumer<StatementContext<PreparedStatement>> consumer) {
+        this.executeQuery(queryBuilder, false, consumer);
+    }
+
+    private void executeQuery(@Nonnull final QueryDefinition queryBuilder, final boolean readOnly, final Consumer<StatementContext<PreparedStatement>> consumer) {
         final String query = queryBuilder.getQuery();
 
         if (query.isEmpty()) {
             log.log(() -> "This query command is not set");
             return;
         }
-        Connection connection = getDatabase().attemptToConnect();
+        Connection connection = readOnly ? getDatabase().attemptToConnectReadOnly() : getDatabase().attemptToConnect();
         if (connection == null) {
             return;
         }
+        final long start = getDatabase().getQueryMonitor().start();
         try (PreparedStatement preparedStatement = connection.prepareStatement(query)) {
             consumer.accept(new StatementContext<>(preparedStatement));
         } catch (SQLException e) {
             log.log(e, () -> "Could not execute this command: " + query);
         } finally {
+            getDatabase().getQueryMonitor().recordQuery(query, start);
             getDatabase().closeConnection(connection);
         }
     }
 
+    private <T extends ConfigurationSerializable> LoadDataWrapper<T> toLoadDataWrapper(final Class<T> clazz, final List<TableColumn> primaryColumns, final Map<String, Object> dataFromDB) {
+        final T deserialize = getDatabase().deSerialize(clazz, dataFromDB);
+        final Map<String, Object> objectList = new HashMap<>();
+        for (Column column : primaryColumns) {
+            objectList.put(column.getColumnName(), dataFromDB.get(column.getColumnName()));
+        }
+        return new LoadDataWrapper<>(objectList, deserialize);
+    }
+
+    private void restoreAutoCommit(final Connection connection, final boolean autoCommit) {
+        try {
+            if (connection.getAutoCommit() != autoCommit) {
+                connection.commit();
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            log.log(Level.WARNING, e, () -> "Could not reset auto commit on the connection.");
+        }
+    }
+
     /**
      * Returns the current instance cast as {@link Database}.
      *
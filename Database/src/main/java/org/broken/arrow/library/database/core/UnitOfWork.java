@@ -0,0 +1,262 @@
+package org.broken.arrow.library.database.core;
+
+import org.broken.arrow.library.database.builders.DataWrapper;
+import org.broken.arrow.library.database.builders.LoadDataWrapper;
+import org.broken.arrow.library.database.construct.query.utlity.QueryDefinition;
+import org.broken.arrow.library.database.utility.StatementContext;
+import org.broken.arrow.library.logging.Logging;
+import org.broken.arrow.library.serialize.utility.serialize.ConfigurationSerializable;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+/**
+ * A sequence of database operations that share one connection and one transaction,
+ * created by {@link Database#inTransaction(Consumer)}.
+ * <p>
+ * Every save, load and remove called on this unit, or directly on the {@link Database}
+ * from the same thread, uses the pinned connection. The changes are committed once when
+ * the unit is done, or all rolled back if any of the operations fails, also when the failed
+ * row is only logged and not thrown. Operations started on other threads, like
+ * {@link Database#async()}, do not take part in the transaction.
+ * </p>
+ */
+public class UnitOfWork {
+    private final Logging log = new Logging(UnitOfWork.class);
+    private final Database database;
+    private final Connection connection;
+    private final Connection pinnedConnection;
+    private final boolean autoCommit;
+    private final Set<String> writtenTables = new HashSet<>();
+    private boolean rollbackOnly;
+
+    /**
+     * Creates the unit of work and starts the transaction on the connection.
+     *
+     * @param database   the database the unit belongs to.
+     * @param connection the connection to pin for the whole unit.
+     * @throws SQLException if the transaction could not be started.
+     */
+    UnitOfWork(@Nonnull final Database database, @Nonnull final Connection connection) throws SQLException {
+        this.database = database;
+        this.connection = connection;
+        this.autoCommit = connection.getAutoCommit();
+        this.connection.setAutoCommit(false);
+        this.pinnedConnection = this.pin(connection);
+    }
+
+    /**
+     * Saves all rows to the table, see {@link Database#saveAll(String, List, boolean, String...)}.
+     *
+     * @param tableName       the name of the table.
+     * @param dataWrapperList the rows to save.
+     * @param shallUpdate     true if existing rows shall be updated.
+     * @param columns         optional columns to update, if empty all columns are saved.
+     */
+    public void saveAll(@Nonnull final String tableName, @Nonnull final List<DataWrapper> dataWrapperList, final boolean shallUpdate, final String... columns) {
+        this.database.saveAll(tableName, dataWrapperList, shallUpdate, columns);
+    }
+
+    /**
+     * Saves one row to the table, see {@link Database#save(String, DataWrapper, boolean, String...)}.
+     *
+     * @param tableName   the name of the table.
+     * @param dataWrapper the row to save.
+     * @param shallUpdate true if the row shall be updated if it exist.
+     * @param columns     optional columns to update, if empty all columns are saved.
+     */
+    public void save(@Nonnull final String tableName, @Nonnull final DataWrapper dataWrapper, final boolean shallUpdate, final String... columns) {
+        this.database.save(tableName, dataWrapper, shallUpdate, columns);
+    }
+
+    /**
+     * Loads all rows from the table, see {@link Database#loadAll(String, Class)}. Rows saved
+     * earlier in this unit are included, also before they are committed.
+     *
+     * @param tableName the name of the table.
+     * @param clazz     the class to deserialize the rows to.
+     * @param <T>       the type of the deserialized class.
+     * @return the loaded rows, or null if the table is not found.
+     */
+    @Nullable
+    public <T extends ConfigurationSerializable> List<LoadDataWrapper<T>> loadAll(@Nonnull final String tableName, @Nonnull final Class<T> clazz) {
+        return this.database.loadAll(tableName, clazz);
+    }
+
+    /**
+     * Loads one row from the table, see {@link Database#load(String, Class, String)}.
+     *
+     * @param tableName   the name of the table.
+     * @param clazz       the class to deserialize the row to.
+     * @param columnValue the primary value of the row.
+     * @param <T>         the type of the deserialized class.
+     * @return the loaded row, or null if the row is not found.
+     */
+    @Nullable
+    public <T extends ConfigurationSerializable> LoadDataWrapper<T> load(@Nonnull final String tableName, @Nonnull final Class<T> clazz, @Nonnull final String columnValue) {
+        return this.database.load(tableName, clazz, columnValue);
+    }
+
+    /**
+     * Removes the rows with the primary values, see {@link Database#removeAll(String, List)}.
+     *
+     * @param tableName the name of the table.
+     * @param values    the primary values for the rows to remove.
+     */
+    public void removeAll(@Nonnull final String tableName, @Nonnull final List<String> values) {
+        this.database.removeAll(tableName, values);
+    }
+
+    /**
+     * Removes the row with the primary value, see {@link Database#remove(String, String)}.
+     *
+     * @param tableName the name of the table.
+     * @param value     the primary value for the row to remove.
+     */
+    public void remove(@Nonnull final String tableName, @Nonnull final String value) {
+        this.database.remove(tableName, value);
+    }
+
+    /**
+     * Prepares the query on the pinned connection and gives it to the consumer. If the
+     * statement fails, the whole unit is rolled back.
+     *
+     * @param queryBuilder the query command you want to execute.
+     * @param consumer     a consumer to handle the prepared statement.
+     */
+    public void executeQuery(@Nonnull final QueryDefinition queryBuilder, @Nonnull final Consumer<StatementContext<PreparedStatement>> consumer) {
+        final String query = queryBuilder.getQuery();
+        final long start = this.database.getQueryMonitor().start();
+        try (PreparedStatement preparedStatement = this.connection.prepareStatement(query)) {
+            consumer.accept(new StatementContext<>(preparedStatement));
+        } catch (SQLException e) {
+            this.rollbackOnly = true;
+            log.log(e, () -> "Could not execute this command: " + query);
+        } finally {
+            this.database.getQueryMonitor().recordQuery(query, start);
+        }
+    }
+
+    /**
+     * Retrieve the pinned connection. Closing it, or calling commit on it, does nothing,
+     * the unit commits when it is done.
+     *
+     * @return the connection used for the whole unit.
+     */
+    @Nonnull
+    public Connection getConnection() {
+        return pinnedConnection;
+    }
+
+    /**
+     * Marks the unit to be rolled back instead of committed when it is done.
+     */
+    public void setRollbackOnly() {
+        this.rollbackOnly = true;
+    }
+
+    /**
+     * Check if the unit will be rolled back, because it was marked or one of the
+     * operations failed.
+     *
+     * @return true if the changes will not be committed.
+     */
+    public boolean isRollbackOnly() {
+        return rollbackOnly;
+    }
+
+    /**
+     * Remembers that rows in the table was changed, so the cached rows of the table
+     * are removed again when the unit is done.
+     *
+     * @param tableName the changed table.
+     */
+    void addWrittenTable(final String tableName) {
+        this.writtenTables.add(tableName);
+    }
+
+    /**
+     * Retrieve the tables changed in this unit.
+     *
+     * @return the changed tables.
+     */
+    Set<String> getWrittenTables() {
+        return writtenTables;
+    }
+
+    /**
+     * Commits the changes, or rolls them back if the unit is marked as rollback only,
+     * and restores the auto commit of the connection.
+     *
+     * @return true if the changes were committed.
+     */
+    boolean complete() {
+        try {
+            if (this.rollbackOnly) {
+                this.connection.rollback();
+                return false;
+            }
+            final long start = this.database.getQueryMonitor().start();
+            this.connection.commit();
+            this.database.getQueryMonitor().recordCommit(start);
+            return true;
+        } catch (SQLException e) {
+            log.log(Level.WARNING, e, () -> "Failed to commit the transaction. Rolling back changes.");
+            try {
+                this.connection.rollback();
+            } catch (SQLException rollbackEx) {
+                log.log(Level.SEVERE, rollbackEx, () -> "Failed to rollback changes after error.");
+            }
+            return false;
+        } finally {
+            try {
+                this.connection.setAutoCommit(this.autoCommit);
+            } catch (SQLException e) {
+                log.log(Level.WARNING, e, () -> "Could not reset auto commit on the connection.");
+            }
+        }
+    }
+
+    /**
+     * Wraps the connection, so the operations in the unit can not close it or end the
+     * transaction. A rollback from any of them marks the whole unit as rollback only.
+     *
+     * @param connection the connection to wrap.
+     * @return the wrapped connection.
+     */
+    private Connection pin(final Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "close":
+                case "commit":
+                case "setAutoCommit":
+                    return null;
+                case "rollback":
+                    if (args == null)
+                        this.rollbackOnly = true;
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            try {
+                return method.invoke(connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        });
+    }
+}
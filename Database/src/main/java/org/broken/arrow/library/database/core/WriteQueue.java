@@ -0,0 +1,340 @@
+package org.broken.arrow.library.database.core;
+
+import org.broken.arrow.library.database.builders.DataWrapper;
+import org.broken.arrow.library.database.builders.tables.SqlQueryTable;
+import org.broken.arrow.library.database.utility.DatabaseType;
+import org.broken.arrow.library.database.utility.RowExistenceResolver;
+import org.broken.arrow.library.logging.Logging;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+/**
+ * Runs all writes of a {@link Database} on one thread, in the order they were queued.
+ * <p>
+ * This is made for SQLite and H2, where only one connection can write at a time. When
+ * the writer is busy the saves queue up, and the next time it runs the saves queued
+ * one after another for the same table are merged into one {@link Database#saveAll(String, List, boolean, String...)}.
+ * The rows are then sent in the same JDBC batches and transaction, instead of one
+ * connection and transaction for every save. If merged saves contain the same primary
+ * key, only the row from the last save is written.
+ * </p>
+ * <p>
+ * Every write is run in {@link Database#inTransaction(java.util.function.Consumer)}, so it is
+ * either committed as a whole or not at all. The future of a save completes exceptionally if
+ * any row of the write failed, and then none of the rows are written. Saves that was merged
+ * share one write, so a failed row fails the futures of all saves merged with it. MongoDB has
+ * no transactions here, there the rows that did not fail are still written.
+ * </p>
+ * <p>
+ * Call {@link #shutdown(long, TimeUnit)} when the plugin is disabled, so all queued writes finish.
+ * </p>
+ */
+public class WriteQueue {
+    private static final int MAX_QUEUE_SIZE = 10_000;
+    private final Logging log = new Logging(WriteQueue.class);
+    private final BlockingQueue<WriteTask> pending = new LinkedBlockingQueue<>(MAX_QUEUE_SIZE);
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private final AtomicLong writeCount = new AtomicLong();
+    private final AtomicLong mergedCount = new AtomicLong();
+    private final Database database;
+    private final ExecutorService executor;
+    private volatile boolean closing;
+
+    /**
+     * Creates the write queue for the database.
+     *
+     * @param database the database to write to.
+     */
+    public WriteQueue(@Nonnull final Database database) {
+        this.database = database;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "database-writer-" + database.getDatabaseType());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queues the rows to be saved, see {@link Database#saveAll(String, List, boolean, String...)}.
+     *
+     * @param tableName       the name of the table.
+     * @param dataWrapperList the rows to save.
+     * @param shallUpdate     true if existing rows shall be updated.
+     * @param columns         optional columns to update, if empty all columns are saved.
+     * @return a future that completes when the rows are saved.
+     */
+    public CompletableFuture<Void> saveAll(@Nonnull final String tableName, @Nonnull final List<DataWrapper> dataWrapperList, final boolean shallUpdate, final String... columns) {
+        return this.submit(new WriteTask(tableName, dataWrapperList, shallUpdate, columns, null));
+    }
+
+    /**
+     * Queues one row to be saved, see {@link Database#save(String, DataWrapper, boolean, String...)}.
+     *
+     * @param tableName   the name of the table.
+     * @param dataWrapper the row to save.
+     * @param shallUpdate true if the row shall be updated if it exist.
+     * @param columns     optional columns to update, if empty all columns are saved.
+     * @return a future that completes when the row is saved.
+     */
+    public CompletableFuture<Void> save(@Nonnull final String tableName, @Nonnull final DataWrapper dataWrapper, final boolean shallUpdate, final String... columns) {
+        return this.saveAll(tableName, Collections.singletonList(dataWrapper), shallUpdate, columns);
+    }
+
+    /**
+     * Queues the rows to be removed, see {@link Database#removeAll(String, List)}.
+     *
+     * @param tableName the name of the table.
+     * @param values    the primary values for the rows to remove.
+     * @return a future that completes when the rows are removed.
+     */
+    public CompletableFuture<Void> removeAll(@Nonnull final String tableName, @Nonnull final List<String> values) {
+        return this.submit(new WriteTask(tableName, null, false, new String[0], () -> this.database.removeAll(tableName, values)));
+    }
+
+    /**
+     * Queues the row to be removed, see {@link Database#remove(String, String)}.
+     *
+     * @param tableName the name of the table.
+     * @param value     the primary value for the row to remove.
+     * @return a future that completes when the row is removed.
+     */
+    public CompletableFuture<Void> remove(@Nonnull final String tableName, @Nonnull final String value) {
+        return this.submit(new WriteTask(tableName, null, false, new String[0], () -> this.database.remove(tableName, value)));
+    }
+
+    /**
+     * Retrieve the amount of writes waiting in the queue.
+     *
+     * @return the amount of queued writes.
+     */
+    public int getQueueSize() {
+        return this.pending.size();
+    }
+
+    /**
+     * Retrieve the amount of writes sent to the database.
+     *
+     * @return the amount of writes.
+     */
+    public long getWriteCount() {
+        return this.writeCount.get();
+    }
+
+    /**
+     * Retrieve the amount of saves that was merged into an earlier save for the same table.
+     *
+     * @return the amount of merged saves.
+     */
+    public long getMergedCount() {
+        return this.mergedCount.get();
+    }
+
+    /**
+     * Check if {@link #shutdown(long, TimeUnit)} has been called.
+     *
+     * @return true if no new writes are accepted.
+     */
+    public boolean isShutdown() {
+        return this.closing || this.executor.isShutdown();
+    }
+
+    /**
+     * Stops accepting new writes and waits for the queued writes to finish. The queue
+     * is drained before the writer thread is stopped, so writes queued while a drain
+     * was running are also written.
+     *
+     * @param timeout the max time to wait.
+     * @param unit    the unit of the timeout.
+     * @return true if all writes finished before the timeout.
+     */
+    public boolean shutdown(final long timeout, @Nonnull final TimeUnit unit) {
+        this.closing = true;
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        try {
+            if (this.awaitDrained(deadline)) {
+                this.executor.shutdown();
+                if (this.executor.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS))
+                    return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        this.executor.shutdown();
+        log.log(Level.WARNING, () -> "Timed out waiting for the database writes to finish, " + this.getQueueSize() + " writes was not run.");
+        return false;
+    }
+
+    /**
+     * Waits until the queue is empty and no drain is running. A marker task is queued
+     * behind the drain on the writer thread, and this is repeated as long as the drain
+     * schedules itself again.
+     *
+     * @param deadline the {@link System#nanoTime()} to stop waiting at.
+     * @return true if the queue was drained before the deadline.
+     * @throws InterruptedException if the thread is interrupted while waiting.
+     */
+    private boolean awaitDrained(final long deadline) throws InterruptedException {
+        while (!this.pending.isEmpty() || this.drainScheduled.get()) {
+            final long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) return false;
+            try {
+                final Future<?> marker = this.executor.submit(() -> {});
+                marker.get(remaining, TimeUnit.NANOSECONDS);
+            } catch (ExecutionException | RejectedExecutionException ignore) {
+                return this.pending.isEmpty();
+            } catch (TimeoutException e) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private CompletableFuture<Void> submit(final WriteTask task) {
+        if (this.isShutdown()) {
+            task.future.completeExceptionally(new RejectedExecutionException("The write queue is shut down."));
+            return task.future;
+        }
+        if (!this.pending.offer(task)) {
+            task.future.completeExceptionally(new RejectedExecutionException("The write queue is full, " + MAX_QUEUE_SIZE + " writes is waiting."));
+            return task.future;
+        }
+        this.scheduleDrain();
+        return task.future;
+    }
+
+    private void scheduleDrain() {
+        if (!this.drainScheduled.compareAndSet(false, true))
+            return;
+        try {
+            this.executor.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            this.drainScheduled.set(false);
+            final List<WriteTask> rejected = new ArrayList<>();
+            this.pending.drainTo(rejected);
+            rejected.forEach(task -> task.future.completeExceptionally(e));
+        }
+    }
+
+    private void drain() {
+        try {
+            final List<WriteTask> tasks = new ArrayList<>();
+            this.pending.drainTo(tasks);
+            int index = 0;
+            while (index < tasks.size()) {
+                final WriteTask first = tasks.get(index++);
+                final List<WriteTask> merged = new ArrayList<>();
+                merged.add(first);
+                while (index < tasks.size() && first.canMerge(tasks.get(index))) {
+                    merged.add(tasks.get(index++));
+                }
+                this.run(merged);
+            }
+        } finally {
+            this.drainScheduled.set(false);
+            if (!this.pending.isEmpty())
+                this.scheduleDrain();
+        }
+    }
+
+    private void run(final List<WriteTask> tasks) {
+        final WriteTask first = tasks.get(0);
+        try {
+            final boolean written;
+            if (first.action != null) {
+                written = this.write(first.action);
+            } else if (tasks.size() == 1) {
+                written = this.write(() -> this.database.saveAll(first.tableName, first.dataWrappers, first.shallUpdate, first.columns));
+            } else {
+                final List<DataWrapper> dataWrappers = this.mergeRows(first.tableName, tasks);
+                written = this.write(() -> this.database.saveAll(first.tableName, dataWrappers, first.shallUpdate, first.columns));
+                this.mergedCount.addAndGet(tasks.size() - 1L);
+            }
+            this.writeCount.incrementAndGet();
+            if (written) {
+                tasks.forEach(task -> task.future.complete(null));
+            } else {
+                final IllegalStateException failed = new IllegalStateException("Could not write all rows to the table: " + first.tableName + ", the failed rows are logged.");
+                tasks.forEach(task -> task.future.completeExceptionally(failed));
+            }
+        } catch (RuntimeException e) {
+            log.log(Level.WARNING, e, () -> "Failed to write to the table: " + first.tableName);
+            tasks.forEach(task -> task.future.completeExceptionally(e));
+        }
+    }
+
+    /**
+     * Runs the write in one transaction and checks if it was committed without any failed row.
+     *
+     * @param write the write to run.
+     * @return true if all rows was written.
+     */
+    private boolean write(final Runnable write) {
+        if (this.database.getDatabaseType() == DatabaseType.MONGO_DB)
+            return this.database.runWrite(write);
+        final AtomicBoolean committed = new AtomicBoolean();
+        final boolean written = this.database.runWrite(() -> committed.set(this.database.inTransaction(unit -> write.run())));
+        return written && committed.get();
+    }
+
+    /**
+     * Joins the rows of the merged saves. If several rows have the same primary key, only
+     * the last one is kept, at the place of the first one, so the newest value is written
+     * and the rows are not inserted twice. Rows without a known primary key are all kept.
+     *
+     * @param tableName the table the rows are saved to.
+     * @param tasks     the merged saves, in the order they were queued.
+     * @return the rows to save.
+     */
+    private List<DataWrapper> mergeRows(final String tableName, final List<WriteTask> tasks) {
+        final SqlQueryTable table = this.database.getTableFromName(tableName);
+        final Map<Object, DataWrapper> rows = new LinkedHashMap<>();
+        for (WriteTask task : tasks) {
+            for (DataWrapper dataWrapper : task.dataWrappers) {
+                final List<Object> primaryKey = table != null ? this.database.getPrimaryKey(table, dataWrapper) : null;
+                rows.put(primaryKey != null ? RowExistenceResolver.toKey(primaryKey) : new Object(), dataWrapper);
+            }
+        }
+        return new ArrayList<>(rows.values());
+    }
+
+    private static class WriteTask {
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+        private final String tableName;
+        private final List<DataWrapper> dataWrappers;
+        private final boolean shallUpdate;
+        private final String[] columns;
+        private final Runnable action;
+
+        private WriteTask(final String tableName, final List<DataWrapper> dataWrappers, final boolean shallUpdate, final String[] columns, final Runnable action) {
+            this.tableName = tableName;
+            this.dataWrappers = dataWrappers;
+            this.shallUpdate = shallUpdate;
+            this.columns = columns;
+            this.action = action;
+        }
+
+        private boolean canMerge(final WriteTask other) {
+            return this.action == null && other.action == null && this.tableName.equals(other.tableName) &&
+                    this.shallUpdate == other.shallUpdate && Arrays.equals(this.columns, other.columns);
+        }
+    }
+}
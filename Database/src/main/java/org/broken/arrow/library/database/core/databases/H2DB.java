@@ -1,12 +1,16 @@
 package org.broken.arrow.library.database.core.databases;
 
 import org.broken.arrow.library.database.builders.ConnectionSettings;
+import org.broken.arrow.library.database.connection.EmbeddedConnectionPool;
 import org.broken.arrow.library.database.connection.HikariCP;
+import org.broken.arrow.library.database.connection.PoolMetrics;
 import org.broken.arrow.library.database.core.SQLDatabaseQuery;
 import org.broken.arrow.library.database.utility.DatabaseCommandConfig;
+import org.broken.arrow.library.database.utility.DatabaseType;
 import org.broken.arrow.library.logging.Logging;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.io.File;
 import java.sql.Connection;
 import java.sql.DriverManager;
@@ -26,6 +30,7 @@ public class H2DB extends SQLDatabaseQuery {
     private final boolean isHikariAvailable;
     private final File dbFile;
     private HikariCP hikari;
+    private volatile EmbeddedConnectionPool connectionPool;
     private boolean hasCastException;
 
     /**
@@ -61,7 +66,7 @@ public class H2DB extends SQLDatabaseQuery {
 
         this.isHikariAvailable = isDriverFound(hikariClazzPath);
         this.loadDriver("org.h2.Driver");
-        connect();
+        closeConnection(connect());
     }
 
 
@@ -81,6 +86,14 @@ public class H2DB extends SQLDatabaseQuery {
         return this.isHikariAvailable;
     }
 
+    @Nullable
+    @Override
+    public PoolMetrics getPoolMetrics() {
+        if (this.hikari == null)
+            return null;
+        return this.hikari.getPoolMetrics();
+    }
+
 
     @Nonnull
     @Override
@@ -109,7 +122,10 @@ public class H2DB extends SQLDatabaseQuery {
     public Connection setupConnection() throws SQLException {
         Connection connection;
 
-        if (this.isHikariAvailable) {
+        final EmbeddedConnectionPool pool = this.connectionPool;
+        if (pool != null) {
+            connection = pool.getWriteConnection();
+        } else if (this.isHikariAvailable) {
             if (this.hikari == null) hikari = new HikariCP(this, "org.h2.Driver");
             connection = this.hikari.getFileConnection("jdbc:h2:");
         } else {
@@ -119,6 +135,58 @@ public class H2DB extends SQLDatabaseQuery {
         return connection;
     }
 
+    @Override
+    public Connection connectReadOnly() {
+        final EmbeddedConnectionPool pool = this.connectionPool;
+        if (pool == null)
+            return this.connect();
+        try {
+            final Connection connection = pool.getReadConnection();
+            hasCastException = false;
+            return connection;
+        } catch (SQLException e) {
+            this.hasCastException = true;
+            log.log(e, () -> "Fail to open a read connection to the H2 database.");
+        }
+        return null;
+    }
+
+    /**
+     * Use one long-lived write connection and a small pool of read connections, instead of
+     * opening a new connection for every query. Only one thread can write at a time, other
+     * threads wait for the write connection instead of failing on a locked database.
+     * <p>
+     * Use {@link #writeQueue()} to queue the saves on one thread, so saves queued at the
+     * same time are written together.
+     * </p>
+     *
+     * @param readConnections the max amount of read connections, if 0 the reads also use the write connection.
+     */
+    public void enableSingleWriterPool(final int readConnections) {
+        this.disableSingleWriterPool();
+        this.connectionPool = new EmbeddedConnectionPool(DatabaseType.H2, "jdbc:h2:" + this.dbFile.getPath(), readConnections, this.getConnectionTimeout());
+    }
+
+    /**
+     * Closes the write and read connections opened by {@link #enableSingleWriterPool(int)},
+     * new connections are opened the same way as before the pool was enabled.
+     */
+    public void disableSingleWriterPool() {
+        if (this.connectionPool == null)
+            return;
+        this.connectionPool.close();
+        this.connectionPool = null;
+    }
+
+    /**
+     * Check if the single writer pool is used.
+     *
+     * @return true if {@link #enableSingleWriterPool(int)} is used.
+     */
+    public boolean isSingleWriterPool() {
+        return this.connectionPool != null;
+    }
+
     @Override
     public boolean hasConnectionFailed() {
         return this.hasCastException;
@@ -1,17 +1,23 @@
 package org.broken.arrow.library.database.core.databases;
 
 import com.mongodb.ConnectionString;
+import com.mongodb.MongoBulkWriteException;
 import com.mongodb.MongoClientSettings;
 import com.mongodb.ServerApi;
 import com.mongodb.ServerApiVersion;
+import com.mongodb.bulk.BulkWriteError;
 import com.mongodb.client.FindIterable;
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoClients;
 import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
 import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.BulkWriteOptions;
 import com.mongodb.client.model.Filters;
-import com.mongodb.client.model.Updates;
-import com.mongodb.client.result.UpdateResult;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.WriteModel;
 import org.broken.arrow.library.database.builders.ConnectionSettings;
 import org.broken.arrow.library.database.builders.DataWrapper;
 import org.broken.arrow.library.database.builders.LoadDataWrapper;
@@ -19,6 +25,7 @@ import org.broken.arrow.library.database.builders.tables.SqlQueryTable;
 import org.broken.arrow.library.database.construct.query.columnbuilder.Column;
 import org.broken.arrow.library.database.construct.query.utlity.QueryDefinition;
 import org.broken.arrow.library.database.core.Database;
+import org.broken.arrow.library.database.core.UnitOfWork;
 import org.broken.arrow.library.database.utility.DatabaseCommandConfig;
 import org.broken.arrow.library.database.utility.StatementContext;
 import org.broken.arrow.library.serialize.utility.serialize.ConfigurationSerializable;
@@ -30,10 +37,15 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.sql.Connection;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.logging.Level;
@@ -61,12 +73,16 @@ import java.util.logging.Level;
  */
 public class MongoDB extends Database {
 
+    private static final UpdateOptions UPSERT = new UpdateOptions().upsert(true);
+    private static final BulkWriteOptions UNORDERED = new BulkWriteOptions().ordered(false);
     private final Logging log = new Logging(MongoDB.class);
+    private final Map<String, Set<String>> columnNames = new ConcurrentHashMap<>();
     private final String startSQLUrl;
     private final String driver;
     private final ConnectionSettings preferences;
     private MongoClient mongoClient;
     private boolean isClosed;
+    private volatile boolean projection;
 
     /**
      * Creates a new MongoDB instance with the given connection settings.
@@ -90,19 +106,20 @@ public class MongoDB extends Database {
     public void saveAll(@Nonnull final String tableName, @Nonnull final List<DataWrapper> dataWrapperList, final boolean shallUpdate, final String... columns) {
         final SqlQueryTable sqlQueryTable = this.getTableFromName(tableName);
         if (sqlQueryTable == null) {
+            this.markWriteFailed();
             this.printFailFindTable(tableName);
             return;
         }
         if (!openMongo()) {
+            this.markWriteFailed();
             errorCouldConnect();
             return;
         }
 
         MongoDatabase database = mongoClient.getDatabase(preferences.getDatabaseName());
         MongoCollection<Document> collection = database.getCollection(tableName);
-        for (DataWrapper dataWrapper : dataWrapperList) {
-            saveData(dataWrapper, sqlQueryTable, collection);
-        }
+        saveData(dataWrapperList, sqlQueryTable, collection, shallUpdate ? columns : new String[0]);
+        this.invalidateCachedRows(tableName, dataWrapperList);
 
         // Close the MongoDB connection
         this.closeConnection();
@@ -117,14 +134,20 @@ public class MongoDB extends Database {
     public void save(@Nonnull final String tableName, @Nonnull final DataWrapper dataWrapper, final boolean shallUpdate, String... columns) {
         SqlQueryTable tableWrapper = this.getTableFromName(tableName);
         if (tableWrapper == null) {
+            this.markWriteFailed();
             this.printFailFindTable(tableName);
             return;
         }
-        if (isClosed()) return;
+        if (!openMongo()) {
+            this.markWriteFailed();
+            errorCouldConnect();
+            return;
+        }
         MongoDatabase database = mongoClient.getDatabase(preferences.getDatabaseName());
         MongoCollection<Document> collection = database.getCollection(tableName);
 
-        saveData(dataWrapper, tableWrapper, collection);
+        saveData(Collections.singletonList(dataWrapper), tableWrapper, collection, shallUpdate ? columns : new String[0]);
+        this.invalidateCachedRows(tableName, Collections.singletonList(dataWrapper));
 
         // Close the MongoDB connection
         this.closeConnection();
@@ -133,51 +156,73 @@ public class MongoDB extends Database {
     @Nullable
     @Override
     public <T extends ConfigurationSerializable> List<LoadDataWrapper<T>> loadAll(@Nonnull final String tableName, @Nonnull final Class<T> clazz) {
+        final List<LoadDataWrapper<T>> loadDataWrappers = new ArrayList<>();
+        if (this.loadAll(tableName, clazz, loadDataWrappers::add) < 0)
+            return null;
+        return loadDataWrappers;
+    }
+
+    @Override
+    public <T extends ConfigurationSerializable> int loadAll(@Nonnull final String tableName, @Nonnull final Class<T> clazz, @Nonnull final Consumer<LoadDataWrapper<T>> consumer) {
+        return this.loadAll(tableName, clazz, new Document(), consumer);
+    }
+
+    /**
+     * Load the documents that match the filter from the collection, one document at a time.
+     * The documents are read with a cursor in batches of {@link #getFetchSize()}, and
+     * deserialized directly from the {@link Document}, so the whole collection is never
+     * kept in memory.
+     * <p>
+     * If {@link #isProjection()} is enabled, only the fields that match the columns of the
+     * registered table are fetched.
+     * </p>
+     *
+     * @param tableName the name of the collection you want to get data from.
+     * @param clazz     the class you have your static deserialize method.
+     * @param filter    the filter for the documents to load, use an empty {@link Document} to load all.
+     * @param consumer  the consumer that gets every loaded document.
+     * @param <T>       the type of ConfigurationSerialize instance.
+     * @return the amount of documents loaded, or -1 if the table could not be found or the connection failed.
+     */
+    public <T extends ConfigurationSerializable> int loadAll(@Nonnull final String tableName, @Nonnull final Class<T> clazz, @Nonnull final Bson filter, @Nonnull final Consumer<LoadDataWrapper<T>> consumer) {
         SqlQueryTable sqlQueryTable = this.getTableFromName(tableName);
         if (sqlQueryTable == null) {
             this.printFailFindTable(tableName);
-            return null;
+            return -1;
         }
         if (!openMongo()) {
             errorCouldConnect();
-            return null;
+            return -1;
         }
 
-        final List<LoadDataWrapper<T>> loadDataWrappers = new ArrayList<>();
+        int loaded = 0;
         MongoDatabase database = mongoClient.getDatabase(preferences.getDatabaseName());
-        // Retrieve data from MongoDB
         MongoCollection<Document> collection = database.getCollection(tableName);
-
-        Document query = new Document(); // Replace with your specific query if needed
-        FindIterable<Document> documents = collection.find(query);
-        // Check if documents has results
-        if (documents.iterator().hasNext()) {
-            // Iterate over the documents and process each document
-            for (Document document : documents) {
-                Object id = document.get("_id");
-
-                Map<String, Object> resultMap = new HashMap<>();
-                for (Map.Entry<String, Object> entry : document.entrySet()) {
-                    String key = entry.getKey();
-                    Object value = entry.getValue();
-                    resultMap.put(key, value);
-
-                }
-                T deserialize = this.deSerialize(clazz, resultMap);
-                Map<String, Object> map = new HashMap<>();
-                map.put("id", id);
-                loadDataWrappers.add(new LoadDataWrapper<>(map, deserialize));
+        FindIterable<Document> documents = collection.find(filter).batchSize(this.getFetchSize());
+        if (this.projection)
+            documents.projection(Projections.include(new ArrayList<>(getColumnNames(sqlQueryTable))));
+
+        try (MongoCursor<Document> cursor = documents.iterator()) {
+            while (cursor.hasNext()) {
+                consumer.accept(toLoadDataWrapper(clazz, cursor.next()));
+                loaded++;
             }
-        } else {
-            log.log(() -> "Could not find any row within this table " + tableName);
+        } finally {
+            this.closeConnection();
         }
-        this.closeConnection();
-        return loadDataWrappers;
+        if (loaded == 0)
+            log.log(() -> "Could not find any row within this table " + tableName);
+        return loaded;
     }
 
     @Nullable
     @Override
     public <T extends ConfigurationSerializable> LoadDataWrapper<T> load(@Nonnull final String tableName, @Nonnull final Class<T> clazz, @Nonnull final String columnValue) {
+        return this.loadThroughCache(tableName, clazz, columnValue, () -> this.loadDocument(tableName, clazz, columnValue));
+    }
+
+    @Nullable
+    private <T extends ConfigurationSerializable> LoadDataWrapper<T> loadDocument(@Nonnull final String tableName, @Nonnull final Class<T> clazz, @Nonnull final String columnValue) {
         SqlQueryTable tableWrapper = this.getTableFromName(tableName);
         if (tableWrapper == null) {
             this.printFailFindTable(tableName);
@@ -192,25 +237,12 @@ public class MongoDB extends Database {
         MongoDatabase database = mongoClient.getDatabase(preferences.getDatabaseName());
         MongoCollection<Document> collection = database.getCollection(tableName);
 
-        Document query = new Document();
-        query.append("_id", columnValue);
-        FindIterable<Document> documents = collection.find(query);
-        if (documents.iterator().hasNext()) {
-            for (Document document : documents) {
-                Object id = document.get("_id");
-                if (!columnValue.equals(id)) continue;
-
-                Map<String, Object> resultMap = new HashMap<>();
-                for (Map.Entry<String, Object> entry : document.entrySet()) {
-                    String key = entry.getKey();
-                    Object value = entry.getValue();
-                    resultMap.put(key, value);
-                }
-                T deserialize = this.deSerialize(clazz, resultMap);
-                Map<String, Object> map = new HashMap<>();
-                map.put("id", id);
-                loadDataWrapper = new LoadDataWrapper<>(map, deserialize);
-            }
+        FindIterable<Document> documents = collection.find(Filters.eq("_id", columnValue));
+        if (this.projection)
+            documents.projection(Projections.include(new ArrayList<>(getColumnNames(tableWrapper))));
+        Document document = documents.first();
+        if (document != null) {
+            loadDataWrapper = toLoadDataWrapper(clazz, document);
         } else {
             log.log(() -> "Could not find any row with this value " + columnValue);
         }
@@ -325,6 +357,18 @@ public class MongoDB extends Database {
         throw new UnsupportedOperationException("This function is not implemented for this database type." + this);
     }
 
+    /**
+     * Runs the operations in one transaction.
+     * <p>
+     * This operation is not supported for MongoDB and will throw an exception.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public boolean inTransaction(@Nonnull final Consumer<UnitOfWork> work) {
+        throw new UnsupportedOperationException("This function is not implemented for this database type." + this);
+    }
+
     /**
      * Opens the MongoDB connection if it is closed.
      *
@@ -369,6 +413,27 @@ public class MongoDB extends Database {
         return false;
     }
 
+    /**
+     * Check if only the fields that match the columns of the registered table
+     * are fetched, when documents are loaded.
+     *
+     * @return true if the fields are projected, default is false.
+     */
+    public boolean isProjection() {
+        return projection;
+    }
+
+    /**
+     * Set if only the fields that match the columns of the registered table are
+     * fetched, when documents are loaded. Only enable this if your deserialize method
+     * does not need fields that are not registered as columns.
+     *
+     * @param projection true to only fetch the registered columns.
+     */
+    public void setProjection(final boolean projection) {
+        this.projection = projection;
+    }
+
     /**
      * Logs a warning indicating that the connection to MongoDB could not be established.
      */
@@ -377,52 +442,117 @@ public class MongoDB extends Database {
     }
 
     /**
-     * Saves the given {@link DataWrapper} to the specified MongoDB collection.
-     * Updates the document if it exists, otherwise inserts a new document.
+     * Saves the given {@link DataWrapper} list to the specified MongoDB collection.
+     * <p>
+     * Every object is turned into one {@code $set} document and sent as an upsert, so
+     * the document is updated if it exists, otherwise inserted. When only some columns
+     * shall be updated, the other columns are put in {@code $setOnInsert}, so a new
+     * document still gets all columns while an existing document only gets the listed ones. The upserts are sent
+     * with {@link MongoCollection#bulkWrite(List, BulkWriteOptions)} unordered and in
+     * chunks of {@link #getBatchSize()}, so one failed document does not stop the rest.
+     * </p>
      *
-     * @param dataWrapper  the data wrapper containing data to save
+     * @param dataWrappers the data wrappers containing data to save
      * @param tableWrapper the SQL query table metadata
      * @param collection   the MongoDB collection to save into
+     * @param columns      the columns to update, or empty to save all columns
      */
-    private void saveData(final DataWrapper dataWrapper, final SqlQueryTable tableWrapper, final MongoCollection<Document> collection) {
-        Object primaryValue = dataWrapper.getPrimaryValue();
-        Document document;
-        Bson filter;
-        if (primaryValue != null) {
-            document = new Document("_id", primaryValue);
-            filter = Filters.eq("_id", primaryValue);
-        } else {
-            final Map<String, Object> primaries = dataWrapper.getPrimaryWrapper().getPrimaryKeys();
-            document = new Document(primaries);
-            filter = Filters.eq("_id", document);
+    private void saveData(final List<DataWrapper> dataWrappers, final SqlQueryTable tableWrapper, final MongoCollection<Document> collection, final String... columns) {
+        final Set<String> columnNameSet = getColumnNames(tableWrapper);
+        final Set<String> updateColumns = columns.length > 0 ? new HashSet<>(Arrays.asList(columns)) : null;
+        final int chunkSize = this.getBatchSize();
+        final List<WriteModel<Document>> models = new ArrayList<>(Math.min(chunkSize, dataWrappers.size()));
+
+        for (DataWrapper dataWrapper : dataWrappers) {
+            final Document setDocument = new Document();
+            final Document insertDocument = new Document();
+            for (Entry<String, Object> entry : dataWrapper.getConfigurationSerialize().serialize().entrySet()) {
+                final String key = entry.getKey();
+                if (!columnNameSet.contains(key))
+                    continue;
+                if (updateColumns != null && !updateColumns.contains(key))
+                    insertDocument.append(key, entry.getValue());
+                else
+                    setDocument.append(key, entry.getValue());
+            }
+            if (setDocument.isEmpty() && insertDocument.isEmpty()) continue;
+
+            final Document update = new Document();
+            if (!setDocument.isEmpty())
+                update.append("$set", setDocument);
+            if (!insertDocument.isEmpty())
+                update.append("$setOnInsert", insertDocument);
+            models.add(new UpdateOneModel<>(getFilter(dataWrapper), update, UPSERT));
+            if (models.size() >= chunkSize) {
+                bulkWrite(collection, models);
+                models.clear();
+            }
         }
+        if (!models.isEmpty())
+            bulkWrite(collection, models);
+    }
 
+    /**
+     * Deserializes the document, the document is used directly as the map of values.
+     *
+     * @param clazz    the class you have your static deserialize method
+     * @param document the loaded document
+     * @param <T>      the type of ConfigurationSerialize instance
+     * @return the data wrapper with the id and the deserialized value
+     */
+    private <T extends ConfigurationSerializable> LoadDataWrapper<T> toLoadDataWrapper(final Class<T> clazz, final Document document) {
+        T deserialize = this.deSerialize(clazz, document);
+        Map<String, Object> map = new HashMap<>();
+        map.put("id", document.get("_id"));
+        return new LoadDataWrapper<>(map, deserialize);
+    }
 
-        for (Entry<String, Object> entry : dataWrapper.getConfigurationSerialize().serialize().entrySet()) {
-            Column column = getColumn(tableWrapper, entry.getKey());
-
-            if (column == null) continue;
-            Bson updatedRow = Updates.set(entry.getKey(), entry.getValue());
-            UpdateResult updateResult = collection.updateOne(filter, updatedRow);
-            if (updateResult.getMatchedCount() == 0)
-                document.append(entry.getKey(), entry.getValue());
+    /**
+     * Sends the upserts to the collection and logs the documents that could not be written.
+     *
+     * @param collection the MongoDB collection to save into
+     * @param models     the upserts to send
+     */
+    private void bulkWrite(final MongoCollection<Document> collection, final List<WriteModel<Document>> models) {
+        try {
+            collection.bulkWrite(models, UNORDERED);
+        } catch (MongoBulkWriteException e) {
+            this.markWriteFailed();
+            for (BulkWriteError error : e.getWriteErrors()) {
+                log.log(Level.WARNING, () -> "Could not save the document at index " + error.getIndex() + " in the collection " +
+                        collection.getNamespace().getCollectionName() + ": " + error.getMessage());
+            }
         }
-        if (document.size() > 1)
-            collection.insertOne(document);
     }
 
     /**
-     * Retrieves the {@link Column} object from the table metadata for a given column name.
+     * Creates the filter that match the document for the data wrapper.
+     *
+     * @param dataWrapper the data wrapper to find the document for
+     * @return the filter on the {@code _id} field
+     */
+    private Bson getFilter(final DataWrapper dataWrapper) {
+        final Object primaryValue = dataWrapper.getPrimaryValue();
+        if (primaryValue != null)
+            return Filters.eq("_id", primaryValue);
+        final Map<String, Object> primaries = dataWrapper.getPrimaryWrapper().getPrimaryKeys();
+        return Filters.eq("_id", new Document(primaries));
+    }
+
+    /**
+     * Retrieves the names of the columns in the table metadata. The names are
+     * collected once for every table, so the lookup for every field is constant time.
      *
      * @param tableWrapper the SQL query table metadata
-     * @param columnName   the column name to look for
-     * @return the matching column or null if not found
+     * @return the set of column names
      */
-    private Column getColumn(final SqlQueryTable tableWrapper, final String columnName) {
-        for (Column colum : tableWrapper.getTable().getColumns()) {
-            if (colum.getColumnName().equals(columnName))
-                return colum;
-        }
-        return null;
+    private Set<String> getColumnNames(final SqlQueryTable tableWrapper) {
+        return columnNames.computeIfAbsent(tableWrapper.getTableName(), tableName -> {
+            final Set<String> names = new HashSet<>();
+            for (Column column : tableWrapper.getTable().getColumns()) {
+                names.add(column.getColumnName());
+            }
+            return Collections.unmodifiableSet(names);
+        });
     }
 }
@@ -2,12 +2,14 @@ package org.broken.arrow.library.database.core.databases;
 
 import org.broken.arrow.library.database.builders.ConnectionSettings;
 import org.broken.arrow.library.database.connection.HikariCP;
+import org.broken.arrow.library.database.connection.PoolMetrics;
 import org.broken.arrow.library.database.core.SQLDatabaseQuery;
 import org.broken.arrow.library.database.utility.DatabaseCommandConfig;
 import org.broken.arrow.library.logging.Logging;
 import org.broken.arrow.library.logging.Validate;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.PreparedStatement;
@@ -80,7 +82,7 @@ public class MySQL extends SQLDatabaseQuery {
         if (isHikariAvailable) {
             this.hikari = new HikariCP(this, this.driver);
         } else this.hikari = null;
-        connect();
+        closeConnection(connect());
     }
 
 
@@ -131,7 +133,7 @@ public class MySQL extends SQLDatabaseQuery {
             String user = mysqlPreference.getUser();
             String password = mysqlPreference.getPassword();
             String extra = mysqlPreference.getQuery();
-            if (extra.isEmpty()) extra = "?useSSL=false&useUnicode=yes&characterEncoding=UTF-8&autoReconnect=" + true;
+            if (extra.isEmpty()) extra = "?useSSL=false&useUnicode=yes&characterEncoding=UTF-8&rewriteBatchedStatements=true&autoReconnect=" + true;
             connection = DriverManager.getConnection(startSQLUrl + hostAddress + ":" + port + "/" + databaseName + extra, user, password);
         }
 
@@ -166,6 +168,14 @@ public class MySQL extends SQLDatabaseQuery {
         return this.isHikariAvailable;
     }
 
+    @Nullable
+    @Override
+    public PoolMetrics getPoolMetrics() {
+        if (this.hikari == null)
+            return null;
+        return this.hikari.getPoolMetrics();
+    }
+
     @Override
     public boolean hasConnectionFailed() {
         return hasCastException;
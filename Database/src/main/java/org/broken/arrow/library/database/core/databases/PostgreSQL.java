@@ -2,12 +2,14 @@ package org.broken.arrow.library.database.core.databases;
 
 import org.broken.arrow.library.database.builders.ConnectionSettings;
 import org.broken.arrow.library.database.connection.HikariCP;
+import org.broken.arrow.library.database.connection.PoolMetrics;
 import org.broken.arrow.library.database.core.SQLDatabaseQuery;
 import org.broken.arrow.library.database.utility.DatabaseCommandConfig;
 import org.broken.arrow.library.logging.Logging;
 import org.broken.arrow.library.logging.Validate;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.PreparedStatement;
@@ -188,4 +190,12 @@ public class PostgreSQL extends SQLDatabaseQuery {
     public boolean usingHikari() {
         return this.isHikariAvailable;
     }
+
+    @Nullable
+    @Override
+    public PoolMetrics getPoolMetrics() {
+        if (this.hikari == null)
+            return null;
+        return this.hikari.getPoolMetrics();
+    }
 }
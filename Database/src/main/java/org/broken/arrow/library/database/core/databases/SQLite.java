@@ -1,9 +1,12 @@
 package org.broken.arrow.library.database.core.databases;
 
 import org.broken.arrow.library.database.builders.ConnectionSettings;
+import org.broken.arrow.library.database.connection.EmbeddedConnectionPool;
 import org.broken.arrow.library.database.connection.HikariCP;
+import org.broken.arrow.library.database.connection.PoolMetrics;
 import org.broken.arrow.library.database.core.SQLDatabaseQuery;
 import org.broken.arrow.library.database.utility.DatabaseCommandConfig;
+import org.broken.arrow.library.database.utility.DatabaseType;
 import org.broken.arrow.library.logging.Logging;
 
 import javax.annotation.Nonnull;
@@ -35,6 +38,7 @@ public class SQLite extends SQLDatabaseQuery {
     private final String child;
     private final boolean isHikariAvailable;
     private HikariCP hikari;
+    private volatile EmbeddedConnectionPool connectionPool;
     private boolean hasCastException = false;
 
     /**
@@ -83,7 +87,7 @@ public class SQLite extends SQLDatabaseQuery {
         this.child = "";
         this.isHikariAvailable = isDriverFound(hikariClazzPath);
         this.loadDriver("org.sqlite.JDBC");
-        connect();
+        closeConnection(connect());
     }
 
     @Override
@@ -116,6 +120,12 @@ public class SQLite extends SQLDatabaseQuery {
     public Connection setupConnection() throws SQLException {
         Connection connection;
 
+        final EmbeddedConnectionPool pool = this.connectionPool;
+        if (pool != null) {
+            connection = pool.getWriteConnection();
+            hasCastException = false;
+            return connection;
+        }
         if (this.hikari == null)
             hikari = new HikariCP(this, "org.sqlite.JDBC");
         if (this.isHikariAvailable)
@@ -126,6 +136,58 @@ public class SQLite extends SQLDatabaseQuery {
         return connection;
     }
 
+    @Override
+    public Connection connectReadOnly() {
+        final EmbeddedConnectionPool pool = this.connectionPool;
+        if (pool == null)
+            return this.connect();
+        try {
+            final Connection connection = pool.getReadConnection();
+            hasCastException = false;
+            return connection;
+        } catch (SQLException e) {
+            this.hasCastException = true;
+            log.log(e, () -> "Fail to open a read connection to the SQLITE database.");
+        }
+        return null;
+    }
+
+    /**
+     * Use one long-lived write connection and a small pool of read connections, instead of
+     * opening a new connection for every query. Only one thread can write at a time, other
+     * threads wait for the write connection instead of failing on a locked database. The connections are opened in WAL mode with {@code synchronous=NORMAL}.
+     * <p>
+     * Use {@link #writeQueue()} to queue the saves on one thread, so saves queued at the
+     * same time are written together.
+     * </p>
+     *
+     * @param readConnections the max amount of read connections, if 0 the reads also use the write connection.
+     */
+    public void enableSingleWriterPool(final int readConnections) {
+        this.disableSingleWriterPool();
+        this.connectionPool = new EmbeddedConnectionPool(DatabaseType.SQLITE, "jdbc:sqlite:" + dbFile.getPath(), readConnections, this.getConnectionTimeout());
+    }
+
+    /**
+     * Closes the write and read connections opened by {@link #enableSingleWriterPool(int)},
+     * new connections are opened the same way as before the pool was enabled.
+     */
+    public void disableSingleWriterPool() {
+        if (this.connectionPool == null)
+            return;
+        this.connectionPool.close();
+        this.connectionPool = null;
+    }
+
+    /**
+     * Check if the single writer pool is used.
+     *
+     * @return true if {@link #enableSingleWriterPool(int)} is used.
+     */
+    public boolean isSingleWriterPool() {
+        return this.connectionPool != null;
+    }
+
     @Override
     public boolean hasConnectionFailed() {
         return this.hasCastException;
@@ -136,6 +198,14 @@ public class SQLite extends SQLDatabaseQuery {
         return this.isHikariAvailable;
     }
 
+    @Nullable
+    @Override
+    public PoolMetrics getPoolMetrics() {
+        if (this.hikari == null)
+            return null;
+        return this.hikari.getPoolMetrics();
+    }
+
     /**
      * Helper class to resolve the SQLite database file path from parent and child path components.
      */
@@ -0,0 +1,130 @@
+package org.broken.arrow.library.database.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A thread safe histogram of durations.
+ * <p>
+ * Every duration is counted in a bucket where the upper bound is twice the one
+ * before, starting at 1 microsecond. It uses the same small amount of memory no
+ * matter how many durations are recorded, but the percentiles are only accurate
+ * to the bucket the value is in.
+ * </p>
+ */
+public class LatencyHistogram {
+    private static final int BUCKETS = 32;
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Adds a duration to the histogram.
+     *
+     * @param durationNanos the duration in nanoseconds.
+     */
+    public void record(final long durationNanos) {
+        final long nanos = Math.max(0, durationNanos);
+        this.buckets.incrementAndGet(bucketOf(nanos));
+        this.count.increment();
+        this.totalNanos.add(nanos);
+        this.maxNanos.accumulate(nanos);
+    }
+
+    /**
+     * Retrieve the amount of recorded durations.
+     *
+     * @return the count.
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Retrieve the sum of all recorded durations.
+     *
+     * @return the total time in nanoseconds.
+     */
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    /**
+     * Retrieve the average duration.
+     *
+     * @return the mean in nanoseconds, or 0 if nothing is recorded.
+     */
+    public long getMeanNanos() {
+        final long recorded = this.getCount();
+        if (recorded == 0)
+            return 0;
+        return this.getTotalNanos() / recorded;
+    }
+
+    /**
+     * Retrieve the longest recorded duration.
+     *
+     * @return the max in nanoseconds.
+     */
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    /**
+     * Retrieve the duration that the given share of the recorded durations are
+     * below, like 0.99 for the 99th percentile.
+     *
+     * @param percentile the percentile from 0 to 1.
+     * @return the upper bound of the bucket the percentile is in, in nanoseconds. Never above the max.
+     */
+    public long getPercentileNanos(final double percentile) {
+        final long recorded = this.getCount();
+        if (recorded == 0)
+            return 0;
+        final long rank = Math.max(1, (long) Math.ceil(Math.min(1, Math.max(0, percentile)) * recorded));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += this.buckets.get(i);
+            if (seen >= rank)
+                return Math.min(upperBoundOf(i), this.getMaxNanos());
+        }
+        return this.getMaxNanos();
+    }
+
+    /**
+     * Removes all recorded durations.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            this.buckets.set(i, 0);
+        }
+        this.count.reset();
+        this.totalNanos.reset();
+        this.maxNanos.reset();
+    }
+
+    private static int bucketOf(final long nanos) {
+        final long micros = nanos / 1000;
+        if (micros == 0)
+            return 0;
+        return Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+    }
+
+    private static long upperBoundOf(final int bucket) {
+        return TimeUnit.MICROSECONDS.toNanos(1L << bucket);
+    }
+
+    @Override
+    public String toString() {
+        return "LatencyHistogram{" +
+                "count=" + getCount() +
+                ", meanMs=" + getMeanNanos() / 1_000_000.0 +
+                ", p50Ms=" + getPercentileNanos(0.5) / 1_000_000.0 +
+                ", p99Ms=" + getPercentileNanos(0.99) / 1_000_000.0 +
+                ", maxMs=" + getMaxNanos() / 1_000_000.0 +
+                '}';
+    }
+}
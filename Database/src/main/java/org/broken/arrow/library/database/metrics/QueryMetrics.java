@@ -0,0 +1,171 @@
+package org.broken.arrow.library.database.metrics;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link QueryMetricsListener} that keeps a {@link LatencyHistogram} for every
+ * normalized query, and for batches, commits and connections.
+ * <p>
+ * At most {@link #MAX_QUERIES} different queries are tracked, the queries after that
+ * share the histogram under {@link #OTHER_QUERIES}. This keeps the memory bounded if
+ * the queries are built with the values in the text.
+ * </p>
+ */
+public class QueryMetrics implements QueryMetricsListener {
+    /**
+     * The max amount of queries with their own histogram.
+     */
+    public static final int MAX_QUERIES = 500;
+    /**
+     * The key for the queries that did not fit in the map.
+     */
+    public static final String OTHER_QUERIES = "<other>";
+    private final Map<String, LatencyHistogram> queryLatency = new ConcurrentHashMap<>();
+    private final LatencyHistogram batchLatency = new LatencyHistogram();
+    private final LatencyHistogram commitLatency = new LatencyHistogram();
+    private final LatencyHistogram connectionLatency = new LatencyHistogram();
+    private final LongAdder batchedStatements = new LongAdder();
+    private final LongAccumulator largestBatch = new LongAccumulator(Math::max, 0);
+
+    @Override
+    public void onQuery(@Nonnull final String sql, final int parameterCount, final long durationNanos) {
+        this.getOrCreate(sql).record(durationNanos);
+    }
+
+    @Override
+    public void onBatch(@Nonnull final String sql, final int batchSize, final long durationNanos) {
+        this.getOrCreate(sql).record(durationNanos);
+        this.batchLatency.record(durationNanos);
+        this.batchedStatements.add(batchSize);
+        this.largestBatch.accumulate(batchSize);
+    }
+
+    @Override
+    public void onCommit(final long durationNanos) {
+        this.commitLatency.record(durationNanos);
+    }
+
+    @Override
+    public void onConnectionAcquired(final long durationNanos) {
+        this.connectionLatency.record(durationNanos);
+    }
+
+    /**
+     * Retrieve the histograms for all tracked queries, keyed by the normalized query.
+     * A batch counts as one execution of its query.
+     *
+     * @return an unmodifiable view of the histograms.
+     */
+    @Nonnull
+    public Map<String, LatencyHistogram> getQueryLatency() {
+        return Collections.unmodifiableMap(queryLatency);
+    }
+
+    /**
+     * Retrieve the histogram for one query.
+     *
+     * @param sql the query, it is normalized before the lookup.
+     * @return the histogram, or null if the query has not run yet.
+     */
+    @Nullable
+    public LatencyHistogram getQueryLatency(@Nonnull final String sql) {
+        return queryLatency.get(QueryMonitor.normalize(sql));
+    }
+
+    /**
+     * Retrieve the histogram for all batches sent, the count is the amount of batches.
+     *
+     * @return the batch histogram.
+     */
+    @Nonnull
+    public LatencyHistogram getBatchLatency() {
+        return batchLatency;
+    }
+
+    /**
+     * Retrieve the amount of statements sent in batches.
+     *
+     * @return the total statements in all batches.
+     */
+    public long getBatchedStatements() {
+        return batchedStatements.sum();
+    }
+
+    /**
+     * Retrieve the average amount of statements in a batch.
+     *
+     * @return the average batch size, or 0 if no batch is sent yet.
+     */
+    public double getAverageBatchSize() {
+        final long batches = batchLatency.getCount();
+        if (batches == 0)
+            return 0;
+        return this.getBatchedStatements() / (double) batches;
+    }
+
+    /**
+     * Retrieve the largest batch sent.
+     *
+     * @return the max amount of statements in one batch.
+     */
+    public long getLargestBatch() {
+        return largestBatch.get();
+    }
+
+    /**
+     * Retrieve the histogram for all commits, the count is the amount of commits.
+     *
+     * @return the commit histogram.
+     */
+    @Nonnull
+    public LatencyHistogram getCommitLatency() {
+        return commitLatency;
+    }
+
+    /**
+     * Retrieve the histogram for the time it took to get a connection.
+     *
+     * @return the connection histogram.
+     */
+    @Nonnull
+    public LatencyHistogram getConnectionLatency() {
+        return connectionLatency;
+    }
+
+    /**
+     * Removes all recorded values.
+     */
+    public void reset() {
+        this.queryLatency.clear();
+        this.batchLatency.reset();
+        this.commitLatency.reset();
+        this.connectionLatency.reset();
+        this.batchedStatements.reset();
+        this.largestBatch.reset();
+    }
+
+    private LatencyHistogram getOrCreate(final String sql) {
+        final LatencyHistogram histogram = this.queryLatency.get(sql);
+        if (histogram != null)
+            return histogram;
+        final String key = this.queryLatency.size() < MAX_QUERIES ? sql : OTHER_QUERIES;
+        return this.queryLatency.computeIfAbsent(key, k -> new LatencyHistogram());
+    }
+
+    @Override
+    public String toString() {
+        return "QueryMetrics{" +
+                "queries=" + queryLatency.size() +
+                ", batches=" + batchLatency.getCount() +
+                ", averageBatchSize=" + getAverageBatchSize() +
+                ", commits=" + commitLatency.getCount() +
+                ", connections=" + connectionLatency +
+                '}';
+    }
+}
@@ -0,0 +1,54 @@
+package org.broken.arrow.library.database.metrics;
+
+import org.broken.arrow.library.database.core.Database;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Receives the time spent on every statement, batch, commit and connection, see
+ * {@link Database#setMetricsListener(QueryMetricsListener)}.
+ * <p>
+ * The methods are called on the thread that ran the statement, right after it is done,
+ * so keep them fast and do not run new queries from them. All methods do nothing by
+ * default, override the ones you need. Use {@link QueryMetrics} if you only want
+ * the histograms.
+ * </p>
+ */
+public interface QueryMetricsListener {
+
+    /**
+     * Called when a single statement is executed.
+     *
+     * @param sql            the normalized query, see {@link QueryMonitor#normalize(String)}.
+     * @param parameterCount the amount of placeholders in the query.
+     * @param durationNanos  the time it took to execute the statement.
+     */
+    default void onQuery(@Nonnull final String sql, final int parameterCount, final long durationNanos) {
+    }
+
+    /**
+     * Called when a JDBC batch is sent to the database.
+     *
+     * @param sql           the normalized query shared by all statements in the batch.
+     * @param batchSize     the amount of statements in the batch.
+     * @param durationNanos the time it took to execute the batch, without the commit.
+     */
+    default void onBatch(@Nonnull final String sql, final int batchSize, final long durationNanos) {
+    }
+
+    /**
+     * Called when a transaction is committed.
+     *
+     * @param durationNanos the time it took to commit.
+     */
+    default void onCommit(final long durationNanos) {
+    }
+
+    /**
+     * Called when a connection is opened, or taken from the pool.
+     *
+     * @param durationNanos the time it took to get the connection.
+     */
+    default void onConnectionAcquired(final long durationNanos) {
+    }
+}
@@ -0,0 +1,237 @@
+package org.broken.arrow.library.database.metrics;
+
+import org.broken.arrow.library.database.core.Database;
+import org.broken.arrow.library.logging.Logging;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.regex.Pattern;
+
+/**
+ * Times the statements run by a {@link Database}, gives the times to the
+ * {@link QueryMetricsListener} and logs the statements slower than the threshold.
+ * <p>
+ * When no listener and no threshold is set, {@link #start()} returns without reading
+ * the clock and the record methods return right away.
+ * </p>
+ */
+public class QueryMonitor {
+    private static final long NOT_TIMED = Long.MIN_VALUE;
+    private static final int MAX_QUERY_LENGTH = 1000;
+    private static final int MAX_CACHED_QUERIES = 1000;
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern PLACEHOLDER_LIST = Pattern.compile("\\( ?\\?(?: ?, ?\\?)+ ?\\)");
+    private static final Pattern ROW_LIST = Pattern.compile("(\\( ?\\?(?: ?, ?\\?)* ?\\))(?: ?, ?\\( ?\\?(?: ?, ?\\?)* ?\\))+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Map<String, String> NORMALIZED_QUERIES = new ConcurrentHashMap<>();
+    private final Logging log = new Logging(QueryMonitor.class);
+    private volatile QueryMetricsListener listener;
+    private volatile long slowQueryNanos;
+
+    /**
+     * Retrieve the listener that gets the times.
+     *
+     * @return the listener, or null if none is set.
+     */
+    @Nullable
+    public QueryMetricsListener getListener() {
+        return listener;
+    }
+
+    /**
+     * Set the listener that gets the times.
+     *
+     * @param listener the listener, or null to stop timing.
+     */
+    public void setListener(@Nullable final QueryMetricsListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Retrieve the time a statement may take before it is logged.
+     *
+     * @return the threshold in nanoseconds, 0 if slow statements are not logged.
+     */
+    public long getSlowQueryNanos() {
+        return slowQueryNanos;
+    }
+
+    /**
+     * Set the time a statement, batch or commit may take before it is logged, with
+     * the query and the amount of bound parameters.
+     *
+     * @param threshold the threshold, 0 or lower to turn it off.
+     * @param unit      the unit of the threshold.
+     */
+    public void setSlowQueryThreshold(final long threshold, @Nonnull final TimeUnit unit) {
+        this.slowQueryNanos = threshold > 0 ? unit.toNanos(threshold) : 0;
+    }
+
+    /**
+     * Check if a listener or a slow query threshold is set.
+     *
+     * @return true if the statements are timed.
+     */
+    public boolean isEnabled() {
+        return listener != null || slowQueryNanos > 0;
+    }
+
+    /**
+     * Reads the clock before a statement is run, give the returned value to one
+     * of the record methods when it is done.
+     *
+     * @return the start time, or a marker value if nothing is timed.
+     */
+    public long start() {
+        return this.isEnabled() ? System.nanoTime() : NOT_TIMED;
+    }
+
+    /**
+     * Records a single statement.
+     *
+     * @param sql   the query that was run.
+     * @param start the value from {@link #start()}.
+     */
+    public void recordQuery(@Nonnull final String sql, final long start) {
+        if (start == NOT_TIMED)
+            return;
+        final long duration = System.nanoTime() - start;
+        final String normalized = normalize(sql);
+        final int parameterCount = countParameters(sql);
+        if (this.isSlow(duration))
+            log.log(Level.WARNING, () -> "Slow query took " + toMillis(duration) + " ms with " + parameterCount + " bound parameters: " + normalized);
+        final QueryMetricsListener metricsListener = this.listener;
+        if (metricsListener == null)
+            return;
+        try {
+            metricsListener.onQuery(normalized, parameterCount, duration);
+        } catch (RuntimeException e) {
+            this.failedListener(e);
+        }
+    }
+
+    /**
+     * Records a JDBC batch.
+     *
+     * @param sql       the query shared by all statements in the batch.
+     * @param batchSize the amount of statements in the batch.
+     * @param start     the value from {@link #start()}.
+     */
+    public void recordBatch(@Nonnull final String sql, final int batchSize, final long start) {
+        if (start == NOT_TIMED)
+            return;
+        final long duration = System.nanoTime() - start;
+        final String normalized = normalize(sql);
+        if (this.isSlow(duration)) {
+            final int parameterCount = countParameters(sql) * batchSize;
+            log.log(Level.WARNING, () -> "Slow batch of " + batchSize + " statements took " + toMillis(duration) + " ms with " + parameterCount + " bound parameters: " + normalized);
+        }
+        final QueryMetricsListener metricsListener = this.listener;
+        if (metricsListener == null)
+            return;
+        try {
+            metricsListener.onBatch(normalized, batchSize, duration);
+        } catch (RuntimeException e) {
+            this.failedListener(e);
+        }
+    }
+
+    /**
+     * Records a commit.
+     *
+     * @param start the value from {@link #start()}.
+     */
+    public void recordCommit(final long start) {
+        if (start == NOT_TIMED)
+            return;
+        final long duration = System.nanoTime() - start;
+        if (this.isSlow(duration))
+            log.log(Level.WARNING, () -> "Slow commit took " + toMillis(duration) + " ms.");
+        final QueryMetricsListener metricsListener = this.listener;
+        if (metricsListener == null)
+            return;
+        try {
+            metricsListener.onCommit(duration);
+        } catch (RuntimeException e) {
+            this.failedListener(e);
+        }
+    }
+
+    /**
+     * Records the time it took to get a connection.
+     *
+     * @param start the value from {@link #start()}.
+     */
+    public void recordConnection(final long start) {
+        if (start == NOT_TIMED)
+            return;
+        final long duration = System.nanoTime() - start;
+        if (this.isSlow(duration))
+            log.log(Level.WARNING, () -> "Waited " + toMillis(duration) + " ms for a database connection.");
+        final QueryMetricsListener metricsListener = this.listener;
+        if (metricsListener == null)
+            return;
+        try {
+            metricsListener.onConnectionAcquired(duration);
+        } catch (RuntimeException e) {
+            this.failedListener(e);
+        }
+    }
+
+    /**
+     * Turns the query into the key the times are grouped by. The whitespace is collapsed,
+     * text and number values are replaced with {@code ?}, and lists of placeholders like
+     * {@code IN (?, ?, ?)} are shortened to {@code (?, ...)}, so the same query with
+     * other values gets the same key.
+     *
+     * @param sql the query.
+     * @return the normalized query.
+     */
+    @Nonnull
+    public static String normalize(@Nonnull final String sql) {
+        final String cached = NORMALIZED_QUERIES.get(sql);
+        if (cached != null)
+            return cached;
+        String normalized = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+        normalized = STRING_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = ROW_LIST.matcher(normalized).replaceAll("$1, ...");
+        normalized = PLACEHOLDER_LIST.matcher(normalized).replaceAll("(?, ...)");
+        if (normalized.length() > MAX_QUERY_LENGTH)
+            normalized = normalized.substring(0, MAX_QUERY_LENGTH) + "...";
+        if (NORMALIZED_QUERIES.size() < MAX_CACHED_QUERIES)
+            NORMALIZED_QUERIES.put(sql, normalized);
+        return normalized;
+    }
+
+    private static int countParameters(final String sql) {
+        int count = 0;
+        boolean inText = false;
+        for (int i = 0; i < sql.length(); i++) {
+            final char character = sql.charAt(i);
+            if (character == '\'')
+                inText = !inText;
+            else if (character == '?' && !inText)
+                count++;
+        }
+        return count;
+    }
+
+    private boolean isSlow(final long duration) {
+        final long threshold = this.slowQueryNanos;
+        return threshold > 0 && duration >= threshold;
+    }
+
+    private static double toMillis(final long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private void failedListener(final RuntimeException e) {
+        log.log(Level.WARNING, e, () -> "The query metrics listener threw an exception.");
+    }
+}
@@ -26,10 +26,13 @@ import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.Timer;
 import java.util.TimerTask;
 import java.util.function.Consumer;
@@ -65,7 +68,9 @@ public class BatchExecutor<T> {
     protected final int resultSetConcurrency;
     private final Logging log = new Logging(BatchExecutor.class);
     private final DatabaseCommandConfig databaseConfig;
+    private final PreparedStatementCache statementCache;
     private volatile boolean batchUpdateGoingOn;
+    private volatile boolean writeFailed;
 
     /**
      * Creates a new BatchExecutor instance.
@@ -79,6 +84,7 @@ public class BatchExecutor<T> {
         this.connection = connection;
         this.dataToProcess = dataToProcess;
         this.databaseConfig = this.database.databaseConfig();
+        this.statementCache = new PreparedStatementCache(connection);
         this.resultSetType = this.databaseConfig.getResultSetType();
         this.resultSetConcurrency = this.databaseConfig.getResultSetConcurrency();
     }
@@ -99,52 +105,71 @@ public class BatchExecutor<T> {
             return;
         }
 
+        final boolean columnsIsEmpty = columns == null || columns.length == 0;
+        final boolean hasUpdateIntent = !columnsIsEmpty || shallUpdate;
+        final boolean nativeUpsert = hasUpdateIntent && this.database.isNativeUpsert() && !table.getPrimaryColumns().isEmpty()
+                && (columnsIsEmpty || this.supportsUpsertColumns());
+
+        final Map<DataWrapper, Object> legacyPrimaryValues = new IdentityHashMap<>();
+        for (T dataToSave : this.dataToProcess) {
+            if (dataToSave instanceof DataWrapper)
+                legacyPrimaryValues.put((DataWrapper) dataToSave, ((DataWrapper) dataToSave).getPrimaryValue());
+        }
+        final Set<List<String>> existingRows = hasUpdateIntent && !nativeUpsert ? this.findExistingRows(table, legacyPrimaryValues) : Collections.emptySet();
+
         for (T dataToSave : this.dataToProcess) {
             if (!(dataToSave instanceof DataWrapper)) continue;
 
             final DataWrapper dataWrapper = (DataWrapper) dataToSave;
 
             final SqlHandler sqlHandler = new SqlHandler(tableName, database);
-            final boolean columnsIsEmpty = columns == null || columns.length == 0;
             boolean canUpdateRow = false;
-            final Object legacyPrimaryValue = dataWrapper.getPrimaryValue();
+            final Object legacyPrimaryValue = legacyPrimaryValues.get(dataWrapper);
             final DataWrapper.PrimaryWrapper primaryWrapper = dataWrapper.getPrimaryWrapper();
             final WhereClauseFunction whereClauseCallback = primaryWrapper.getWhereClause();
-
+            final List<Object> primaryValues = this.getPrimaryValues(table, dataWrapper, legacyPrimaryValue);
 
             final Function<WhereBuilder, ConditionChainer<WhereBuilder>> finalWhereStrategy = whereBuilder -> {
                 if (whereClauseCallback != null) {
                     return whereClauseCallback.apply(whereBuilder);
                 }
-                return table.createWhereClauseFromPrimaryColumns(whereBuilder, legacyPrimaryValue);
+                return table.createWhereClauseFromPrimaryColumns(whereBuilder, primaryValues.toArray());
             };
             final boolean isManualInsertOrUpdate = !table.isAutoIncrementTable();
-            final boolean hasUpdateIntent = !columnsIsEmpty || shallUpdate;
             final boolean primaryValueSet = primaryWrapper.getPrimaryKeys().values().stream().noneMatch(Objects::isNull);
 
             if (isManualInsertOrUpdate && !primaryValueSet) {
                 System.out.println("You must provide valid where clause if, it shall insert or update rows.");
             }
 
-            if (primaryValueSet && hasUpdateIntent) {
-                final SqlQueryPair query = sqlHandler.selectRow(columnManger -> {
-                    final List<TableColumn> collect = new ArrayList<>(table.getPrimaryColumns());
-                    columnManger.addAll(collect);
-                }, true, finalWhereStrategy);
-                canUpdateRow = this.checkIfRowExist(query, false);
+            final boolean upsertRow = nativeUpsert && this.canResolveInBulk(table, dataWrapper, primaryValues);
+            if (primaryValueSet && hasUpdateIntent && !upsertRow) {
+                if (this.canResolveInBulk(table, dataWrapper, primaryValues)) {
+                    canUpdateRow = existingRows.contains(RowExistenceResolver.toKey(primaryValues));
+                } else {
+                    final SqlQueryPair query = sqlHandler.selectRow(columnManger -> {
+                        final List<TableColumn> collect = new ArrayList<>(table.getPrimaryColumns());
+                        columnManger.addAll(collect);
+                    }, true, finalWhereStrategy);
+                    canUpdateRow = this.checkIfRowExist(query, false);
+                }
             }
             sqlHandler.setQueryPlaceholders(this.database.isSecureQuery());
-            final Map<Column, Object> columnValueMap = new HashMap<>(formatData(dataWrapper, canUpdateRow ? columns : null));
+            final Map<Column, Object> columnValueMap = formatData(dataWrapper, canUpdateRow ? columns : null);
 
             for (TableColumn primary : table.getPrimaryColumns()) {
                 Object value = legacyPrimaryValue;
                 if (value == null || value.toString().isEmpty())
                     value = primaryWrapper.getPrimaryValue(primary.getColumnName());
                 if (value == null) continue;
-                columnValueMap.put(primary, value);
+                putColumnValue(columnValueMap, primary, value);
             }
 
-            final SqlQueryPair queryPair = this.databaseConfig.applyDatabaseCommand(sqlHandler, columnValueMap, finalWhereStrategy, canUpdateRow);
+            final SqlQueryPair queryPair;
+            if (upsertRow)
+                queryPair = this.databaseConfig.applyUpsertCommand(sqlHandler, columnValueMap, columns);
+            else
+                queryPair = this.databaseConfig.applyDatabaseCommand(sqlHandler, columnValueMap, finalWhereStrategy, canUpdateRow);
             final Consumer<SqlResultRow> generatedKeyCallback = dataWrapper.getGeneratedKeyCallback();
             if (generatedKeyCallback != null) {
                 queryPair.setGeneratedKeyCallback(generatedKeyCallback);
@@ -234,7 +259,7 @@ public class BatchExecutor<T> {
             canUpdateRow = this.checkIfRowExist(query, false);
         }
         sqlHandler.setQueryPlaceholders(this.database.isSecureQuery());
-        final Map<Column, Object> columnValueMap = new HashMap<>(formatData(dataWrapper, canUpdateRow ? columns : null));
+        final Map<Column, Object> columnValueMap = formatData(dataWrapper, canUpdateRow ? columns : null);
 
         for (TableColumn primary : table.getPrimaryColumns()) {
             Object value = primaryValue;
@@ -242,7 +267,7 @@ public class BatchExecutor<T> {
                 value = primaryWrapper.getPrimaryValue(primary.getColumnName());
             }
             if (value == null) continue;
-            columnValueMap.put(primary, value);
+            putColumnValue(columnValueMap, primary, value);
         }
         final SqlQueryPair queryPair = this.databaseConfig.applyDatabaseCommand(sqlHandler, columnValueMap, whereClause, canUpdateRow);
         final Consumer<SqlResultRow> generatedKeyCallback = dataWrapper.getGeneratedKeyCallback();
@@ -275,6 +300,62 @@ public class BatchExecutor<T> {
         this.executeDatabaseTasks(queryList);
     }
 
+    /**
+     * Removes multiple rows from the specified table by the value of the first primary column.
+     * <p>
+     * The values are sent in chunks as {@code DELETE FROM table WHERE pk IN (?, ?, ...)}, where the
+     * chunk size follows the parameter limit of the driver set in {@link DatabaseType#getMaxParameters()}.
+     * All chunks run in one transaction, that is rolled back if any of them fails.
+     * </p>
+     *
+     * @param tableName the database table name.
+     * @param values    the primary values identifying the rows to remove.
+     */
+    public void removeAllByPrimaryKey(@Nonnull final String tableName, @Nonnull final List<String> values) {
+        final SqlQueryTable table = this.database.getTableFromName(tableName);
+        if (table == null) {
+            this.printFailFindTable(tableName);
+            this.closeQuietly();
+            return;
+        }
+        final List<TableColumn> primaryColumns = table.getPrimaryColumns();
+        if (primaryColumns.isEmpty()) {
+            this.removeAll(tableName, values, table::createWhereClauseFromPrimaryColumns);
+            return;
+        }
+        final String primaryColumn = primaryColumns.get(0).getColumnName();
+        final int chunkSize = Math.max(1, this.database.getDatabaseType().getMaxParameters());
+
+        try {
+            this.connection.setAutoCommit(false);
+            for (int start = 0; start < values.size(); start += chunkSize) {
+                final List<String> chunk = values.subList(start, Math.min(start + chunkSize, values.size()));
+                final String query = "DELETE FROM " + tableName + " WHERE " + primaryColumn + " IN (" + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ");";
+                final PreparedStatement statement = this.statementCache.prepare(query);
+                for (int i = 0; i < chunk.size(); i++) {
+                    statement.setObject(i + 1, chunk.get(i));
+                }
+                statement.executeUpdate();
+            }
+            this.connection.commit();
+        } catch (SQLException e) {
+            this.markWriteFailed();
+            log.log(Level.WARNING, e, () -> "Could not remove the rows from the table '" + tableName + "'. Rolling back changes.");
+            try {
+                this.connection.rollback();
+            } catch (SQLException rollbackEx) {
+                log.log(Level.SEVERE, rollbackEx, () -> "Failed to rollback changes after error.");
+            }
+        } finally {
+            try {
+                this.connection.setAutoCommit(true);
+            } catch (SQLException ex) {
+                log.log(Level.WARNING, ex, () -> "Could not reset auto-commit to true.");
+            }
+            this.closeQuietly();
+        }
+    }
+
     /**
      * Removes a single row from the specified table based on a value and a where clause.
      *
@@ -381,7 +462,7 @@ public class BatchExecutor<T> {
      * @return a map of columns to their corresponding values.
      */
     private <K, V extends ConfigurationSerializable> Map<Column, Object> formatData(final V configuration, final DatabaseQueryHandler<SaveRecord<K, V>> databaseQueryHandler, String[] columns) {
-        final Map<Column, Object> rowWrapper = new HashMap<>();
+        final Map<Column, Object> rowWrapper = new LinkedHashMap<>();
         for (Map.Entry<String, Object> entry : configuration.serialize().entrySet()) {
             String name = entry.getKey();
             if (isFilteredOutColumn(databaseQueryHandler, columns, name)) continue;
@@ -392,6 +473,94 @@ public class BatchExecutor<T> {
 
     }
 
+    /**
+     * Looks up in one pass which of the rows in this batch already exist, so the
+     * insert or update can be decided without a query per row. Rows that use their own
+     * where clause are not included and are checked one by one.
+     *
+     * @param table               the table the rows are saved to.
+     * @param legacyPrimaryValues the legacy primary value set for every row, if any.
+     * @return the keys for the rows that exist, see {@link RowExistenceResolver#toKey(List)}.
+     */
+    private Set<List<String>> findExistingRows(@Nonnull final SqlQueryTable table, @Nonnull final Map<DataWrapper, Object> legacyPrimaryValues) {
+        final List<List<Object>> primaryValuesToCheck = new ArrayList<>();
+        for (Map.Entry<DataWrapper, Object> entry : legacyPrimaryValues.entrySet()) {
+            final DataWrapper dataWrapper = entry.getKey();
+            final List<Object> primaryValues = this.getPrimaryValues(table, dataWrapper, entry.getValue());
+            if (this.canResolveInBulk(table, dataWrapper, primaryValues))
+                primaryValuesToCheck.add(primaryValues);
+        }
+        if (primaryValuesToCheck.isEmpty())
+            return Collections.emptySet();
+        return new RowExistenceResolver(this.database, this.connection, table).resolveExisting(primaryValuesToCheck);
+    }
+
+    /**
+     * Checks if the row can be looked up with the other rows in the batch.
+     *
+     * @param table         the table the row is saved to.
+     * @param dataWrapper   the data for the row.
+     * @param primaryValues the primary values for the row.
+     * @return true if all primary values are set and no custom where clause is used.
+     */
+    private boolean canResolveInBulk(final SqlQueryTable table, final DataWrapper dataWrapper, final List<Object> primaryValues) {
+        if (dataWrapper.getPrimaryWrapper().getWhereClause() != null)
+            return false;
+        return primaryValues.size() == table.getPrimaryColumns().size() && primaryValues.stream().noneMatch(Objects::isNull);
+    }
+
+    /**
+     * Checks if the native upsert can limit the columns updated for an existing row.
+     * H2 uses {@code MERGE INTO}, and other databases without upsert syntax {@code REPLACE INTO},
+     * that both write all columns, so saves of only some columns check if the row exists instead.
+     *
+     * @return true if the upsert only updates the given columns.
+     */
+    private boolean supportsUpsertColumns() {
+        switch (this.database.getDatabaseType()) {
+            case MYSQL:
+            case POSTGRESQL:
+            case SQLITE:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Retrieve the primary values for the row. The legacy primary value is used if it is set,
+     * otherwise the values set for every primary column in the {@link DataWrapper.PrimaryWrapper}.
+     *
+     * @param table              the table the row is saved to.
+     * @param dataWrapper        the data for the row.
+     * @param legacyPrimaryValue the legacy primary value of the row, or null if not set.
+     * @return the primary values in the same order as the primary columns.
+     */
+    private List<Object> getPrimaryValues(final SqlQueryTable table, final DataWrapper dataWrapper, @Nullable final Object legacyPrimaryValue) {
+        if (legacyPrimaryValue != null && !legacyPrimaryValue.toString().isEmpty())
+            return Collections.singletonList(legacyPrimaryValue);
+
+        final List<Object> primaryValues = new ArrayList<>();
+        for (TableColumn primary : table.getPrimaryColumns()) {
+            primaryValues.add(dataWrapper.getPrimaryWrapper().getPrimaryValue(primary.getColumnName()));
+        }
+        return primaryValues;
+    }
+
+    /**
+     * Puts the value for the column, replacing any existing entry with the same column name.
+     * The column order is kept stable, so rows with the same columns build the same SQL text
+     * and can share one prepared statement.
+     *
+     * @param columnValueMap the map of columns to their values.
+     * @param column         the column to set.
+     * @param value          the value for the column.
+     */
+    private void putColumnValue(final Map<Column, Object> columnValueMap, final Column column, final Object value) {
+        columnValueMap.keySet().removeIf(existing -> existing.getColumnName().equalsIgnoreCase(column.getColumnName()));
+        columnValueMap.put(column, value);
+    }
+
     /**
      * Checks if a column should be filtered out based on the database query handler and columns filter.
      *
@@ -444,7 +613,8 @@ public class BatchExecutor<T> {
      * @return {@code true} if the row exists, {@code false} if not found or an error occurs.
      */
     private boolean checkIfRowExist(@Nonnull final SqlQueryPair query, final boolean closeConnection) {
-        try (PreparedStatement preparedStatement = connection.prepareStatement(query.getQuery())) {
+        try {
+            final PreparedStatement preparedStatement = this.statementCache.prepare(query.getQuery());
             if (query.isSafeQuery()) {
                 query.getValues().forEach((index, value) -> {
                     try {
@@ -454,27 +624,36 @@ public class BatchExecutor<T> {
                     }
                 });
             }
+            final long start = this.database.getQueryMonitor().start();
             try (ResultSet resultSet = preparedStatement.executeQuery()) {
                 return resultSet.next();
+            } finally {
+                this.database.getQueryMonitor().recordQuery(query.getQuery(), start);
             }
         } catch (SQLException e) {
             log.log(e, () -> "Could not search for your the row with this query '" + query + "' .");
-        }
-        if (closeConnection) {
-            try {
-                connection.close();
-            } catch (SQLException e) {
-                failedCloseConnection(e);
+        } finally {
+            if (closeConnection) {
+                this.statementCache.close();
+                try {
+                    connection.close();
+                } catch (SQLException e) {
+                    failedCloseConnection(e);
+                }
             }
         }
-
         return false;
 
     }
 
     /**
      * Executes a list of SQL queries as batch operations against the database.
-     * Commits after every 100 queries and handles rollback on errors.
+     * <p>
+     * Queries next to each other with identical SQL text are grouped so one prepared
+     * statement is reused for the whole group, and the values are sent with {@link PreparedStatement#executeBatch()}
+     * every {@link Database#getBatchSize()} statements. Each sent batch is committed and
+     * rolled back on errors.
+     * </p>
      *
      * @param composerList the list of SQL query pairs to execute.
      */
@@ -496,16 +675,13 @@ public class BatchExecutor<T> {
             this.printPressesCount(processedCount);
         try {
             databaseConnection.setAutoCommit(false);
-            int batchSize = 1;
-            for (SqlQueryPair sql : composerList) {
-                this.setPreparedStatement(sql);
-
-                if (batchSize % 100 == 0)
-                    databaseConnection.commit();
-                batchSize++;
+            final boolean batchGeneratedKeys = this.isBatchGeneratedKeysSupported();
+            for (QueryGroup group : this.groupByQuery(composerList)) {
+                this.executeGroup(group, batchGeneratedKeys);
             }
-            databaseConnection.commit();
+            this.commit();
         } catch (SQLException e) {
+            this.markWriteFailed();
             log.log(Level.WARNING, e, () -> "Error during batch execution. Rolling back changes.");
             try {
                 databaseConnection.rollback();
@@ -519,6 +695,7 @@ public class BatchExecutor<T> {
             } catch (SQLException ex) {
                 log.log(Level.WARNING, ex, () -> "Could not reset auto-commit to true.");
             }
+            this.statementCache.close();
             try {
                 databaseConnection.close();
             } catch (SQLException e) {
@@ -530,27 +707,195 @@ public class BatchExecutor<T> {
         }
     }
 
+    /**
+     * Groups the queries that follow each other with the same SQL text. Only queries
+     * next to each other are grouped, so the statements still run in the order they
+     * were added, also when a later query depends on an earlier one.
+     *
+     * @param composerList the list of SQL query pairs to group.
+     * @return the groups of queries sharing the same SQL text, in order.
+     */
+    private List<QueryGroup> groupByQuery(final List<SqlQueryPair> composerList) {
+        final List<QueryGroup> groups = new ArrayList<>();
+        QueryGroup group = null;
+        for (SqlQueryPair sql : composerList) {
+            if (group == null || !group.getQuery().equals(sql.getQuery())) {
+                group = new QueryGroup(sql.getQuery());
+                groups.add(group);
+            }
+            group.add(sql);
+        }
+        return groups;
+    }
+
+    /**
+     * Executes one group of queries with the same SQL text, reusing a single
+     * prepared statement and flushing it every {@link Database#getBatchSize()} statements.
+     * If the statement can not be prepared, or a batch or commit fails, the changes not
+     * yet committed are rolled back and the next group is executed.
+     *
+     * @param group              the queries to execute.
+     * @param batchGeneratedKeys {@code true} if the driver returns generated keys for every statement in a batch.
+     * @throws SQLException if the rollback fails.
+     */
+    private void executeGroup(final QueryGroup group, final boolean batchGeneratedKeys) throws SQLException {
+        try {
+            if (group.hasCallback() && !batchGeneratedKeys) {
+                for (SqlQueryPair sql : group.getQueries()) {
+                    this.setPreparedStatement(sql);
+                }
+                this.commit();
+                return;
+            }
+            final int batchSize = this.database.getBatchSize();
+            final int autoGeneratedKeys = group.hasCallback() ? Statement.RETURN_GENERATED_KEYS : Statement.NO_GENERATED_KEYS;
+
+            try (PreparedStatement statement = connection.prepareStatement(group.getQuery(), autoGeneratedKeys)) {
+                final List<SqlQueryPair> pending = new ArrayList<>(Math.min(batchSize, group.getQueries().size()));
+                for (SqlQueryPair sql : group.getQueries()) {
+                    if (!this.setValues(statement, sql)) continue;
+
+                    statement.addBatch();
+                    pending.add(sql);
+                    if (pending.size() >= batchSize)
+                        this.flushBatch(statement, pending);
+                }
+                if (!pending.isEmpty())
+                    this.flushBatch(statement, pending);
+            }
+        } catch (SQLException e) {
+            this.markWriteFailed();
+            log.log(Level.WARNING, e, () -> "Could not execute this batch: \"" + group.getQuery() + "\". Rolling back the changes not committed.");
+            this.connection.rollback();
+        }
+    }
+
+    /**
+     * Sends the pending batch to the database, delivers generated keys to the
+     * registered callbacks and commits the changes. If the batch fails it is rolled
+     * back and the statements are run again one by one, so only the failing rows are lost.
+     *
+     * @param statement the statement holding the batch.
+     * @param pending   the queries added to the batch, in the order they were added.
+     * @throws SQLException if the commit or rollback fails.
+     */
+    private void flushBatch(final PreparedStatement statement, final List<SqlQueryPair> pending) throws SQLException {
+        try {
+            final long start = this.database.getQueryMonitor().start();
+            try {
+                statement.executeBatch();
+            } catch (SQLException e) {
+                final int failedCount = pending.size();
+                log.log(Level.WARNING, e, () -> "Could not execute this prepared batch of " + failedCount + " statements: \"" + pending.get(0).getQuery() + "\". Rolling back the batch and running the statements one by one.");
+                this.connection.rollback();
+                statement.clearBatch();
+                this.executeOneByOne(statement, pending);
+                return;
+            }
+            this.database.getQueryMonitor().recordBatch(pending.get(0).getQuery(), pending.size(), start);
+            callbackGeneratedKeys(statement, pending);
+            this.commit();
+        } finally {
+            statement.clearBatch();
+            pending.clear();
+        }
+    }
+
+    /**
+     * Runs the statements of a failed batch one at a time, committing every row that
+     * succeeds and rolling back and logging the rows that fail.
+     *
+     * @param statement the statement to run the queries with.
+     * @param pending   the queries from the failed batch.
+     * @throws SQLException if the commit or rollback fails.
+     */
+    private void executeOneByOne(final PreparedStatement statement, final List<SqlQueryPair> pending) throws SQLException {
+        for (SqlQueryPair sql : pending) {
+            if (!this.setValues(statement, sql)) continue;
+            try {
+                final long start = this.database.getQueryMonitor().start();
+                statement.executeUpdate();
+                this.database.getQueryMonitor().recordQuery(sql.getQuery(), start);
+                callbackGeneratedKeys(statement, sql.getGeneratedKeyCallback());
+            } catch (SQLException e) {
+                failedSetValuesBatch(sql.getQuery(), e, sql.getValues());
+                this.connection.rollback();
+                continue;
+            }
+            this.commit();
+        }
+    }
+
+    /**
+     * Commits the changes on the connection and records the time it took.
+     *
+     * @throws SQLException if the commit fails.
+     */
+    private void commit() throws SQLException {
+        final long start = this.database.getQueryMonitor().start();
+        this.connection.commit();
+        this.database.getQueryMonitor().recordCommit(start);
+    }
+
+    /**
+     * Binds the values of the query to the prepared statement.
+     *
+     * @param statement the statement to set the values on.
+     * @param sql       the query holding the values.
+     * @return {@code true} if all values could be set.
+     */
+    private boolean setValues(final PreparedStatement statement, final SqlQueryPair sql) {
+        final Map<Integer, Object> cachedDataByColumn = sql.getValues();
+        try {
+            for (Map.Entry<Integer, Object> column : cachedDataByColumn.entrySet()) {
+                statement.setObject(column.getKey(), column.getValue());
+            }
+            return true;
+        } catch (SQLException e) {
+            failedSetValuesBatch(sql.getQuery(), e, cachedDataByColumn);
+        } catch (ArrayIndexOutOfBoundsException exception) {
+            this.markWriteFailed();
+            log.log(Level.WARNING, () -> "Could not execute this batch: \"" + sql.getQuery() + "\" . Probably this is not an premed batch with placeholders, check so the query contains ? for all values.");
+        }
+        try {
+            statement.clearParameters();
+        } catch (SQLException e) {
+            log.log(Level.WARNING, e, () -> "Could not clear the values for this query: \"" + sql.getQuery() + "\"");
+        }
+        return false;
+    }
+
+    /**
+     * Checks if the driver returns one generated key row for every statement in a batch.
+     * SQLite only returns the key for the last inserted row, so the statements
+     * with a generated key callback are executed one by one instead.
+     *
+     * @return {@code true} if generated keys can be read after {@link PreparedStatement#executeBatch()}.
+     */
+    private boolean isBatchGeneratedKeysSupported() {
+        if (this.database.getDatabaseType() == DatabaseType.SQLITE)
+            return false;
+        try {
+            return this.connection.getMetaData().supportsGetGeneratedKeys();
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
     private void setPreparedStatement(SqlQueryPair sql) throws SQLException {
         final Map<Integer, Object> cachedDataByColumn = sql.getValues();
         Consumer<SqlResultRow> callback = sql.getGeneratedKeyCallback();
         int autoGeneratedKeys = callback != null ? Statement.RETURN_GENERATED_KEYS : Statement.NO_GENERATED_KEYS;
 
-        try (PreparedStatement statement = connection.prepareStatement(sql.getQuery(), autoGeneratedKeys)) {
-            boolean valuesSet = false;
-            if (!cachedDataByColumn.isEmpty()) {
-                for (Map.Entry<Integer, Object> column : cachedDataByColumn.entrySet()) {
-                    statement.setObject(column.getKey(), column.getValue());
-                    valuesSet = true;
-                }
-            }
-           /* if (valuesSet)
-                statement.addBatch();*/
+        try {
+            final PreparedStatement statement = this.statementCache.prepare(sql.getQuery(), autoGeneratedKeys);
+            if (!this.setValues(statement, sql)) return;
+            final long start = this.database.getQueryMonitor().start();
             statement.executeUpdate();
+            this.database.getQueryMonitor().recordQuery(sql.getQuery(), start);
             callbackGeneratedKeys(statement, callback);
         } catch (SQLException e) {
             failedSetValuesBatch(sql.getQuery(), e, cachedDataByColumn);
-        } catch (ArrayIndexOutOfBoundsException exception) {
-            log.log(Level.WARNING, () -> "Could not execute this batch: \"" + sql.getQuery() + "\" . Probably this is not an premed batch with placeholders, check so the query contains ? for all values.");
         }
     }
 
@@ -559,26 +904,43 @@ public class BatchExecutor<T> {
 
         try (ResultSet rs = statement.getGeneratedKeys()) {
             if (!rs.next()) return;
-            final SqlResultRow rowData = new SqlResultRow();
-            final ResultSetMetaData metaData = rs.getMetaData();
-            boolean foundExactAutoIncrement = false;
-
-            for (int i = 1; i <= metaData.getColumnCount(); i++) {
-                final String columnName = metaData.getColumnLabel(i);
-                final Object value = rs.getObject(i);
-                rowData.put(columnName, value);
-                if (value instanceof Number) {
-                    boolean isAutoInc = metaData.isAutoIncrement(i);
-                    if (isAutoInc) {
-                        rowData.put("generated_id", value);
-                        foundExactAutoIncrement = true;
-                    } else if (i == 1 && !foundExactAutoIncrement) {
-                        rowData.put("generated_id", value);
-                    }
+            callback.accept(getGeneratedRow(rs));
+        }
+    }
+
+    private static void callbackGeneratedKeys(final PreparedStatement statement, final List<SqlQueryPair> batch) throws SQLException {
+        if (batch.stream().allMatch(sql -> sql.getGeneratedKeyCallback() == null)) return;
+
+        try (ResultSet rs = statement.getGeneratedKeys()) {
+            for (SqlQueryPair sql : batch) {
+                if (!rs.next()) return;
+                final Consumer<SqlResultRow> callback = sql.getGeneratedKeyCallback();
+                if (callback != null)
+                    callback.accept(getGeneratedRow(rs));
+            }
+        }
+    }
+
+    private static SqlResultRow getGeneratedRow(final ResultSet rs) throws SQLException {
+        final SqlResultRow rowData = new SqlResultRow();
+        final ResultSetMetaData metaData = rs.getMetaData();
+        boolean foundExactAutoIncrement = false;
+
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            final String columnName = metaData.getColumnLabel(i);
+            final Object value = rs.getObject(i);
+            rowData.put(columnName, value);
+            if (value instanceof Number) {
+                boolean isAutoInc = metaData.isAutoIncrement(i);
+                if (isAutoInc) {
+                    rowData.put("generated_id", value);
+                    foundExactAutoIncrement = true;
+                } else if (i == 1 && !foundExactAutoIncrement) {
+                    rowData.put("generated_id", value);
                 }
             }
-            callback.accept(rowData);
         }
+        return rowData;
     }
 
     /**
@@ -595,11 +957,40 @@ public class BatchExecutor<T> {
         return object != null;
     }
 
+    /**
+     * Records that a write failed and was only logged. Inside {@link Database#inTransaction(Consumer)}
+     * the whole transaction is then rolled back, instead of committed without the failed rows.
+     */
+    protected void markWriteFailed() {
+        this.writeFailed = true;
+        this.database.markWriteFailed();
+    }
+
+    /**
+     * Check if any of the writes run by this executor failed. The failed rows
+     * are logged and skipped, so the other rows may still be written.
+     *
+     * @return true if one or more writes failed.
+     */
+    public boolean hasFailedWrites() {
+        return writeFailed;
+    }
+
     private void failedSetValuesBatch(String sql, SQLException e, Map<Integer, Object> cachedDataByColumn) {
+        this.markWriteFailed();
         log.log(Level.WARNING, () -> "Could not execute this prepared batch: \"" + sql + "\"");
         log.log(e, () -> "Values that could not be executed: '" + cachedDataByColumn.values() + "'");
     }
 
+    private void closeQuietly() {
+        this.statementCache.close();
+        try {
+            this.connection.close();
+        } catch (SQLException e) {
+            failedCloseConnection(e);
+        }
+    }
+
     private void failedCloseConnection(SQLException e) {
         log.log(Level.WARNING, e, () -> "Failed to close database connection.");
     }
@@ -651,4 +1042,35 @@ public class BatchExecutor<T> {
         return toSave;
     }
 
+    /**
+     * Queries sharing the same SQL text, executed with one prepared statement.
+     */
+    private static final class QueryGroup {
+        private final String query;
+        private final List<SqlQueryPair> queries = new ArrayList<>();
+        private boolean callback;
+
+        private QueryGroup(final String query) {
+            this.query = query;
+        }
+
+        private void add(final SqlQueryPair sql) {
+            this.queries.add(sql);
+            if (sql.getGeneratedKeyCallback() != null)
+                this.callback = true;
+        }
+
+        private String getQuery() {
+            return query;
+        }
+
+        private List<SqlQueryPair> getQueries() {
+            return queries;
+        }
+
+        private boolean hasCallback() {
+            return callback;
+        }
+    }
+
 }
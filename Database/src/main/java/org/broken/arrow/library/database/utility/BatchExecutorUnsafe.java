@@ -2,6 +2,7 @@ package org.broken.arrow.library.database.utility;
 
 import org.broken.arrow.library.database.builders.tables.SqlQueryPair;
 import org.broken.arrow.library.database.core.Database;
+import org.broken.arrow.library.database.metrics.QueryMonitor;
 import org.broken.arrow.library.logging.Logging;
 
 import javax.annotation.Nonnull;
@@ -37,7 +38,8 @@ public class BatchExecutorUnsafe<T> extends BatchExecutor<T> {
 
     /**
      * Executes a list of SQL queries as batch operations against the database.
-     * Commits after every 100 queries and handles rollback on errors.
+     * Queries next to each other with the same shape, when the values are left out, are
+     * sent as one batch and timed under that query. All batches are committed together.
      *
      * @param composerList the list of SQL query pairs to execute.
      */
@@ -53,8 +55,6 @@ public class BatchExecutorUnsafe<T> extends BatchExecutor<T> {
                 // Prevent automatically sending db instructions
                 this.connection.setAutoCommit(false);
 
-                for (final SqlQueryPair sql : composerList)
-                    statement.addBatch(sql.getQuery());
                 if (processedCount > 10_000)
                     this.printPressesCount(processedCount);
 
@@ -70,12 +70,28 @@ public class BatchExecutorUnsafe<T> extends BatchExecutor<T> {
                         else cancel();
                     }
                 }, 1000 * 30L, 1000 * 30L);
-                // Execute
-                statement.executeBatch();
+                // Execute every run of statements with the same shape as its own batch, so the time is recorded for the right query
+                int index = 0;
+                while (index < composerList.size()) {
+                    final String query = composerList.get(index).getQuery();
+                    final String shape = QueryMonitor.normalize(query);
+                    int end = index;
+                    while (end < composerList.size() && QueryMonitor.normalize(composerList.get(end).getQuery()).equals(shape))
+                        statement.addBatch(composerList.get(end++).getQuery());
+
+                    final long start = this.database.getQueryMonitor().start();
+                    statement.executeBatch();
+                    this.database.getQueryMonitor().recordBatch(query, end - index, start);
+                    statement.clearBatch();
+                    index = end;
+                }
 
                 // This will block the thread
+                final long start = this.database.getQueryMonitor().start();
                 connection.commit();
+                this.database.getQueryMonitor().recordCommit(start);
             } catch (final Exception t) {
+                this.markWriteFailed();
                 this.log.log(t, () -> "Could not execute one or several batches.");
             } finally {
                 try {
@@ -104,4 +104,18 @@ public class DatabaseCommandConfig {
             return sqlHandler.updateTable(updateBuilder -> updateBuilder.putAll(columns), whereClause);
         else return sqlHandler.replaceIntoTable(insertHandler -> insertHandler.addAll(columns));
     }
+
+    /**
+     * Builds a single statement that inserts the row, or updates it if the primary key
+     * already exists, see {@link SqlHandler#upsertIntoTable(Consumer)}. Used when
+     * {@link Database#setNativeUpsert(boolean)} is enabled, so no existence check is needed.
+     *
+     * @param sqlHandler    Provides access to query building methods for generating SQL strings.
+     * @param columns       A map of database columns and their corresponding runtime values.
+     * @param updateColumns The columns to update if the row exists, or empty to update all columns.
+     * @return A {@link SqlQueryPair} containing the generated SQL query and associated parameterized values.
+     */
+    public SqlQueryPair applyUpsertCommand(@Nonnull final SqlHandler sqlHandler, final Map<Column, Object> columns, final String... updateColumns) {
+        return sqlHandler.upsertIntoTable(insertHandler -> insertHandler.addAll(columns).updateOnConflict(updateColumns));
+    }
 }
@@ -6,20 +6,38 @@ package org.broken.arrow.library.database.utility;
 public enum DatabaseType {
 
 	/** SQLite database. */
-	SQLITE,
+	SQLITE(999),
 
 	/** MySQL database. */
-	MYSQL,
+	MYSQL(65535),
 
 	/** PostgreSQL database. */
-	POSTGRESQL,
+	POSTGRESQL(32767),
 
 	/** H2 in-memory database. */
-	H2,
+	H2(65535),
 
 	/** MongoDB NoSQL database. */
-	MONGO_DB,
+	MONGO_DB(0),
 
 	/** Unknown or unsupported database type. */
-	UNKNOWN,
+	UNKNOWN(999),
+	;
+
+	private final int maxParameters;
+
+	DatabaseType(final int maxParameters) {
+		this.maxParameters = maxParameters;
+	}
+
+	/**
+	 * Retrieve the highest amount of bind parameters ({@code ?}) the driver
+	 * accepts in a single statement. SQLite uses the limit of older versions,
+	 * as newer versions allow up to 32766.
+	 *
+	 * @return the max amount of parameters, or {@code 0} if not a SQL database.
+	 */
+	public int getMaxParameters() {
+		return maxParameters;
+	}
 }
@@ -0,0 +1,112 @@
+package org.broken.arrow.library.database.utility;
+
+import org.broken.arrow.library.logging.Logging;
+
+import javax.annotation.Nonnull;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Level;
+
+/**
+ * Keeps the prepared statements for one connection open, so the same SQL
+ * is only prepared once while the connection is used.
+ * <p>
+ * The least recently used statement is closed when the max size is reached.
+ * This class is not thread safe, in the same way as the connection it wraps.
+ * Call {@link #close()} before the connection is closed or given back to the pool.
+ * </p>
+ */
+public class PreparedStatementCache implements AutoCloseable {
+    private static final int DEFAULT_MAX_SIZE = 64;
+    private final Logging log = new Logging(PreparedStatementCache.class);
+    private final Connection connection;
+    private final Map<String, PreparedStatement> statements;
+
+    /**
+     * Creates a cache for the connection with the default max size.
+     *
+     * @param connection the connection to prepare the statements on.
+     */
+    public PreparedStatementCache(@Nonnull final Connection connection) {
+        this(connection, DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Creates a cache for the connection.
+     *
+     * @param connection the connection to prepare the statements on.
+     * @param maxSize    the max amount of open statements.
+     */
+    public PreparedStatementCache(@Nonnull final Connection connection, final int maxSize) {
+        this.connection = connection;
+        this.statements = new LinkedHashMap<String, PreparedStatement>(16, 0.75F, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, PreparedStatement> eldest) {
+                if (size() <= maxSize)
+                    return false;
+                closeStatement(eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Retrieve the prepared statement for the SQL, the parameters are cleared
+     * if the statement was already prepared.
+     *
+     * @param sql the SQL to prepare.
+     * @return the prepared statement, do not close it.
+     * @throws SQLException if the statement could not be prepared.
+     */
+    @Nonnull
+    public PreparedStatement prepare(@Nonnull final String sql) throws SQLException {
+        return this.prepare(sql, Statement.NO_GENERATED_KEYS);
+    }
+
+    /**
+     * Retrieve the prepared statement for the SQL, the parameters are cleared
+     * if the statement was already prepared.
+     *
+     * @param sql               the SQL to prepare.
+     * @param autoGeneratedKeys {@link Statement#RETURN_GENERATED_KEYS} or {@link Statement#NO_GENERATED_KEYS}.
+     * @return the prepared statement, do not close it.
+     * @throws SQLException if the statement could not be prepared.
+     */
+    @Nonnull
+    public PreparedStatement prepare(@Nonnull final String sql, final int autoGeneratedKeys) throws SQLException {
+        final String key = autoGeneratedKeys + ":" + sql;
+        PreparedStatement statement = this.statements.get(key);
+        if (statement != null && !statement.isClosed()) {
+            statement.clearParameters();
+            return statement;
+        }
+        statement = this.connection.prepareStatement(sql, autoGeneratedKeys);
+        this.statements.put(key, statement);
+        return statement;
+    }
+
+    /**
+     * Closes all cached statements.
+     */
+    @Override
+    public void close() {
+        for (PreparedStatement statement : this.statements.values()) {
+            closeStatement(statement);
+        }
+        this.statements.clear();
+    }
+
+    private void closeStatement(final PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            log.log(Level.WARNING, e, () -> "Could not close the cached statement.");
+        }
+    }
+}
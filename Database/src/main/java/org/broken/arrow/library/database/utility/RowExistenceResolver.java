@@ -0,0 +1,227 @@
+package org.broken.arrow.library.database.utility;
+
+import org.broken.arrow.library.database.builders.tables.SqlQueryTable;
+import org.broken.arrow.library.database.construct.query.builder.table.column.TableColumn;
+import org.broken.arrow.library.database.core.Database;
+import org.broken.arrow.library.logging.Logging;
+
+import javax.annotation.Nonnull;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.logging.Level;
+
+/**
+ * Resolves which rows already exist in a table for a whole batch of primary key values.
+ * <p>
+ * Instead of one {@code SELECT} per row, the primary keys are sent in chunks as
+ * {@code WHERE pk IN (?, ?, ...)}, or as a row-value {@code WHERE (pk1, pk2) IN ((?, ?), ...)}
+ * for composite keys. The chunk size respects the parameter limit of the driver set in
+ * {@link DatabaseType#getMaxParameters()}.
+ * </p>
+ * <p>
+ * The values are compared in their string form, so a key set as an {@code Integer}
+ * still matches a {@code Long} returned by the driver. MySQL compares strings with the
+ * collation of the column, that by default ignores case, accents and trailing spaces, so
+ * a row returned there may be spelled differently from the key that found it. Such rows
+ * are matched against the keys with the case, accents and trailing spaces removed, and the
+ * keys that may have found them are checked one by one, so only those keys cost an extra query.
+ * </p>
+ */
+public class RowExistenceResolver {
+    private static final int MAX_ROWS_PER_QUERY = 500;
+    private final Logging log = new Logging(RowExistenceResolver.class);
+    private final Database database;
+    private final Connection connection;
+    private final SqlQueryTable table;
+
+    /**
+     * Creates a resolver for the specified table.
+     *
+     * @param database   the database instance the table belongs to.
+     * @param connection the connection to run the queries on, it will not be closed.
+     * @param table      the table to check the rows in.
+     */
+    public RowExistenceResolver(@Nonnull final Database database, @Nonnull final Connection connection, @Nonnull final SqlQueryTable table) {
+        this.database = database;
+        this.connection = connection;
+        this.table = table;
+    }
+
+    /**
+     * Creates the key used to look up a row, from the primary key values
+     * in the same order as {@link SqlQueryTable#getPrimaryColumns()}.
+     *
+     * @param primaryValues the primary key values.
+     * @return the key to compare with the result of {@link #resolveExisting(Collection)}.
+     */
+    @Nonnull
+    public static List<String> toKey(@Nonnull final List<Object> primaryValues) {
+        final List<String> key = new ArrayList<>(primaryValues.size());
+        for (Object value : primaryValues) {
+            key.add(String.valueOf(value));
+        }
+        return key;
+    }
+
+    /**
+     * Finds the rows that already exist in the table.
+     *
+     * @param primaryValues the primary key values for every row, in the same order
+     *                      as {@link SqlQueryTable#getPrimaryColumns()}.
+     * @return the keys (see {@link #toKey(List)}) of the primary values that was found in the table.
+     * An empty set is returned if the lookup fails.
+     */
+    @Nonnull
+    public Set<List<String>> resolveExisting(@Nonnull final Collection<List<Object>> primaryValues) {
+        final List<TableColumn> primaryColumns = this.table.getPrimaryColumns();
+        if (primaryColumns.isEmpty() || primaryValues.isEmpty())
+            return Collections.emptySet();
+
+        final Set<List<String>> found = new HashSet<>();
+        final List<List<Object>> distinctValues = new ArrayList<>(new LinkedHashSet<>(primaryValues));
+        final int chunkSize = this.getChunkSize(primaryColumns.size());
+        try {
+            for (int start = 0; start < distinctValues.size(); start += chunkSize) {
+                found.addAll(this.selectKeys(primaryColumns, distinctValues.subList(start, Math.min(start + chunkSize, distinctValues.size()))));
+            }
+            return this.matchKeys(primaryColumns, distinctValues, found);
+        } catch (SQLException e) {
+            log.log(Level.WARNING, e, () -> "Could not check which rows exist in the table '" + this.table.getTableName() + "' .");
+            return Collections.emptySet();
+        }
+    }
+
+    /**
+     * Matches the primary values with the keys read from the table. The keys that are spelled
+     * the same are matched directly. On MySQL a read key that no primary value is spelled as, was
+     * found by a value that only equals it in the collation of the column. The values that equal it
+     * with case, accents and trailing spaces removed are then checked one by one, or all values
+     * not matched yet if none of them does.
+     *
+     * @param primaryColumns the primary columns of the table.
+     * @param primaryValues  the distinct primary values that was looked up.
+     * @param found          the keys read from the table.
+     * @return the keys of the primary values that exist.
+     * @throws SQLException if a row can not be checked.
+     */
+    private Set<List<String>> matchKeys(final List<TableColumn> primaryColumns, final List<List<Object>> primaryValues, final Set<List<String>> found) throws SQLException {
+        final Set<List<String>> existing = new HashSet<>();
+        final List<List<Object>> unmatched = new ArrayList<>();
+        final Set<List<String>> unclaimed = new HashSet<>(found);
+        for (List<Object> values : primaryValues) {
+            final List<String> key = toKey(values);
+            if (found.contains(key)) {
+                existing.add(key);
+                unclaimed.remove(key);
+            } else {
+                unmatched.add(values);
+            }
+        }
+        if (unclaimed.isEmpty() || unmatched.isEmpty() || this.database.getDatabaseType() != DatabaseType.MYSQL)
+            return existing;
+
+        final Set<List<String>> unclaimedLoose = new HashSet<>();
+        unclaimed.forEach(key -> unclaimedLoose.add(toLooseKey(key)));
+        final List<List<Object>> candidates = new ArrayList<>();
+        final Set<List<String>> claimedLoose = new HashSet<>();
+        for (List<Object> values : unmatched) {
+            final List<String> looseKey = toLooseKey(toKey(values));
+            if (unclaimedLoose.contains(looseKey)) {
+                candidates.add(values);
+                claimedLoose.add(looseKey);
+            }
+        }
+        final List<List<Object>> toCheck = claimedLoose.containsAll(unclaimedLoose) ? candidates : unmatched;
+        for (List<Object> values : toCheck) {
+            if (!this.selectKeys(primaryColumns, Collections.singletonList(values)).isEmpty())
+                existing.add(toKey(values));
+        }
+        return existing;
+    }
+
+    /**
+     * Reads the keys of the rows that match any of the primary values.
+     *
+     * @param primaryColumns the primary columns of the table.
+     * @param primaryValues  the primary values to look up.
+     * @return the keys read from the table.
+     * @throws SQLException if the query fails.
+     */
+    private Set<List<String>> selectKeys(final List<TableColumn> primaryColumns, final List<List<Object>> primaryValues) throws SQLException {
+        final Set<List<String>> keys = new HashSet<>();
+        final String query = this.buildQuery(primaryColumns, primaryValues.size());
+        try (PreparedStatement statement = this.connection.prepareStatement(query)) {
+            int index = 1;
+            for (List<Object> row : primaryValues) {
+                for (Object value : row) {
+                    statement.setObject(index++, value);
+                }
+            }
+            final long queryStart = this.database.getQueryMonitor().start();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                this.database.getQueryMonitor().recordQuery(query, queryStart);
+                while (resultSet.next()) {
+                    final List<String> key = new ArrayList<>(primaryColumns.size());
+                    for (int i = 1; i <= primaryColumns.size(); i++) {
+                        key.add(String.valueOf(resultSet.getObject(i)));
+                    }
+                    keys.add(key);
+                }
+            }
+        }
+        return keys;
+    }
+
+    private static List<String> toLooseKey(final List<String> key) {
+        final List<String> looseKey = new ArrayList<>(key.size());
+        for (String value : key) {
+            final String withoutAccents = Normalizer.normalize(value, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+            int end = withoutAccents.length();
+            while (end > 0 && withoutAccents.charAt(end - 1) == ' ')
+                end--;
+            looseKey.add(withoutAccents.substring(0, end).toLowerCase(Locale.ROOT));
+        }
+        return looseKey;
+    }
+
+    private int getChunkSize(final int primaryColumns) {
+        final int maxParameters = this.database.getDatabaseType().getMaxParameters();
+        return Math.max(1, Math.min(MAX_ROWS_PER_QUERY, maxParameters / primaryColumns));
+    }
+
+    private String buildQuery(final List<TableColumn> primaryColumns, final int rows) {
+        final StringBuilder columns = new StringBuilder();
+        final StringBuilder placeholders = new StringBuilder();
+        for (TableColumn column : primaryColumns) {
+            if (columns.length() > 0) {
+                columns.append(", ");
+                placeholders.append(", ");
+            }
+            columns.append(column.getColumnName());
+            placeholders.append('?');
+        }
+        final boolean composite = primaryColumns.size() > 1;
+        final String row = composite ? "(" + placeholders + ")" : placeholders.toString();
+
+        final StringBuilder sql = new StringBuilder("SELECT ").append(columns)
+                .append(" FROM ").append(this.table.getTableName())
+                .append(" WHERE ").append(composite ? "(" + columns + ")" : columns)
+                .append(" IN (");
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) sql.append(", ");
+            sql.append(row);
+        }
+        return sql.append(");").toString();
+    }
+}
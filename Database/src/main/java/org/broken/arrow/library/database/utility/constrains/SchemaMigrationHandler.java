@@ -4,7 +4,6 @@ import org.broken.arrow.library.database.builders.DataWrapper;
 import org.broken.arrow.library.database.builders.tables.SqlQueryTable;
 import org.broken.arrow.library.database.construct.query.QueryBuilder;
 import org.broken.arrow.library.database.construct.query.Selector;
-import org.broken.arrow.library.database.construct.query.builder.table.CreateTableHandler;
 import org.broken.arrow.library.database.construct.query.builder.table.AlterTable;
 import org.broken.arrow.library.database.construct.query.builder.table.column.TableColumn;
 import org.broken.arrow.library.database.construct.query.columnbuilder.Column;
@@ -14,6 +13,7 @@ import org.broken.arrow.library.database.construct.query.utlity.CalcFunc;
 import org.broken.arrow.library.database.core.Database;
 import org.broken.arrow.library.database.utility.DatabaseType;
 import org.broken.arrow.library.database.utility.PrimaryConstraintWrapper;
+import org.broken.arrow.library.database.utility.query.build.ResultSetMapper;
 import org.broken.arrow.library.logging.Logging;
 import org.broken.arrow.library.logging.Validate;
 
@@ -23,6 +23,7 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -30,6 +31,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.function.BiConsumer;
 import java.util.logging.Level;
+import java.util.stream.Collectors;
 
 /**
  * Synchronizes an existing database table with its declared table definition.
@@ -54,6 +56,7 @@ import java.util.logging.Level;
  * </p>
  */
 public class SchemaMigrationHandler {
+    private static final int PROGRESS_INTERVAL = 10_000;
     private final Logging log = new Logging(SchemaMigrationHandler.class);
     private final Connection connection;
     private final Database databaseCore;
@@ -166,11 +169,14 @@ public class SchemaMigrationHandler {
         builder.select(ColumnManager.of().add(Column.of("*"))).from(queryTable.getTableName());
 
         final String builtQuery = builder.build();
-        try (final ResultSet resultSet = this.connection.prepareStatement(builtQuery).executeQuery()) {
-            while (resultSet.next()) {
-                final CreateTableHandler tableHandler = queryTable.getTable();
-                final Map<String, Object> dataFromDB = this.databaseCore.getDataFromDB(resultSet, tableHandler.getColumns());
-                primaryWrapper.loadMap(dataFromDB);
+        try (final PreparedStatement statement = this.connection.prepareStatement(builtQuery)) {
+            statement.setFetchSize(this.databaseCore.getFetchSize());
+            try (final ResultSet resultSet = statement.executeQuery()) {
+                final ResultSetMapper mapper = new ResultSetMapper(resultSet, queryTable.getColumnNameLookup());
+                while (resultSet.next()) {
+                    final Map<String, Object> dataFromDB = mapper.getRow(resultSet);
+                    primaryWrapper.loadMap(dataFromDB);
+                }
             }
         } catch (final SQLException throwable) {
             log.log(throwable, () -> "Failed to read existing rows while preparing primary key migration. The query '" + builtQuery + "' and this table '" + queryTable.getTableName() + "'");
@@ -194,27 +200,67 @@ public class SchemaMigrationHandler {
         if (!primaryWrapper.getPrimaryWrappers().isEmpty()) {
             primaryMapValuesSet = setValuesToDatabase(queryTable, primaryWrapper, primaryMapValuesSet, batchGroups);
         }
+        if (batchGroups.isEmpty())
+            return primaryMapValuesSet;
 
-        if (!batchGroups.isEmpty()) {
+        final int totalRows = batchGroups.values().stream().mapToInt(List::size).sum();
+        boolean autoCommit = true;
+        try {
+            autoCommit = this.connection.getAutoCommit();
+            this.connection.setAutoCommit(false);
+            int updatedRows = 0;
             for (Map.Entry<String, List<Map<Integer, Object>>> entry : batchGroups.entrySet()) {
-                String sql = entry.getKey();
-                List<Map<Integer, Object>> allRowsParams = entry.getValue();
+                updatedRows = executeUpdates(queryTable, entry.getKey(), entry.getValue(), updatedRows, totalRows);
+            }
+        } catch (final SQLException throwable) {
+            log.log(throwable, () -> "Failed to start the transaction to populate primary key values. Table: '" + queryTable.getTableName() + "'");
+        } finally {
+            try {
+                this.connection.setAutoCommit(autoCommit);
+            } catch (SQLException e) {
+                log.log(e, () -> "Failed to set auto commit back after populating primary key values.");
+            }
+        }
+        return primaryMapValuesSet;
+    }
 
-                try (final PreparedStatement preparedStatement = this.connection.prepareStatement(sql)) {
-                    for (Map<Integer, Object> rowParams : allRowsParams) {
-                        for (Map.Entry<Integer, Object> param : rowParams.entrySet()) {
-                            preparedStatement.setObject(param.getKey(), param.getValue());
-                        }
-                        preparedStatement.addBatch();
-                    }
-                    preparedStatement.executeBatch();
-                } catch (final SQLException throwable) {
-                    log.log(throwable, () -> "Failed to populate primary key values. SQL: '" + sql + "'. Table: '" + queryTable.getTableName() + "'");
+    /**
+     * Runs the updates in batches of {@link Database#getBatchSize()} rows, and commits after
+     * every batch. Without the transaction, SQLite commits every row on its own.
+     *
+     * @param queryTable   the table the rows belongs to.
+     * @param sql          the update query.
+     * @param rowsParams   the values for every row.
+     * @param updatedRows  the rows updated so far in the table.
+     * @param totalRows    all rows that will be updated in the table.
+     * @return the rows updated so far, including the rows of this query.
+     */
+    private int executeUpdates(final SqlQueryTable queryTable, final String sql, final List<Map<Integer, Object>> rowsParams, int updatedRows, final int totalRows) {
+        final int batchSize = this.databaseCore.getBatchSize();
+        try (final PreparedStatement preparedStatement = this.connection.prepareStatement(sql)) {
+            int batched = 0;
+            for (Map<Integer, Object> rowParams : rowsParams) {
+                for (Map.Entry<Integer, Object> param : rowParams.entrySet()) {
+                    preparedStatement.setObject(param.getKey(), param.getValue());
                 }
+                preparedStatement.addBatch();
+                if (++batched < batchSize)
+                    continue;
+                preparedStatement.executeBatch();
+                this.connection.commit();
+                logProgress(queryTable, updatedRows, updatedRows += batched, totalRows);
+                batched = 0;
+            }
+            if (batched > 0) {
+                preparedStatement.executeBatch();
+                this.connection.commit();
+                logProgress(queryTable, updatedRows, updatedRows += batched, totalRows);
             }
+        } catch (final SQLException throwable) {
+            rollback();
+            log.log(throwable, () -> "Failed to populate primary key values. SQL: '" + sql + "'. Table: '" + queryTable.getTableName() + "'");
         }
-
-        return primaryMapValuesSet;
+        return updatedRows;
     }
 
     private boolean setValuesToDatabase(final SqlQueryTable queryTable, final PrimaryConstraintWrapper primaryWrapper, boolean primaryMapValuesSet, final Map<String, List<Map<Integer, Object>>> batchGroups) {
@@ -323,7 +369,7 @@ public class SchemaMigrationHandler {
         }
     }
 
-    private void recreateTable(final SqlQueryTable queryTable, final List<Column> columnsToBeModified) {
+    private void recreateTable(final SqlQueryTable queryTable, final List<Column> columnsToBeModified) throws SQLException {
         final QueryBuilder queryBuilder = new QueryBuilder();
         final String tableName = queryTable.getTableName();
         final String temporaryTable = tableName + "_new";
@@ -336,21 +382,10 @@ public class SchemaMigrationHandler {
             statement.execute();
         } catch (final SQLException throwable) {
             log.log(throwable, () -> getMessage("Failed to create table during primary key migration. Columns ", tableName, columnsToBeModified));
+            throw throwable;
         }
 
-        final QueryBuilder queryInsertBuilder = new QueryBuilder();
-        queryInsertBuilder.insertInto(temporaryTable, insertHandler -> {
-            insertHandler.addAll(queryTable.getColumns()).getQueryModifier()
-                    .select(columnBuilder ->
-                            columnBuilder.addAll(queryTable.getColumns()))
-                    .from(tableName);
-        });
-        final String insertQuery = queryInsertBuilder.build();
-        try (final PreparedStatement statement = databaseConnection.prepareStatement(insertQuery)) {
-            statement.execute();
-        } catch (final SQLException throwable) {
-            log.log(throwable, () -> getMessage("Failed to create table during primary key migration. Query ", tableName, insertQuery));
-        }
+        copyRows(queryTable, tableName, temporaryTable);
         //todo handle when the the the primary column is an index.
         // updateIndex(connection, tableName);
 
@@ -361,6 +396,7 @@ public class SchemaMigrationHandler {
             statement.execute();
         } catch (final SQLException throwable) {
             log.log(throwable, () -> getMessage("Failed to drop table during primary key migration. Query ", tableName, dropQuery));
+            throw throwable;
         }
 
         final QueryBuilder queryAlterBuilder = new QueryBuilder();
@@ -370,6 +406,95 @@ public class SchemaMigrationHandler {
             statement.execute();
         } catch (final SQLException throwable) {
             log.log(throwable, () -> getMessage("Failed to alter table during primary key migration. Query ", tableName, alterQuery));
+            throw throwable;
+        }
+    }
+
+    /**
+     * Copies all rows to the new table with one {@code INSERT INTO ... SELECT}, so the rows
+     * never leave the database. If the database can not run it, the rows are copied in
+     * chunks of {@link Database#getFetchSize()} rows instead.
+     *
+     * @param queryTable the table definition.
+     * @param fromTable  the table to copy the rows from.
+     * @param toTable    the table to copy the rows to.
+     * @throws SQLException if the rows could not be copied.
+     */
+    private void copyRows(final SqlQueryTable queryTable, final String fromTable, final String toTable) throws SQLException {
+        final QueryBuilder queryInsertBuilder = new QueryBuilder();
+        queryInsertBuilder.insertInto(toTable, insertHandler -> {
+            insertHandler.addAll(queryTable.getColumns()).getQueryModifier()
+                    .select(columnBuilder ->
+                            columnBuilder.addAll(queryTable.getColumns()))
+                    .from(fromTable);
+        });
+        final String insertQuery = queryInsertBuilder.build();
+        try (final PreparedStatement statement = this.connection.prepareStatement(insertQuery)) {
+            final int copiedRows = statement.executeUpdate();
+            log.log(Level.FINE, () -> "Copied " + copiedRows + " rows from the table '" + fromTable + "' to '" + toTable + "'.");
+        } catch (final SQLException throwable) {
+            log.log(Level.WARNING, throwable, () -> getMessage("Could not copy the rows with one query, will copy them in chunks instead. Query ", fromTable, insertQuery));
+            copyRowsInChunks(queryTable, fromTable, toTable);
+        }
+    }
+
+    /**
+     * Copies the rows in chunks ordered by the SQLite {@code rowid}. Every chunk starts after
+     * the last {@code rowid} of the previous chunk, so it does not need to skip rows like
+     * {@code OFFSET} does.
+     *
+     * @param queryTable the table definition.
+     * @param fromTable  the table to copy the rows from.
+     * @param toTable    the table to copy the rows to.
+     * @throws SQLException if the rows could not be copied.
+     */
+    private void copyRowsInChunks(final SqlQueryTable queryTable, final String fromTable, final String toTable) throws SQLException {
+        final List<Column> columns = queryTable.getColumns();
+        final String columnNames = columns.stream().map(Column::getColumnName).collect(Collectors.joining(", "));
+        final String values = String.join(", ", Collections.nCopies(columns.size(), "?"));
+        final int chunkSize = this.databaseCore.getFetchSize();
+        final String selectQuery = "SELECT rowid, " + columnNames + " FROM " + fromTable + " WHERE rowid > ? ORDER BY rowid LIMIT " + chunkSize;
+        final String insertQuery = "INSERT INTO " + toTable + " (" + columnNames + ") VALUES (" + values + ")";
+
+        try (final PreparedStatement select = this.connection.prepareStatement(selectQuery);
+             final PreparedStatement insert = this.connection.prepareStatement(insertQuery)) {
+            long lastRowId = Long.MIN_VALUE;
+            int copiedRows = 0;
+            int chunkRows;
+            do {
+                chunkRows = 0;
+                select.setLong(1, lastRowId);
+                try (final ResultSet resultSet = select.executeQuery()) {
+                    while (resultSet.next()) {
+                        lastRowId = resultSet.getLong(1);
+                        for (int i = 0; i < columns.size(); i++) {
+                            insert.setObject(i + 1, resultSet.getObject(i + 2));
+                        }
+                        insert.addBatch();
+                        chunkRows++;
+                    }
+                }
+                if (chunkRows > 0) {
+                    insert.executeBatch();
+                    final int copied = copiedRows += chunkRows;
+                    if (chunkRows < chunkSize || copied % PROGRESS_INTERVAL < chunkSize)
+                        log.log(() -> "Copied " + copied + " rows from the table '" + fromTable + "' to '" + toTable + "'.");
+                }
+            } while (chunkRows == chunkSize);
+        }
+    }
+
+    private void logProgress(final SqlQueryTable queryTable, final int previousRows, final int updatedRows, final int totalRows) {
+        if (updatedRows < totalRows && previousRows / PROGRESS_INTERVAL == updatedRows / PROGRESS_INTERVAL)
+            return;
+        log.log(() -> "Populated primary key values for " + updatedRows + " of " + totalRows + " rows in the table '" + queryTable.getTableName() + "'.");
+    }
+
+    private void rollback() {
+        try {
+            this.connection.rollback();
+        } catch (SQLException e) {
+            log.log(e, () -> "could not rollback the changes");
         }
     }
 
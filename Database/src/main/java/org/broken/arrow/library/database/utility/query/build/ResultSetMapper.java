@@ -0,0 +1,94 @@
+package org.broken.arrow.library.database.utility.query.build;
+
+import org.broken.arrow.library.database.construct.query.columnbuilder.Column;
+
+import javax.annotation.Nonnull;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Maps the rows of one {@link ResultSet} to maps keyed by column name.
+ * <p>
+ * The metadata is read once when the mapper is created, and every result column
+ * index is resolved to the column name with the casing set when the table was created.
+ * Some databases return the names in uppercase, this way the name only need to be
+ * matched once and not for every row.
+ * </p>
+ */
+public class ResultSetMapper {
+    private final String[] columnNames;
+
+    /**
+     * Creates a mapper for the result set, matching the column names against the provided columns.
+     *
+     * @param resultSet the result set to map the rows from.
+     * @param columns   the columns with the correct casing of the names.
+     * @throws SQLException if the metadata could not be read.
+     */
+    public ResultSetMapper(@Nonnull final ResultSet resultSet, @Nonnull final List<? extends Column> columns) throws SQLException {
+        this(resultSet, createNameLookup(columns));
+    }
+
+    /**
+     * Creates a mapper for the result set, using an already built lookup of the column names.
+     *
+     * @param resultSet        the result set to map the rows from.
+     * @param columnNameLookup the column names keyed by the name in lowercase, see {@link #createNameLookup(List)}.
+     * @throws SQLException if the metadata could not be read.
+     */
+    public ResultSetMapper(@Nonnull final ResultSet resultSet, @Nonnull final Map<String, String> columnNameLookup) throws SQLException {
+        final ResultSetMetaData metaData = resultSet.getMetaData();
+        this.columnNames = new String[metaData.getColumnCount()];
+        for (int i = 0; i < this.columnNames.length; i++) {
+            final String columnName = metaData.getColumnName(i + 1);
+            this.columnNames[i] = columnNameLookup.getOrDefault(columnName.toLowerCase(Locale.ROOT), columnName);
+        }
+    }
+
+    /**
+     * Creates a lookup from the column name in lowercase to the column name
+     * with the casing it was created with.
+     *
+     * @param columns the columns to create the lookup for.
+     * @return a map of the lowercase name to the column name.
+     */
+    @Nonnull
+    public static Map<String, String> createNameLookup(@Nonnull final List<? extends Column> columns) {
+        final Map<String, String> lookup = new HashMap<>(columns.size() * 4 / 3 + 1);
+        for (Column column : columns) {
+            lookup.putIfAbsent(column.getColumnName().toLowerCase(Locale.ROOT), column.getColumnName());
+        }
+        return lookup;
+    }
+
+    /**
+     * Reads the current row of the result set.
+     *
+     * @param resultSet the result set this mapper was created for, placed on a row.
+     * @return a map of the column names and the values for the row.
+     * @throws SQLException if the values could not be read.
+     */
+    @Nonnull
+    public Map<String, Object> getRow(@Nonnull final ResultSet resultSet) throws SQLException {
+        final Map<String, Object> row = new HashMap<>(this.columnNames.length * 4 / 3 + 1);
+        for (int i = 0; i < this.columnNames.length; i++) {
+            row.put(this.columnNames[i], resultSet.getObject(i + 1));
+        }
+        return row;
+    }
+
+    /**
+     * Retrieve the column names in the same order as the result columns.
+     *
+     * @return the column names.
+     */
+    @Nonnull
+    public String[] getColumnNames() {
+        return this.columnNames.clone();
+    }
+}
@@ -15,7 +15,9 @@ import org.broken.arrow.library.menu.holder.MenuHolderPage;
 import org.broken.arrow.library.menu.holder.utility.InventoryRenderer;
 import org.broken.arrow.library.menu.holder.utility.LoadInventoryHandler;
 import org.broken.arrow.library.menu.holder.utility.MenuRenderer;
+import org.broken.arrow.library.menu.holder.utility.PageItemLoader;
 import org.broken.arrow.library.menu.runnable.AnimateTitleTask;
+import org.broken.arrow.library.menu.runnable.AnimationScheduler;
 import org.broken.arrow.library.menu.runnable.ButtonAnimation;
 import org.broken.arrow.library.menu.utility.Action;
 import org.broken.arrow.library.menu.utility.MenuInteractionChecks;
@@ -40,6 +42,8 @@ import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -59,17 +63,19 @@ public class MenuUtility<T> {
 
     private final MenuRenderer<T> menuRenderer;
     private final CheckItemsInsideMenu checkItemsInsideMenu;
-    private final Map<Integer, MenuDataUtility<T>> pagesOfButtonsData = new HashMap<>();
+    private final Map<Integer, MenuDataUtility<T>> pagesOfButtonsData = new LinkedHashMap<>(16, 0.75F, true);
     private final Map<Integer, Long> timeWhenUpdatesButtons = new HashMap<>();
     private final MenuInteractionChecks<T> menuInteractionChecks;
     private final InventoryRenderer<T> inventoryRender;
     private final LoadInventoryHandler<T> loadInventoryHandler;
+    private final PageItemLoader<T> pageItemLoader;
 
     protected List<Integer> fillSpace;
     protected RegisterMenuAPI menuAPI;
     protected InventoryType inventoryType;
     protected Player player;
     protected Sound menuOpenSound;
+    protected ItemStack loadingItem;
     protected Supplier<String> titleFunction;
     protected Supplier<JsonObject> titleFunctionJson;
     protected Supplier<String> animateTitle;
@@ -86,6 +92,9 @@ public class MenuUtility<T> {
     protected boolean useColorConversion;
     protected boolean fullyRefreshButtons;
     protected boolean updated;
+    protected boolean prefetchNeighbourPages;
+    protected boolean asyncItemLoading;
+    protected boolean skipUnchangedAnimationItems;
 
     protected int animateButtonTime = 20;
     protected int slotIndex;
@@ -95,6 +104,7 @@ public class MenuUtility<T> {
     protected int updateTime;
     protected int animateTitleTime = 5;
     protected int highestFillSlot;
+    protected int maxCachedPages = -1;
 
     private AnimateTitleTask<T> animateTitleTask;
     private ButtonAnimation<T> buttonAnimation;
@@ -123,6 +133,7 @@ public class MenuUtility<T> {
         this.inventoryRender = new InventoryRenderer<>(this);
         this.menuInteractionChecks = new MenuInteractionChecks<>(this);
         this.loadInventoryHandler = new LoadInventoryHandler<>(this, menuAPI);
+        this.pageItemLoader = new PageItemLoader<>(this);
 
         this.shallCacheItems = shallCacheItems;
         this.allowShiftClick = true;
@@ -764,6 +775,78 @@ public class MenuUtility<T> {
         return shallCacheItems;
     }
 
+    /**
+     * Get the amount of pages kept in the cache, besides the page that is currently shown.
+     * <p>
+     * When this is {@code -1} all rendered pages are kept and a page is rendered again every
+     * time it is shown. When it is zero or more, the least recently viewed pages are removed
+     * from the cache when it gets bigger than this, and a page that is still cached is shown
+     * without build the items again when you change page.
+     * </p>
+     *
+     * @return the max amount of cached pages, or {@code -1} if there is no limit.
+     */
+    public int getMaxCachedPages() {
+        return maxCachedPages;
+    }
+
+    /**
+     * Get if the page before and after the current page shall be rendered
+     * in advance, so the next page change does not need to build the items.
+     *
+     * @return true if the neighbour pages are rendered in advance.
+     */
+    public boolean isPrefetchNeighbourPages() {
+        return prefetchNeighbourPages;
+    }
+
+    /**
+     * Get if the animated buttons only are set in the inventory when the item has changed.
+     *
+     * @return true if unchanged items are skipped.
+     */
+    public boolean isSkipUnchangedAnimationItems() {
+        return skipUnchangedAnimationItems;
+    }
+
+    /**
+     * Retrieve the inventory renderer, that set the items in the actual menu.
+     *
+     * @return the inventory renderer.
+     */
+    public InventoryRenderer<T> getInventoryRenderer() {
+        return inventoryRender;
+    }
+
+    /**
+     * Get if the items for the fill slots are built off the main thread.
+     *
+     * @return true if the fill items are loaded async.
+     */
+    public boolean isAsyncItemLoading() {
+        return asyncItemLoading;
+    }
+
+    /**
+     * Get the item shown in the fill slots while the real items are loaded.
+     *
+     * @return the item or {@code null} if the slots are empty while loading.
+     */
+    @Nullable
+    public ItemStack getLoadingItem() {
+        return loadingItem;
+    }
+
+    /**
+     * Get the class that build the fill items off the main thread, when
+     * {@link #isAsyncItemLoading()} is set.
+     *
+     * @return the page item loader.
+     */
+    public PageItemLoader<T> getPageItemLoader() {
+        return pageItemLoader;
+    }
+
     /**
      * Get the class that handle inventory loading.
      *
@@ -786,6 +869,7 @@ public class MenuUtility<T> {
      */
     public void putAddedButtonsCache(final Integer pageNumber, final MenuDataUtility<T> menuDataUtility) {
         this.pagesOfButtonsData.put(pageNumber, menuDataUtility);
+        this.trimCachedPages();
     }
 
     /**
@@ -941,7 +1025,7 @@ public class MenuUtility<T> {
     public void setButton(final int pageNumber, final MenuDataUtility<T> menuDataUtility, final int slot, final int fillSlotIndex, final boolean isLastFillSlot) {
         final boolean isFillSlot = !this.getFillSpace().isEmpty() && this.getFillSpace().contains(slot);
         final MenuButton menuButton = getMenuButtonAtSlot(slot, fillSlotIndex, isFillSlot);
-        final ItemStack result = getItemAtSlot(menuButton, slot, fillSlotIndex, isFillSlot);
+        final ItemStack result = getItemOrLoadAsync(pageNumber, menuButton, slot, fillSlotIndex, isFillSlot);
 
         if (menuButton != null) {
             menuDataUtility.putButton(slot, menuButton, tButtonDataWrapper -> tButtonDataWrapper.setItemStack(result));
@@ -1016,11 +1100,13 @@ public class MenuUtility<T> {
         }
         this.pageNumber = page;
 
-        this.updateButtons();
+        this.showPage();
         this.updateTitle();
     }
 
     protected void updateButtons() {
+        if (this.maxCachedPages >= 0)
+            this.pagesOfButtonsData.clear();
         this.menuRenderer.setMenuItemsToPage(this.getPageNumber());
 
         this.redrawInventory();
@@ -1028,6 +1114,19 @@ public class MenuUtility<T> {
         this.updateEvent.markUpdated();
     }
 
+    /**
+     * Show the current page, it will use the cached page if {@link #getMaxCachedPages()}
+     * is set and the page is still cached. Use {@link #updateButtons()} if you want
+     * to build the items again.
+     */
+    protected void showPage() {
+        this.menuRenderer.setMenuItemsToCachedPage(this.getPageNumber());
+
+        this.redrawInventory();
+        this.updateTimeButtons();
+        this.updateEvent.markUpdated();
+    }
+
     protected void updateTimeButtons() {
         boolean cancelTask = false;
 
@@ -1111,6 +1210,27 @@ public class MenuUtility<T> {
         return result;
     }
 
+    /**
+     * Retrieves the item for the slot like {@link #getItemAtSlot(MenuButton, int, int, boolean)}. If
+     * {@link #isAsyncItemLoading()} is set and it is a fill slot, the item is instead queued to be built
+     * off the main thread and {@link #getLoadingItem()} is returned, so {@link #getItemAtSlot(MenuButton, int, int, boolean)}
+     * and the items it uses needs to be safe to invoke from another thread.
+     *
+     * @param pageNumber the page being rendered.
+     * @param menuButton the menu button to retrieve the item from.
+     * @param slot       the current inventory slot being rendered.
+     * @param fillSlot   the index within {@link #fillSpace} representing the inventory slot.
+     * @param isFillSlot {@code true} if this slot corresponds to a fill item, otherwise {@code false}.
+     * @return the item to set in the slot now, or {@code null} if none is found.
+     */
+    protected ItemStack getItemOrLoadAsync(final int pageNumber, final MenuButton menuButton, final int slot, final int fillSlot, final boolean isFillSlot) {
+        if (!this.asyncItemLoading || !isFillSlot || menuButton == null)
+            return getItemAtSlot(menuButton, slot, fillSlot, isFillSlot);
+
+        this.pageItemLoader.addItem(pageNumber, slot, () -> getItemAtSlot(menuButton, slot, fillSlot, true));
+        return this.loadingItem;
+    }
+
     protected void redrawInventory() {
         this.inventory = this.inventoryRender.redraw();
     }
@@ -1146,6 +1266,16 @@ public class MenuUtility<T> {
         return this.getFillSpace().stream().mapToInt(Integer::intValue).max().orElse(-1);
     }
 
+    /**
+     * Retrieve the scheduler that runs the button and title animations, it is
+     * shared by all menus.
+     *
+     * @return the animation scheduler.
+     */
+    public AnimationScheduler getAnimationScheduler() {
+        return menuAPI.getAnimationScheduler();
+    }
+
     /**
      * Retrieve the set plugin instance.
      *
@@ -1155,4 +1285,18 @@ public class MenuUtility<T> {
         return menuAPI.getPlugin();
     }
 
+    /**
+     * Removes the least recently viewed pages until the cache fits
+     * {@link #getMaxCachedPages()}, the current page is never removed.
+     */
+    private void trimCachedPages() {
+        final int maxPages = this.maxCachedPages;
+        if (maxPages < 0) return;
+
+        final Iterator<Integer> pages = this.pagesOfButtonsData.keySet().iterator();
+        while (this.pagesOfButtonsData.size() > maxPages + 1 && pages.hasNext()) {
+            if (pages.next() != this.pageNumber)
+                pages.remove();
+        }
+    }
 }
@@ -5,6 +5,7 @@ import org.broken.arrow.library.logging.Logging;
 import org.broken.arrow.library.menu.cache.MenuCache;
 import org.broken.arrow.library.menu.cache.MenuCacheKey;
 import org.broken.arrow.library.menu.messages.SendMsgDuplicatedItems;
+import org.broken.arrow.library.menu.runnable.AnimationScheduler;
 import org.broken.arrow.library.menu.utility.Action;
 import org.broken.arrow.library.menu.utility.MetadataPlayer;
 import org.broken.arrow.library.menu.utility.ServerVersion;
@@ -52,6 +53,7 @@ public class RegisterMenuAPI {
     private final Logging logger = new Logging(RegisterMenuAPI.class);
     private final MenuCache menuCache;
     private final Plugin plugin;
+    private AnimationScheduler animationScheduler;
     private MetadataPlayer playerMeta;
     private ItemCreator itemCreator;
     private CheckItemsInsideMenu checkItemsInsideMenu;
@@ -115,6 +117,7 @@ public class RegisterMenuAPI {
             notFoundUpdateTitle = true;
         }
         registerMenuEvent(plugin);
+        this.animationScheduler = new AnimationScheduler(plugin);
         this.checkItemsInsideMenu = new CheckItemsInsideMenu(this);
         this.playerMeta = new MetadataPlayer(plugin);
         this.messages = new SendMsgDuplicatedItems();
@@ -201,6 +204,15 @@ public class RegisterMenuAPI {
         return checkItemsInsideMenu;
     }
 
+    /**
+     * Gets the scheduler that runs the button and title animations for all menus.
+     *
+     * @return the {@link AnimationScheduler} instance, or {@code null} if no plugin is set.
+     */
+    public AnimationScheduler getAnimationScheduler() {
+        return animationScheduler;
+    }
+
     /**
      * Gets the menu cache which holds cached menus.
      *
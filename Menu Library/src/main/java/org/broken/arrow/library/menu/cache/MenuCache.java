@@ -3,21 +3,50 @@ package org.broken.arrow.library.menu.cache;
 
 import org.broken.arrow.library.menu.MenuUtility;
 import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.inventory.Inventory;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * This cache is for when you want to tied the menu to specific location
  * and you also get the benefit several players can use same menu at the
  * same time.
+ * <p>
+ * Menus are indexed by world, block coordinates and key, so finding the menu
+ * for a location does not need to go through all cached menus. The cache is safe
+ * to read from several threads, but the eviction checks the viewers of the menus
+ * and should only run on the main thread.
+ * </p>
+ * <p>
+ * Note that a location matches the menu on the same block, not only the exact same
+ * {@link Location}, so two locations inside one block share the menu. An empty key is
+ * also the same as a {@code null} key.
+ * </p>
+ * <p>
+ * Idle eviction and the max size are off by default. If you turn them on, note that
+ * a removed menu loses the items inside the inventory, menus with viewers are never removed.
+ * </p>
  */
 public final class MenuCache {
 
-	private final Map<MenuCacheKey, MenuUtility<?>> menusCached = new HashMap<>();
+	private final Map<MenuCacheKey, MenuUtility<?>> menusCached = new ConcurrentHashMap<>();
+	private final Map<BlockKey, MenuCacheKey> keysByBlock = new ConcurrentHashMap<>();
+	private final Map<MenuCacheKey, Long> lastUsed = new LinkedHashMap<>(16, 0.75F, true);
+	private final Object lock = new Object();
+	private volatile long idleTimeMillis = -1;
+	private volatile int maxSize = -1;
+	private long nextIdleCheck;
 
 	/**
 	 * Add menu to the cache.
@@ -29,9 +58,18 @@ public final class MenuCache {
 	 */
 	@Nonnull
 	public MenuCacheKey addToCache(@Nonnull final Location location, final String key, @Nonnull final MenuUtility<?> menu) {
-		MenuCacheKey menuCacheKey = new MenuCacheKey(location, key);
-		this.menusCached.put(menuCacheKey, menu);
-		return menuCacheKey;
+		final BlockKey blockKey = new BlockKey(location, key);
+		synchronized (this.lock) {
+			MenuCacheKey menuCacheKey = this.keysByBlock.get(blockKey);
+			if (menuCacheKey == null)
+				menuCacheKey = new MenuCacheKey(location, key);
+
+			this.menusCached.put(menuCacheKey, menu);
+			this.keysByBlock.put(blockKey, menuCacheKey);
+			this.lastUsed.put(menuCacheKey, System.currentTimeMillis());
+			this.evictMenus(menuCacheKey);
+			return menuCacheKey;
+		}
 	}
 
 	/**
@@ -61,7 +99,7 @@ public final class MenuCache {
 	@Nullable
 	public <T> T getMenuInCache(final Object object, Class<T> clazz) {
 		if (object instanceof MenuCacheKey && clazz == MenuUtility.class) {
-			return clazz.cast(this.menusCached.get(object));
+			return clazz.cast(this.getMenu((MenuCacheKey) object));
 		}
 		return null;
 	}
@@ -75,10 +113,10 @@ public final class MenuCache {
 	 */
 	@Nullable
 	public MenuCacheKey getMenuCacheKey(@Nonnull Location location, @Nullable String key) {
-		for (MenuCacheKey menuCacheKey : this.menusCached.keySet())
-			if (menuCacheKey.equals(location, key))
-				return menuCacheKey;
-		return null;
+		final MenuCacheKey menuCacheKey = this.keysByBlock.get(new BlockKey(location, key));
+		if (menuCacheKey != null)
+			this.markUsed(menuCacheKey);
+		return menuCacheKey;
 	}
 
 	/**
@@ -93,7 +131,7 @@ public final class MenuCache {
 	 */
 	@Nullable
 	public <T> T getMenuInCache(@Nullable final MenuCacheKey key, Class<T> clazz) {
-		MenuUtility<?> cachedMenu = this.menusCached.get(key);
+		MenuUtility<?> cachedMenu = this.getMenu(key);
 		if (clazz.isInstance(cachedMenu))
 			return clazz.cast(cachedMenu);
 		return null;
@@ -106,7 +144,12 @@ public final class MenuCache {
 	 * @return true if it could find the menu and the key is not {@code null}.
 	 */
 	public boolean removeMenuCached(@Nullable final MenuCacheKey key) {
-		return key != null && this.menusCached.remove(key) != null;
+		if (key == null) return false;
+		synchronized (this.lock) {
+			this.keysByBlock.remove(new BlockKey(key.getLocation(), key.getKey()), key);
+			this.lastUsed.remove(key);
+			return this.menusCached.remove(key) != null;
+		}
 	}
 
 	/**
@@ -117,10 +160,55 @@ public final class MenuCache {
 	 * @return true if it could find the menu.
 	 */
 	public boolean removeMenuCached(@Nonnull Location location, @Nullable String key) {
-		for (MenuCacheKey menuCacheKey : this.menusCached.keySet())
-			if (menuCacheKey.equals(location, key))
-				return this.menusCached.remove(menuCacheKey) != null;
-		return false;
+		return this.removeMenuCached(this.keysByBlock.get(new BlockKey(location, key)));
+	}
+
+	/**
+	 * Set how long a menu can be unused before it is removed from the cache. A menu is used
+	 * when it is looked up or added, menus with viewers are never removed. The check runs
+	 * when a menu is added to the cache, or when you invoke {@link #removeIdleMenus()}.
+	 *
+	 * @param idleTime the time a menu can be unused, zero or less turns it off.
+	 * @param unit     the unit of the time.
+	 */
+	public void setIdleTime(final long idleTime, @Nonnull final TimeUnit unit) {
+		this.idleTimeMillis = idleTime > 0 ? unit.toMillis(idleTime) : -1;
+	}
+
+	/**
+	 * Set the max amount of menus in the cache. When a menu is added and the cache is
+	 * bigger than this, the least recently used menus without viewers are removed.
+	 *
+	 * @param maxSize the max amount of menus, zero or less turns it off.
+	 */
+	public void setMaxSize(final int maxSize) {
+		this.maxSize = maxSize > 0 ? maxSize : -1;
+	}
+
+	/**
+	 * Removes the menus that have not been used for the time set in {@link #setIdleTime(long, TimeUnit)}.
+	 * Menus with viewers are never removed.
+	 *
+	 * @return the amount of menus removed.
+	 */
+	public int removeIdleMenus() {
+		final long idleTime = this.idleTimeMillis;
+		if (idleTime <= 0) return 0;
+
+		final long idleSince = System.currentTimeMillis() - idleTime;
+		synchronized (this.lock) {
+			final List<MenuCacheKey> idleMenus = new ArrayList<>();
+			for (final Map.Entry<MenuCacheKey, Long> entry : this.lastUsed.entrySet()) {
+				if (entry.getValue() >= idleSince) break;
+				if (!this.hasViewers(entry.getKey()))
+					idleMenus.add(entry.getKey());
+			}
+			int removed = 0;
+			for (final MenuCacheKey menuCacheKey : idleMenus) {
+				if (this.removeMenuCached(menuCacheKey)) removed++;
+			}
+			return removed;
+		}
 	}
 
 	/**
@@ -132,6 +220,62 @@ public final class MenuCache {
 		return Collections.unmodifiableMap(this.menusCached);
 	}
 
+	@Nullable
+	private MenuUtility<?> getMenu(@Nullable final MenuCacheKey key) {
+		if (key == null) return null;
+		final MenuUtility<?> menu = this.menusCached.get(key);
+		if (menu != null)
+			this.markUsed(key);
+		return menu;
+	}
+
+	/**
+	 * Moves the menu to the end of the recency order, if it is still cached.
+	 *
+	 * @param key the key of the used menu.
+	 */
+	private void markUsed(@Nonnull final MenuCacheKey key) {
+		synchronized (this.lock) {
+			if (this.lastUsed.containsKey(key))
+				this.lastUsed.put(key, System.currentTimeMillis());
+		}
+	}
+
+	/**
+	 * Removes idle menus if it is time to check them, and the least recently used
+	 * menus if the cache is bigger than the max size. The menus are checked from the
+	 * least recently used, so only menus with viewers are skipped over.
+	 *
+	 * @param addedKey the key just added, it will not be removed.
+	 */
+	private void evictMenus(@Nonnull final MenuCacheKey addedKey) {
+		final long idleTime = this.idleTimeMillis;
+		final long now = System.currentTimeMillis();
+		if (idleTime > 0 && now >= this.nextIdleCheck) {
+			this.nextIdleCheck = now + Math.max(idleTime / 2, 1000);
+			this.removeIdleMenus();
+		}
+
+		final int max = this.maxSize;
+		final int toRemove = this.menusCached.size() - max;
+		if (max <= 0 || toRemove <= 0) return;
+
+		final List<MenuCacheKey> leastUsed = new ArrayList<>(toRemove);
+		for (final MenuCacheKey menuCacheKey : this.lastUsed.keySet()) {
+			if (leastUsed.size() >= toRemove) break;
+			if (!menuCacheKey.equals(addedKey) && !this.hasViewers(menuCacheKey))
+				leastUsed.add(menuCacheKey);
+		}
+		leastUsed.forEach(this::removeMenuCached);
+	}
+
+	private boolean hasViewers(@Nonnull final MenuCacheKey menuCacheKey) {
+		final MenuUtility<?> menu = this.menusCached.get(menuCacheKey);
+		if (menu == null) return false;
+		final Inventory inventory = menu.getMenu();
+		return inventory != null && !inventory.getViewers().isEmpty();
+	}
+
 	@Override
 	public boolean equals(final Object o) {
 		if (this == o) return true;
@@ -146,4 +290,45 @@ public final class MenuCache {
 		return menusCached.hashCode();
 	}
 
+	/**
+	 * The key for the index, it uses the block the location is in
+	 * instead of the exact location.
+	 */
+	private static final class BlockKey {
+		private final UUID world;
+		private final int x;
+		private final int y;
+		private final int z;
+		private final String key;
+
+		private BlockKey(@Nonnull final Location location, @Nullable final String key) {
+			final World locationWorld = location.getWorld();
+			this.world = locationWorld != null ? locationWorld.getUID() : null;
+			this.x = location.getBlockX();
+			this.y = location.getBlockY();
+			this.z = location.getBlockZ();
+			this.key = key == null || key.isEmpty() ? null : key;
+		}
+
+		@Override
+		public boolean equals(final Object o) {
+			if (this == o) return true;
+			if (!(o instanceof BlockKey)) return false;
+			final BlockKey other = (BlockKey) o;
+			return x == other.x && y == other.y && z == other.z
+					&& Objects.equals(world, other.world)
+					&& Objects.equals(key, other.key);
+		}
+
+		@Override
+		public int hashCode() {
+			int result = Objects.hashCode(world);
+			result = 31 * result + x;
+			result = 31 * result + y;
+			result = 31 * result + z;
+			result = 31 * result + Objects.hashCode(key);
+			return result;
+		}
+	}
+
 }
\ No newline at end of file
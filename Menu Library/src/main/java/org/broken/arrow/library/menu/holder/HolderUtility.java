@@ -362,21 +362,86 @@ public abstract class HolderUtility<T> extends MenuUtility<T> {
     }
 
     /**
-     * set the page you want to open.
+     * set the page you want to open. The page don't need to be rendered before,
+     * it will be rendered when it is shown.
      *
      * @param page set the page number.
      * @return true if it could set the page.
      */
     public boolean setPage(final int page) {
-        if (!this.containsPage(page))
+        if (!this.containsPage(page) && (page < 0 || page >= this.getRequiredPages()))
             return false;
 
         this.pageNumber = page;
-        updateButtons();
+        showPage();
         updateTitle();
         return true;
     }
 
+    /**
+     * Set how many pages to keep in the cache, besides the page that is currently shown.
+     * Pages still in the cache are shown without build the items again when the player
+     * change page, the least recently viewed page is removed first.
+     * <p>
+     * Default it is {@code -1}, then all pages are kept and rendered again every time
+     * they are shown. Use {@link #updateButtons()} to build the cached pages again, if
+     * the items have changed.
+     * </p>
+     *
+     * @param maxCachedPages the amount of pages to keep, or {@code -1} to keep all.
+     */
+    public void setMaxCachedPages(final int maxCachedPages) {
+        this.maxCachedPages = Math.max(maxCachedPages, -1);
+    }
+
+    /**
+     * Set if the animated buttons shall only be set in the inventory when the item has changed.
+     * Turn this on if your animated buttons often return the same item, so the slot is not
+     * sent to the players again.
+     *
+     * @param skipUnchangedAnimationItems set to true to skip items that have not changed.
+     */
+    public void setSkipUnchangedAnimationItems(final boolean skipUnchangedAnimationItems) {
+        this.skipUnchangedAnimationItems = skipUnchangedAnimationItems;
+    }
+
+    /**
+     * Set if the items for the fill slots shall be built off the main thread. The page is
+     * shown with the item from {@link #setLoadingItem(ItemStack)} in the fill slots, and the
+     * real items are set when they are done.
+     * <p>
+     * Only turn this on if your fill items and the code that creates the items are safe to
+     * use from another thread, like lore formatting, placeholders or skull textures.
+     * </p>
+     *
+     * @param asyncItemLoading set to true to build the fill items async.
+     */
+    public void setAsyncItemLoading(final boolean asyncItemLoading) {
+        this.asyncItemLoading = asyncItemLoading;
+    }
+
+    /**
+     * Set the item shown in the fill slots while the items are loaded,
+     * see {@link #setAsyncItemLoading(boolean)}.
+     *
+     * @param loadingItem the item to show, or {@code null} to leave the slots empty.
+     */
+    public void setLoadingItem(@Nullable final ItemStack loadingItem) {
+        this.loadingItem = loadingItem;
+    }
+
+    /**
+     * Set if the page before and after the current page shall be rendered in advance,
+     * so next or previous page can be shown without build the items. It only works together
+     * with {@link #setMaxCachedPages(int)}, set it to 2 or more to keep both pages. If it is
+     * set to 1 only the next page is kept.
+     *
+     * @param prefetchNeighbourPages set to true to render the neighbour pages in advance.
+     */
+    public void setPrefetchNeighbourPages(final boolean prefetchNeighbourPages) {
+        this.prefetchNeighbourPages = prefetchNeighbourPages;
+    }
+
     /**
      * get previous page if this menu has several pages
      */
@@ -530,7 +595,7 @@ public abstract class HolderUtility<T> extends MenuUtility<T> {
 
         if (buttonAt != null) {
             final ItemStack itemStack = getMenuItem(buttonAt, buttonData, slot, true);
-            menu.setItem(slot, itemStack);
+            this.getInventoryRenderer().replaceItem(menu, slot, itemStack);
             menuDataUtility.putButton(slot, buttonAt,  dataWrapper -> dataWrapper
                     .setItemStack(itemStack)
                     .setObject(buttonData.getObject())
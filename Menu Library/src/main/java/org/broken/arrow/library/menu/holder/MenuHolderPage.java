@@ -314,7 +314,7 @@ public abstract class MenuHolderPage<T> extends HolderUtility<T> {
 
         boolean isFillSlot = isFillSlot(slot);
         final MenuButton menuButton = getMenuButtonAtSlot(slot, fillSlot, isFillSlot);
-        final ItemStack result = getItemAtSlot(menuButton, slot, fillSlot, isFillSlot);
+        final ItemStack result = getItemOrLoadAsync(pageNumber, menuButton, slot, fillSlot, isFillSlot);
 
         if (pageNumber == getPageNumber() && fillSlot >= 0) {
             this.fillSlotsMapping.put(slot, fillSlot);
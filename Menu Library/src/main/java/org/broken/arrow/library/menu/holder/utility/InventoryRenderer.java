@@ -6,8 +6,10 @@ import org.broken.arrow.library.menu.builders.ButtonData;
 import org.bukkit.Bukkit;
 import org.bukkit.event.inventory.InventoryType;
 import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.util.Map;
 import java.util.Optional;
 import java.util.logging.Level;
@@ -19,12 +21,19 @@ import java.util.logging.Level;
  * <p>This class handles inventory creation with correct size and type,
  * clearing and setting items according to the current page of buttons.</p>
  *
+ * <p>It keeps the last item it set in every slot, so a redraw only sets the
+ * slots where the item has changed. Items are compared by identity and hash
+ * code first, and only by {@link ItemStack#equals(Object)} when the hash match.</p>
+ *
  * @param <T> The type parameter used by the associated {@link MenuUtility}.
  */
 public class InventoryRenderer<T> {
 
     private final MenuUtility<T> utility;
     private final Logging logger = new Logging(MenuUtility.class);
+    private Inventory renderedInventory;
+    private ItemStack[] renderedItems = new ItemStack[0];
+    private int[] renderedHashes = new int[0];
 
     /**
      * Creates a new InventoryRenderer linked to the specified MenuUtility.
@@ -38,9 +47,11 @@ public class InventoryRenderer<T> {
     /**
      * Redraws the inventory for the current page.
      *
-     * <p>This method clears the existing inventory and populates it with
-     * button items from the current page. If the inventory is missing or its
-     * size is smaller than required, a new inventory will be created.</p>
+     * <p>This method populates the inventory with button items from the current
+     * page, only the slots that changed since last redraw are set. The inventory
+     * is cleared and all slots are set if it is a new inventory, or if players
+     * can add items to the menu. If the inventory is missing or its size is smaller
+     * than required, a new inventory will be created.</p>
      *
      * @return The updated {@link Inventory} instance ready to be displayed.
      */
@@ -54,19 +65,81 @@ public class InventoryRenderer<T> {
             menu = createInventory();
         }
 
-        menu.clear();
+        if (menu != this.renderedInventory || utility.isSlotsYouCanAddItems()) {
+            menu.clear();
+            this.resetRenderedItems(menu);
+        }
 
         Map<Integer, ButtonData<T>> buttons = utility.getMenuButtons(page);
-        if (buttons != null && !buttons.isEmpty()) {
-            for (int i = 0; i < menu.getSize(); i++) {
-                ButtonData<T> data = buttons.get(i);
-                menu.setItem(i, data != null ? data.getItemStack() : null);
-            }
+        for (int i = 0; i < menu.getSize(); i++) {
+            ButtonData<T> data = buttons != null ? buttons.get(i) : null;
+            this.setItem(menu, i, data != null ? data.getItemStack() : null);
         }
 
         return menu;
     }
 
+    /**
+     * Sets the item in the slot, if it is not the same item as this renderer
+     * last set in that slot.
+     *
+     * @param menu      the inventory to set the item in.
+     * @param slot      the slot to set.
+     * @param itemStack the item to set, or {@code null} to clear the slot.
+     * @return true if the item was set, false if the slot already had the item.
+     */
+    public boolean setItem(@Nonnull final Inventory menu, final int slot, @Nullable final ItemStack itemStack) {
+        if (menu != this.renderedInventory || slot < 0 || slot >= this.renderedItems.length) {
+            menu.setItem(slot, itemStack);
+            return true;
+        }
+        final int hash = itemStack != null ? itemStack.hashCode() : 0;
+        if (this.isRendered(slot, itemStack, hash)) return false;
+
+        menu.setItem(slot, itemStack);
+        this.renderedItems[slot] = itemStack;
+        this.renderedHashes[slot] = hash;
+        return true;
+    }
+
+    /**
+     * Sets the item in the slot without compare it with the item already set,
+     * and remember it for the next redraw.
+     *
+     * @param menu      the inventory to set the item in.
+     * @param slot      the slot to set.
+     * @param itemStack the item to set, or {@code null} to clear the slot.
+     */
+    public void replaceItem(@Nonnull final Inventory menu, final int slot, @Nullable final ItemStack itemStack) {
+        menu.setItem(slot, itemStack);
+        if (menu != this.renderedInventory || slot < 0 || slot >= this.renderedItems.length) return;
+
+        this.renderedItems[slot] = itemStack;
+        this.renderedHashes[slot] = itemStack != null ? itemStack.hashCode() : 0;
+    }
+
+    /**
+     * Checks if the item is the same as the item last set in the slot.
+     *
+     * @param slot      the slot to check.
+     * @param itemStack the new item.
+     * @param hash      the hash code of the new item.
+     * @return true if the slot already has the item.
+     */
+    private boolean isRendered(final int slot, @Nullable final ItemStack itemStack, final int hash) {
+        final ItemStack renderedItem = this.renderedItems[slot];
+        if (itemStack == null || renderedItem == null) return itemStack == renderedItem;
+        if (hash != this.renderedHashes[slot]) return false;
+
+        return renderedItem == itemStack || renderedItem.equals(itemStack);
+    }
+
+    private void resetRenderedItems(@Nonnull final Inventory menu) {
+        this.renderedInventory = menu;
+        this.renderedItems = new ItemStack[menu.getSize()];
+        this.renderedHashes = new int[menu.getSize()];
+    }
+
     /**
      * Creates a new Bukkit inventory with the appropriate type and size
      * based on the {@link MenuUtility} configuration.
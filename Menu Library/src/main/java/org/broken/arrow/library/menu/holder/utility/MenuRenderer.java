@@ -13,6 +13,11 @@ import java.util.logging.Level;
 /**
  * Responsible for rendering menu pages and managing menu items for each page.
  * This class supports both single-page rendering and caching of multiple pages.
+ * <p>
+ * Pages are rendered when they are shown, so a menu with many fill items only builds
+ * the items for the page the player is looking at. See {@link MenuUtility#getMaxCachedPages()}
+ * for how many of the already rendered pages are kept.
+ * </p>
  *
  * @param <T> The type of data being rendered as the object connected to the item.
  */
@@ -108,29 +113,44 @@ public class MenuRenderer<T> {
 
     /**
      * Prepares and caches menu items for a specific page.
-     * This is useful for rendering on demand.
+     * This is useful for rendering on demand, only the requested page is built.
+     * If {@link MenuUtility#isPrefetchNeighbourPages()} is set and pages are cached, the page
+     * before and after are also rendered, if they are not already cached.
      *
      * @param pageNumber the index of the page to render
      * @return the total number of pages that exist
      */
     public int setMenuItemsToPage(final int pageNumber) {
-        requiredPages = Math.max((int) Math.ceil(amountOfPages()), 1);
-        int currentFillSlot = pageNumber * numberOfFillItems;
+        this.preparePage();
+        this.renderPageAt(pageNumber);
 
-        this.setStartItemIndex(currentFillSlot);
-        if (this.lastFillSlot <= 0)
-            this.setHighestFillSlot(this.utility.getHighestFillSlot());
-        this.cacheButton(pageNumber);
+        if (this.utility.isPrefetchNeighbourPages() && this.utility.getMaxCachedPages() > 0
+                && !this.utility.shallCacheItems() && requiredPages > 1) {
+            this.prefetchPage(pageNumber > 0 ? pageNumber - 1 : requiredPages - 1);
+            this.prefetchPage(pageNumber + 1 < requiredPages ? pageNumber + 1 : 0);
+        }
+        return requiredPages;
+    }
 
-        if (numberOfFillItems <= 0)
-            numberOfFillItems = this.getStartItemIndex();
+    /**
+     * Shows a page that is already cached without build it again, if it is not cached
+     * it will be rendered like {@link #setMenuItemsToPage(int)}.
+     *
+     * @param pageNumber the index of the page to show
+     * @return the total number of pages that exist
+     */
+    public int setMenuItemsToCachedPage(final int pageNumber) {
+        if (this.utility.getMaxCachedPages() < 0 || !this.utility.containsPage(pageNumber))
+            return this.setMenuItemsToPage(pageNumber);
 
+        requiredPages = Math.max((int) Math.ceil(amountOfPages()), 1);
         return requiredPages;
     }
 
     /**
      * Caches the button layout for a specific page, including setting and optionally storing the layout.
-     * If {@code shallCacheItems()} returns false, it stores the rendered page data.
+     * If {@code shallCacheItems()} returns false, it stores the rendered page data. Fill items queued
+     * to be loaded async are started after the page is stored.
      *
      * @param pageNumber the page index to cache
      */
@@ -141,6 +161,7 @@ public class MenuRenderer<T> {
             this.utility.putAddedButtonsCache(pageNumber, menuDataUtility);
         }
         this.utility.retrieveMenuButtons(pageNumber, menuDataUtility);
+        this.utility.getPageItemLoader().load(pageNumber, menuDataUtility);
     }
 
     /**
@@ -224,6 +245,54 @@ public class MenuRenderer<T> {
         return null;
     }
 
+    /**
+     * Calculates the amount of pages and the number of fill items on one page, before
+     * a page is rendered.
+     */
+    private void preparePage() {
+        requiredPages = Math.max((int) Math.ceil(amountOfPages()), 1);
+        if (this.lastFillSlot <= 0)
+            this.setHighestFillSlot(this.utility.getHighestFillSlot());
+        if (numberOfFillItems <= 0)
+            numberOfFillItems = this.countFillSlots();
+    }
+
+    /**
+     * Renders the page from the first fill item on that page.
+     *
+     * @param pageNumber the index of the page to render
+     */
+    private void renderPageAt(final int pageNumber) {
+        this.setStartItemIndex(pageNumber * numberOfFillItems);
+        this.cacheButton(pageNumber);
+    }
+
+    /**
+     * Renders a page into the cache, unless it is already cached.
+     *
+     * @param pageNumber the index of the page to render
+     */
+    private void prefetchPage(final int pageNumber) {
+        if (pageNumber < 0 || this.utility.containsPage(pageNumber)) return;
+        this.renderPageAt(pageNumber);
+    }
+
+    /**
+     * Counts the fill slots inside the inventory, this is the amount of fill items
+     * {@link #renderPage(int)} use for one page.
+     *
+     * @return the number of fill items per page
+     */
+    private int countFillSlots() {
+        final List<Integer> fillSlots = this.utility.getFillSpace();
+        final int size = this.utility.getInventorySize();
+        int amount = 0;
+        for (int slot = 0; slot < size; slot++) {
+            if (fillSlots.contains(slot)) amount++;
+        }
+        return amount;
+    }
+
     /**
      * Increments the internal item index counter.
      */
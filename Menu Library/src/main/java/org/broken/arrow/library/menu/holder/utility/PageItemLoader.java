@@ -0,0 +1,130 @@
+package org.broken.arrow.library.menu.holder.utility;
+
+import org.broken.arrow.library.logging.Logging;
+import org.broken.arrow.library.menu.MenuUtility;
+import org.broken.arrow.library.menu.builders.ButtonData;
+import org.broken.arrow.library.menu.builders.MenuDataUtility;
+import org.bukkit.Bukkit;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.plugin.Plugin;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+
+/**
+ * Builds the items for the fill slots of a page off the main thread.
+ *
+ * <p>When {@link MenuUtility#isAsyncItemLoading()} is set, the page is rendered with
+ * {@link MenuUtility#getLoadingItem()} in the fill slots and the real items are queued here.
+ * When the page is rendered the queued items are built on an async task, and then set
+ * both in the cached page and in the inventory on the main thread in one go.</p>
+ *
+ * <p>If the page is rendered again before the items are done, the old items are dropped,
+ * so a slow load can't overwrite newer items.</p>
+ *
+ * @param <T> The type parameter used by the associated {@link MenuUtility}.
+ */
+public class PageItemLoader<T> {
+    private final Logging logger = new Logging(PageItemLoader.class);
+    private final MenuUtility<T> utility;
+    private final Map<Integer, List<PendingItem>> pendingItems = new HashMap<>();
+    private final Map<Integer, Integer> pageVersions = new HashMap<>();
+
+    /**
+     * Creates a new PageItemLoader linked to the specified MenuUtility.
+     *
+     * @param utility The MenuUtility instance the items are loaded for.
+     */
+    public PageItemLoader(@Nonnull final MenuUtility<T> utility) {
+        this.utility = utility;
+    }
+
+    /**
+     * Queue an item to be built off the main thread, it will be set when
+     * {@link #load(int, MenuDataUtility)} is invoked for the page.
+     *
+     * @param pageNumber the page the slot is on.
+     * @param slot       the inventory slot to set the item in.
+     * @param item       the supplier that builds the item, it is invoked on an async thread.
+     */
+    public void addItem(final int pageNumber, final int slot, @Nonnull final Supplier<ItemStack> item) {
+        this.pendingItems.computeIfAbsent(pageNumber, page -> new ArrayList<>()).add(new PendingItem(slot, item));
+    }
+
+    /**
+     * Starts to build the queued items for the page. This is invoked on the main thread
+     * every time a page is rendered, also when no items are queued, so items still loading
+     * for an older render of the page are dropped.
+     *
+     * @param pageNumber      the page that was rendered.
+     * @param menuDataUtility the rendered page the items will be set in.
+     */
+    public void load(final int pageNumber, @Nonnull final MenuDataUtility<T> menuDataUtility) {
+        final List<PendingItem> items = this.pendingItems.remove(pageNumber);
+        final int version = this.pageVersions.merge(pageNumber, 1, Integer::sum);
+        if (items == null || items.isEmpty()) return;
+
+        final Plugin plugin = this.utility.getPlugin();
+        if (!plugin.isEnabled()) return;
+
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            final Map<Integer, ItemStack> loadedItems = new HashMap<>(items.size());
+            for (final PendingItem pendingItem : items) {
+                loadedItems.put(pendingItem.slot, this.buildItem(pageNumber, pendingItem));
+            }
+            if (plugin.isEnabled())
+                Bukkit.getScheduler().runTask(plugin, () -> this.setItems(pageNumber, version, menuDataUtility, loadedItems));
+        });
+    }
+
+    /**
+     * Sets the loaded items in the cached page, and in the inventory if the page is shown.
+     *
+     * @param pageNumber      the page the items belong to.
+     * @param version         the render of the page the items was built for.
+     * @param menuDataUtility the rendered page.
+     * @param loadedItems     the slots and the built items.
+     */
+    private void setItems(final int pageNumber, final int version, @Nonnull final MenuDataUtility<T> menuDataUtility, @Nonnull final Map<Integer, ItemStack> loadedItems) {
+        if (this.pageVersions.getOrDefault(pageNumber, 0) != version) return;
+
+        final Inventory menu = this.utility.getMenu();
+        final boolean isShown = menu != null && pageNumber == this.utility.getPageNumber();
+        for (final Map.Entry<Integer, ItemStack> entry : loadedItems.entrySet()) {
+            final int slot = entry.getKey();
+            final ButtonData<T> buttonData = menuDataUtility.getButtons().get(slot);
+            if (buttonData == null) continue;
+
+            menuDataUtility.putButton(slot, buttonData.copy(entry.getValue()), null);
+            if (isShown && slot < menu.getSize())
+                this.utility.getInventoryRenderer().setItem(menu, slot, entry.getValue());
+        }
+    }
+
+    @Nullable
+    private ItemStack buildItem(final int pageNumber, @Nonnull final PendingItem pendingItem) {
+        try {
+            return pendingItem.item.get();
+        } catch (RuntimeException exception) {
+            this.logger.log(Level.WARNING, exception, () -> "Could not load the item for slot " + pendingItem.slot + " on page " + pageNumber + ".");
+            return null;
+        }
+    }
+
+    private static class PendingItem {
+        private final int slot;
+        private final Supplier<ItemStack> item;
+
+        private PendingItem(final int slot, @Nonnull final Supplier<ItemStack> item) {
+            this.slot = slot;
+            this.item = item;
+        }
+    }
+}
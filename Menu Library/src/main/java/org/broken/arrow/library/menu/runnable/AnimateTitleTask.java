@@ -2,17 +2,16 @@ package org.broken.arrow.library.menu.runnable;
 
 import org.broken.arrow.library.menu.MenuUtility;
 import org.broken.arrow.library.menu.utility.ServerVersion;
-import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.event.inventory.InventoryType;
-import org.bukkit.scheduler.BukkitRunnable;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.function.Supplier;
 
 /**
- * A repeating asynchronous task that handles animating the title of a menu for a player.
+ * A repeating task that handles animating the title of a menu for a player. It runs
+ * from the {@link AnimationScheduler} shared by all menus.
  * <p>
  * This task periodically fetches a title from a supplied animation source and updates
  * the player's open menu title accordingly. The animation stops when the player is no longer online,
@@ -21,12 +20,12 @@ import java.util.function.Supplier;
  *
  * @param <T> the type parameter used by the associated {@link MenuUtility}
  */
-public class AnimateTitleTask<T> extends BukkitRunnable {
+public class AnimateTitleTask<T> implements Runnable {
 
     private final Supplier<?> animateTitle;
     private final MenuUtility<T> menuUtility;
     private final Player player;
-    private int taskId;
+    private AnimationScheduler.ScheduledAnimation scheduledAnimation;
     private volatile boolean cancelled = false;
 
     /**
@@ -54,12 +53,12 @@ public class AnimateTitleTask<T> extends BukkitRunnable {
     }
 
     /**
-     * Starts this animation task to run asynchronously with the given delay between updates.
+     * Starts this animation task with the given delay between updates.
      *
      * @param delay the delay in ticks between each animation update
      */
     public void runTask(long delay) {
-        taskId = runTaskTimerAsynchronously(menuUtility.getPlugin(), 1L, delay).getTaskId();
+        this.scheduledAnimation = menuUtility.getAnimationScheduler().schedule(this, 1L, delay);
     }
 
     /**
@@ -68,9 +67,7 @@ public class AnimateTitleTask<T> extends BukkitRunnable {
      * @return true if the task is running or queued, false otherwise
      */
     public boolean isRunning() {
-        return taskId > 0 &&
-                (Bukkit.getScheduler().isCurrentlyRunning(taskId) ||
-                        Bukkit.getScheduler().isQueued(taskId));
+        return this.scheduledAnimation != null && !this.scheduledAnimation.isCancelled();
     }
 
     /**
@@ -80,7 +77,7 @@ public class AnimateTitleTask<T> extends BukkitRunnable {
     public void stopTask() {
         if (this.isRunning()) {
             this.cancelled = true;
-            Bukkit.getScheduler().cancelTask(this.taskId);
+            this.scheduledAnimation.cancel();
         }
     }
 
@@ -98,16 +95,14 @@ public class AnimateTitleTask<T> extends BukkitRunnable {
 
         Object text = this.animateTitle != null ? this.animateTitle.get() : null;
         if (itShouldNotAnimateTitle(text)) {
-            this.cancelled = true;
-            this.cancel();
+            this.stopTask();
             menuUtility.updateTitle(this.player);
             return;
         }
         if (text != null && !text.equals("")) {
             menuUtility.updateTitle(this.player, text);
         } else {
-            this.cancelled = true;
-            this.cancel();
+            this.stopTask();
         }
     }
 
@@ -121,7 +116,7 @@ public class AnimateTitleTask<T> extends BukkitRunnable {
         if (player != null && (!player.isOnline() || hasNotInventoryWithTitle()))
             return true;
         if (ServerVersion.getVersionUtil().compareTo(9, 0).atLeast()) {
-            return text == null || this.isCancelled();
+            return text == null || this.cancelled;
         }
         return text == null;
     }
@@ -0,0 +1,187 @@
+package org.broken.arrow.library.menu.runnable;
+
+import org.broken.arrow.library.logging.Logging;
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.logging.Level;
+
+/**
+ * Runs the button and title animations for all open menus from one repeating task.
+ * <p>
+ * The animations are placed in a hashed timing wheel, with one bucket for every tick
+ * in a round of {@value #WHEEL_SIZE} ticks. Every tick only the bucket for that tick is
+ * checked, so animations that are not due cost nothing, and all animations due on the
+ * same tick update their inventories in the same pass.
+ * </p>
+ * <p>
+ * The task is started when the first animation is scheduled and stopped when no
+ * animations are left. All methods need to be invoked from the main thread.
+ * </p>
+ */
+public class AnimationScheduler {
+    private static final int WHEEL_SIZE = 64;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+    private final Logging logger = new Logging(AnimationScheduler.class);
+    private final List<List<ScheduledAnimation>> wheel = new ArrayList<>(WHEEL_SIZE);
+    private final Plugin plugin;
+    private BukkitTask task;
+    private long currentTick;
+    private int amountOfAnimations;
+
+    /**
+     * Creates the scheduler for the plugin, it will not start any task
+     * until the first animation is scheduled.
+     *
+     * @param plugin the plugin the task will be registered to.
+     */
+    public AnimationScheduler(@Nonnull final Plugin plugin) {
+        this.plugin = plugin;
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            this.wheel.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * Schedules an animation to run repeatedly, until it is cancelled with
+     * {@link ScheduledAnimation#cancel()}.
+     *
+     * @param animation the animation to run.
+     * @param delay     the ticks before first run, at least one tick.
+     * @param period    the ticks between each run, at least one tick.
+     * @return the scheduled animation, use it to cancel the animation.
+     */
+    @Nonnull
+    public ScheduledAnimation schedule(@Nonnull final Runnable animation, final long delay, final long period) {
+        final ScheduledAnimation scheduledAnimation = new ScheduledAnimation(animation, Math.max(period, 1));
+        this.addToWheel(scheduledAnimation, Math.max(delay, 1));
+        this.amountOfAnimations++;
+        this.start();
+        return scheduledAnimation;
+    }
+
+    /**
+     * Get the amount of animations that are scheduled, cancelled animations are
+     * counted until the scheduler reaches them.
+     *
+     * @return the amount of scheduled animations.
+     */
+    public int getAmountOfAnimations() {
+        return amountOfAnimations;
+    }
+
+    /**
+     * Stops the task and removes all scheduled animations.
+     */
+    public void stop() {
+        if (this.task != null) {
+            this.task.cancel();
+            this.task = null;
+        }
+        for (final List<ScheduledAnimation> bucket : this.wheel) {
+            for (final ScheduledAnimation scheduledAnimation : bucket) {
+                scheduledAnimation.cancel();
+            }
+            bucket.clear();
+        }
+        this.amountOfAnimations = 0;
+    }
+
+    private void start() {
+        if (this.task != null || !this.plugin.isEnabled()) return;
+        this.task = Bukkit.getScheduler().runTaskTimer(this.plugin, this::tick, 1L, 1L);
+    }
+
+    private void tick() {
+        this.currentTick++;
+        final List<ScheduledAnimation> bucket = this.wheel.get((int) (this.currentTick & WHEEL_MASK));
+        if (bucket.isEmpty()) {
+            this.stopIfEmpty();
+            return;
+        }
+
+        List<ScheduledAnimation> dueAnimations = null;
+        final Iterator<ScheduledAnimation> animations = bucket.iterator();
+        while (animations.hasNext()) {
+            final ScheduledAnimation scheduledAnimation = animations.next();
+            if (scheduledAnimation.isCancelled()) {
+                animations.remove();
+                this.amountOfAnimations--;
+            } else if (scheduledAnimation.nextTick <= this.currentTick) {
+                animations.remove();
+                if (dueAnimations == null) dueAnimations = new ArrayList<>();
+                dueAnimations.add(scheduledAnimation);
+            }
+        }
+
+        if (dueAnimations != null) {
+            for (final ScheduledAnimation scheduledAnimation : dueAnimations) {
+                this.runAnimation(scheduledAnimation);
+            }
+        }
+        this.stopIfEmpty();
+    }
+
+    private void runAnimation(@Nonnull final ScheduledAnimation scheduledAnimation) {
+        try {
+            scheduledAnimation.animation.run();
+        } catch (RuntimeException exception) {
+            scheduledAnimation.cancel();
+            this.logger.log(Level.WARNING, exception, () -> "Menu animation failed and was stopped.");
+        }
+        if (scheduledAnimation.isCancelled()) {
+            this.amountOfAnimations--;
+            return;
+        }
+        this.addToWheel(scheduledAnimation, scheduledAnimation.period);
+    }
+
+    private void addToWheel(@Nonnull final ScheduledAnimation scheduledAnimation, final long delay) {
+        scheduledAnimation.nextTick = this.currentTick + delay;
+        this.wheel.get((int) (scheduledAnimation.nextTick & WHEEL_MASK)).add(scheduledAnimation);
+    }
+
+    private void stopIfEmpty() {
+        if (this.amountOfAnimations > 0 || this.task == null) return;
+        this.task.cancel();
+        this.task = null;
+    }
+
+    /**
+     * An animation placed in the {@link AnimationScheduler}.
+     */
+    public static class ScheduledAnimation {
+        private final Runnable animation;
+        private final long period;
+        private long nextTick;
+        private volatile boolean cancelled;
+
+        private ScheduledAnimation(@Nonnull final Runnable animation, final long period) {
+            this.animation = animation;
+            this.period = period;
+        }
+
+        /**
+         * Stops the animation, it will be removed from the scheduler at the latest
+         * on the tick it was next due.
+         */
+        public void cancel() {
+            this.cancelled = true;
+        }
+
+        /**
+         * Check if the animation is cancelled.
+         *
+         * @return true if it will not run again.
+         */
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+}
@@ -4,10 +4,8 @@ import org.broken.arrow.library.menu.MenuUtility;
 import org.broken.arrow.library.menu.builders.ButtonData;
 import org.broken.arrow.library.menu.builders.MenuDataUtility;
 import org.broken.arrow.library.menu.button.MenuButton;
-import org.bukkit.Bukkit;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.scheduler.BukkitRunnable;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -24,17 +22,22 @@ import java.util.function.Supplier;
  * This task runs on a timer and updates specific menu buttons based on configured update times,
  * animating button states or appearances dynamically.
  * </p>
+ * <p>
+ * The timer is shared by all menus, see {@link AnimationScheduler}. Between the updates the
+ * task only checks the counter, it does not go through the buttons until one of them is due.
+ * </p>
  *
  * @param <T> the generic type associated with the {@link MenuUtility} used for menu management
  */
-public class ButtonAnimation<T> extends BukkitRunnable {
+public class ButtonAnimation<T> implements Runnable {
     private final Map<Integer, Long> timeWhenUpdatesButtons = new HashMap<>();
     private Map<Integer, ButtonAnimationGroup> itemSlots = new HashMap<>();
     private final MenuUtility<T> menuUtility;
     private final int inventorySize;
     private Supplier<AnimationContext> dataSupplier;
+    private AnimationScheduler.ScheduledAnimation scheduledAnimation;
     private int counter = 0;
-    private int taskId;
+    private long nextUpdate;
 
     /**
      * Creates a ButtonAnimation tied to a specific {@link MenuUtility}.
@@ -55,7 +58,7 @@ public class ButtonAnimation<T> extends BukkitRunnable {
      * @param delay the delay in ticks between each animation update
      */
     public void runTask(long delay) {
-        taskId = runTaskTimer(menuUtility.getPlugin(), 1L, delay).getTaskId();
+        this.scheduledAnimation = menuUtility.getAnimationScheduler().schedule(this, 1L, delay);
     }
 
     /**
@@ -64,9 +67,7 @@ public class ButtonAnimation<T> extends BukkitRunnable {
      * @return Returns {@code true} if the task is running.
      */
     public boolean isRunning() {
-        return taskId > 0 &&
-                (Bukkit.getScheduler().isCurrentlyRunning(taskId) ||
-                        Bukkit.getScheduler().isQueued(taskId));
+        return this.scheduledAnimation != null && !this.scheduledAnimation.isCancelled();
     }
 
     /**
@@ -75,7 +76,7 @@ public class ButtonAnimation<T> extends BukkitRunnable {
      */
     public void stopTask() {
         if (this.isRunning()) {
-            Bukkit.getScheduler().cancelTask(this.taskId);
+            this.scheduledAnimation.cancel();
         }
     }
 
@@ -97,21 +98,26 @@ public class ButtonAnimation<T> extends BukkitRunnable {
     public void run() {
         AnimationContext animationContext = this.dataSupplier.get();
         if (animationContext == null || !animationContext.isSet()) {
-            cancel();
+            stopTask();
             return;
         }
 
         int pageNumber = animationContext.getPage();
         final MenuDataUtility<T> menuDataUtility = menuUtility.getMenuData(animationContext.getPlayer(), pageNumber);
         if (menuDataUtility == null) {
-            cancel();
+            stopTask();
             return;
         }
         if (itemSlots.isEmpty()) {
             final Map<Integer, ButtonData<T>> buttons = menuDataUtility.getButtonsToUpdate();
             itemSlots = this.getItemSlotsMap(menuDataUtility, buttons);
         }
+        if (counter < nextUpdate) {
+            counter++;
+            return;
+        }
 
+        long nextButtonUpdate = Long.MAX_VALUE;
         for (final Map.Entry<Integer, ButtonAnimationGroup> dataEntry : itemSlots.entrySet()) {
             final MenuButton menuButton = dataEntry.getValue().getMenuButton();
             final Long timeLeft = getUpdateTime(menuButton);
@@ -122,7 +128,11 @@ public class ButtonAnimation<T> extends BukkitRunnable {
             else if (counter >= timeLeft && startUpdateButton(animationContext, dataEntry, menuDataUtility)) {
                 return;
             }
+            final Long scheduledTime = getUpdateTime(menuButton);
+            if (scheduledTime != null && scheduledTime > 0)
+                nextButtonUpdate = Math.min(nextButtonUpdate, scheduledTime);
         }
+        nextUpdate = itemSlots.isEmpty() ? 0 : nextButtonUpdate;
         counter++;
     }
 
@@ -154,6 +164,7 @@ public class ButtonAnimation<T> extends BukkitRunnable {
      * @param menuButton the button to schedule for update
      */
     public void updateScheduledTime(final MenuButton menuButton) {
+        this.nextUpdate = 0;
         this.getTimeWhenUpdatesButtons().put(menuButton.getId(), this.counter + getTime(menuButton));
     }
 
@@ -164,6 +175,7 @@ public class ButtonAnimation<T> extends BukkitRunnable {
      * @param carriedTime set time to use instead of current time or will use defoult time.
      */
     public void updateScheduledTime(final MenuButton menuButton, final long carriedTime) {
+        this.nextUpdate = 0;
         this.getTimeWhenUpdatesButtons().compute(menuButton.getId(), (id, existingTime) -> {
             if (existingTime != null) {
                 return existingTime;
@@ -181,6 +193,7 @@ public class ButtonAnimation<T> extends BukkitRunnable {
      * @param menuButton the button to remove.
      */
     public void removeUpdateTime(@Nonnull final MenuButton menuButton) {
+        this.nextUpdate = 0;
         this.getTimeWhenUpdatesButtons().remove(menuButton.getId());
     }
 
@@ -214,7 +227,10 @@ public class ButtonAnimation<T> extends BukkitRunnable {
             if (buttonData == null) continue;
 
             final ItemStack menuItem = getMenuItemStack(menuButton, buttonData, slot);
-            menu.setItem(slot, menuItem);
+            if (this.menuUtility.isSkipUnchangedAnimationItems())
+                this.menuUtility.getInventoryRenderer().setItem(menu, slot, menuItem);
+            else
+                this.menuUtility.getInventoryRenderer().replaceItem(menu, slot, menuItem);
             menuDataUtility.updateButton(slot, menuButton, dataWrapper -> dataWrapper.setItemStack(menuItem));
         }
         this.updateScheduledTime(menuButton);
@@ -240,6 +256,7 @@ public class ButtonAnimation<T> extends BukkitRunnable {
             }
             final Map<Integer, ButtonData<T>> buttons = menuDataUtility.getButtonsToUpdate();
             this.itemSlots = this.getItemSlotsMap(menuDataUtility, buttons);
+            this.nextUpdate = 0;
         });
     }
 
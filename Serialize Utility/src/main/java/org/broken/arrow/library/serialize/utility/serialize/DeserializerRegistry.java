@@ -0,0 +1,93 @@
+package org.broken.arrow.library.serialize.utility.serialize;
+
+import org.broken.arrow.library.logging.Validate;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Cache of the functions used to deserialize a {@link ConfigurationSerializable} class from a map.
+ * <p>
+ * The static {@code deserialize(Map)} or {@code valueOf(Map)} method is looked up once per class
+ * and kept as a {@link MethodHandle}, so the methods of the class are not scanned for every object.
+ * You can also register your own function with {@link #register(Class, Function)}, then no
+ * reflection is used at all for that class.
+ * </p>
+ */
+public final class DeserializerRegistry {
+
+	private static final Function<Map<String, Object>, Object> MISSING = data -> null;
+	private static final Map<Class<?>, Function<Map<String, Object>, ?>> DESERIALIZERS = new ConcurrentHashMap<>();
+
+	private DeserializerRegistry() {
+	}
+
+	/**
+	 * Register the function used to deserialize the class, replacing any cached or
+	 * earlier registered function.
+	 *
+	 * @param <T>          The type of the deserialized object.
+	 * @param clazz        The class to register the function for.
+	 * @param deserializer The function that creates the object from the serialized map.
+	 */
+	public static <T extends ConfigurationSerializable> void register(@Nonnull final Class<T> clazz, @Nonnull final Function<Map<String, Object>, T> deserializer) {
+		DESERIALIZERS.put(clazz, deserializer);
+	}
+
+	/**
+	 * Remove the registered or cached function for the class.
+	 *
+	 * @param clazz The class to remove.
+	 */
+	public static void unregister(@Nonnull final Class<?> clazz) {
+		DESERIALIZERS.remove(clazz);
+	}
+
+	/**
+	 * Deserialize an object with the registered function, or the static {@code deserialize(Map)}
+	 * or {@code valueOf(Map)} method of the class.
+	 *
+	 * @param <T>   The type of the deserialized object.
+	 * @param clazz The class to deserialize.
+	 * @param data  The serialized data.
+	 * @return The deserialized object, or null if the class has no deserialize method.
+	 * @throws Validate.ValidateExceptions If the method is not static or could not be invoked.
+	 */
+	@Nullable
+	public static <T extends ConfigurationSerializable> T deserialize(@Nonnull final Class<T> clazz, @Nonnull final Map<String, Object> data) {
+		final Function<Map<String, Object>, ?> deserializer = DESERIALIZERS.computeIfAbsent(clazz, DeserializerRegistry::createDeserializer);
+		return clazz.cast(deserializer.apply(data));
+	}
+
+	private static Function<Map<String, Object>, ?> createDeserializer(final Class<?> clazz) {
+		Method method = MethodReflectionUtils.getMethod(clazz, "deserialize", Map.class);
+		if (method == null)
+			method = MethodReflectionUtils.getMethod(clazz, "valueOf", Map.class);
+		if (method == null)
+			return MISSING;
+
+		Validate.checkBoolean(!Modifier.isStatic(method.getModifiers()), method + " need to be static");
+		final MethodHandle handle;
+		try {
+			handle = MethodHandles.lookup().unreflect(method).asType(MethodType.methodType(Object.class, Map.class));
+		} catch (final IllegalAccessException ex) {
+			throw new Validate.ValidateExceptions(ex, "Could not access static method " + method);
+		}
+		final Method deserializeMethod = method;
+		return data -> {
+			try {
+				return (Object) handle.invokeExact((Map) data);
+			} catch (final Throwable ex) {
+				throw new Validate.ValidateExceptions(ex, "Could not invoke static method " + deserializeMethod + " with params " + data);
+			}
+		};
+	}
+}
@@ -4,7 +4,7 @@ package org.broken.arrow.library.yaml;
 import org.broken.arrow.library.logging.Logging;
 import org.broken.arrow.library.logging.Validate;
 import org.broken.arrow.library.serialize.utility.serialize.ConfigurationSerializable;
-import org.broken.arrow.library.serialize.utility.serialize.MethodReflectionUtils;
+import org.broken.arrow.library.serialize.utility.serialize.DeserializerRegistry;
 import org.broken.arrow.library.yaml.config.updater.ConfigUpdater;
 import org.broken.arrow.library.yaml.utillity.ConfigurationWrapper;
 import org.broken.arrow.library.yaml.utillity.Valid;
@@ -24,7 +24,6 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
-import java.lang.reflect.Method;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLConnection;
@@ -263,11 +262,7 @@ public abstract class YamlFileManager {
 			deSerializeConfig(path, configurationSection, config, fileData);
 		}
 
-		Method deserializeMethod = MethodReflectionUtils.getMethod(clazz, "deserialize", Map.class);
-		if (deserializeMethod == null)
-			deserializeMethod = MethodReflectionUtils.getMethod(clazz, "valueOf", Map.class);
-
-		return MethodReflectionUtils.invokeStaticMethod(clazz, deserializeMethod, fileData);
+		return DeserializerRegistry.deserialize(clazz, fileData);
 	}
 
 	/**
@@ -33,6 +33,7 @@ include(":color-conversion")
 include(":utility-library")
 include(":menu-configuration-manager")
 include(":database")
+include(":database-benchmark")
 include(":yaml-utility")
 include(":conversation-prompt")
 include(":log-and-validate")
@@ -51,6 +52,7 @@ project(":color-conversion").projectDir = file("Color Conversion")
 project(":utility-library").projectDir = file("Utility Library")
 project(":menu-configuration-manager").projectDir = file("Menu Configuration Manager")
 project(":database").projectDir = file("Database")
+project(":database-benchmark").projectDir = file("Database Benchmark")
 project(":yaml-utility").projectDir = file("Yaml Utility")
 project(":conversation-prompt").projectDir = file("Conversation Prompt")
 project(":log-and-validate").projectDir = file("Log and Validate")